@@ -0,0 +1,90 @@
+package com.finalproject.library_management_system_backend.benchmarks;
+
+import com.finalproject.library_management_system_backend.dtos.BookDto;
+import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.mappers.BookMapper;
+import com.finalproject.library_management_system_backend.mappers.BookMapperImpl;
+import com.finalproject.library_management_system_backend.mappers.ReservationMapper;
+import com.finalproject.library_management_system_backend.mappers.ReservationMapperImpl;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.Reservation;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.model.UserType;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the generated MapStruct mappers on fully loaded entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final BookMapper bookMapper = new BookMapperImpl();
+    private final ReservationMapper reservationMapper = new ReservationMapperImpl();
+
+    private Book book;
+    private Reservation reservation;
+    private AuthenticatedUser reader;
+
+    @Setup
+    public void createEntities() {
+        book = Book.builder()
+                .id(1L)
+                .title("The Left Hand of Darkness")
+                .author("Ursula K. Le Guin")
+                .publicationYear(1969)
+                .totalCopies(4)
+                .availableCopies(2)
+                .build();
+        User user = User.builder()
+                .id(7L)
+                .firstName("Genly")
+                .lastName("Ai")
+                .email("genly@example.com")
+                .password("hash")
+                .userType(UserType.builder().id(1L).typeName("User").build())
+                .build();
+        reservation = Reservation.builder()
+                .id(42L)
+                .book(book)
+                .user(user)
+                .status(ReservationStatus.BORROWED)
+                .reservationDate(LocalDateTime.now())
+                .expectedReturnDate(LocalDateTime.now().plusDays(7))
+                .build();
+        reader = AuthenticatedUser.from(user);
+    }
+
+    @Benchmark
+    public BookDto bookToDto() {
+        return bookMapper.toBookDto(book);
+    }
+
+    @Benchmark
+    public ReservationDto reservationToDto() {
+        return reservationMapper.toDto(reservation);
+    }
+
+    @Benchmark
+    public ReservationDto reservationToDtoForReader() {
+        return reservationMapper.toDto(reservation, reader);
+    }
+}
@@ -0,0 +1,99 @@
+package com.finalproject.library_management_system_backend.benchmarks;
+
+import com.finalproject.library_management_system_backend.LibraryManagementSystemBackendApplication;
+import com.finalproject.library_management_system_backend.dtos.CreateReservationRequest;
+import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import com.finalproject.library_management_system_backend.services.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation service calls against the whole application running on
+ * the embedded H2 database, migrated by Flyway exactly as in the tests.
+ * Each benchmark runs in its own fork, so each starts from a fresh
+ * database holding one reader with {@link #SEEDED_RESERVATIONS}
+ * reservations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationServiceBenchmark {
+
+    static final int SEEDED_RESERVATIONS = 50;
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private AuthenticatedUser reader;
+    private CreateReservationRequest request;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(LibraryManagementSystemBackendApplication.class)
+                .run("--server.port=0",
+                        "--logging.level.root=warn",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--library.query-budget.fail-on-exceed=false");
+        reservationService = context.getBean(ReservationService.class);
+
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .firstName("Bench")
+                .lastName("Reader")
+                .email("bench@example.com")
+                .password("hash")
+                .userType(context.getBean(UserTypeRepository.class).findByTypeName("User").orElseThrow())
+                .build());
+        Book book = context.getBean(BookRepository.class).save(Book.builder()
+                .title("Benchmarked")
+                .author("Author")
+                .publicationYear(2020)
+                .totalCopies(Integer.MAX_VALUE)
+                .availableCopies(Integer.MAX_VALUE)
+                .build());
+
+        reader = AuthenticatedUser.from(user);
+        request = new CreateReservationRequest();
+        request.setBookId(book.getId());
+        for (int i = 0; i < SEEDED_RESERVATIONS; i++) {
+            reservationService.createReservation(request, reader);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReservationDto createReservation() {
+        return reservationService.createReservation(request, reader);
+    }
+
+    @Benchmark
+    public List<ReservationDto> getReservationsByUserId() {
+        return reservationService.getReservationsByUserId(reader.id());
+    }
+}
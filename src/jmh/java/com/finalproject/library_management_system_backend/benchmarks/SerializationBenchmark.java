@@ -0,0 +1,76 @@
+package com.finalproject.library_management_system_backend.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.finalproject.library_management_system_backend.dtos.BookDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing a page of books as JSON, with an {@link ObjectMapper}
+ * built the way Spring Boot builds the one behind the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int books;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private List<BookDto> page;
+
+    @Setup
+    public void createPage() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, BookDto.class));
+
+        page = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            BookDto book = new BookDto();
+            book.setId((long) i);
+            book.setTitle("Title number " + i);
+            book.setAuthor("Author " + (i % 97));
+            book.setPublicationYear(1900 + i % 120);
+            book.setTotalCopies(5);
+            book.setAvailableCopies(i % 6);
+            book.setPictureUrl(i % 3 == 0 ? null : "https://covers.example.com/" + i + ".jpg");
+            page.add(book);
+        }
+    }
+
+    /**
+     * What the controllers do: the writer is looked up for the runtime type.
+     */
+    @Benchmark
+    public byte[] writeList() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    /**
+     * The same with a writer prepared for {@code List<BookDto>} once.
+     */
+    @Benchmark
+    public byte[] writeListWithTypedWriter() throws Exception {
+        return listWriter.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,325 @@
+package com.finalproject.library_management_system_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.finalproject.library_management_system_backend.dataset.DatasetGenerator;
+import com.finalproject.library_management_system_backend.dataset.DatasetSpec;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a mixed workload against the application over HTTP and compares
+ * each endpoint's latency percentiles and throughput with a stored baseline.
+ * <p>
+ * The application starts on the embedded database with the {@code dataset}
+ * profile, so the catalog and the reservation history are generated before
+ * it reports ready. Every client is a virtual thread that signs in through
+ * {@code /auth/login} like the web client and then issues requests back to
+ * back, signing in again every {@value #SESSION_REQUESTS} requests. Readers
+ * browse, search, look up books and take hot titles through the checkout
+ * desk (reserve, collect, return); a few desk clients watch the admin
+ * dashboards. Only requests started inside the measurement window, after
+ * the warm-up, are counted.
+ * <p>
+ * Settings are system properties: {@code loadtest.clients},
+ * {@code loadtest.warmup-seconds}, {@code loadtest.duration-seconds},
+ * {@code loadtest.latency-tolerance}, {@code loadtest.latency-floor-ms},
+ * {@code loadtest.throughput-tolerance}, {@code loadtest.max-error-rate},
+ * {@code loadtest.baseline} and {@code loadtest.update-baseline}, which
+ * replaces the baseline with this run instead of comparing against it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=servlet",
+        "library.dataset.exit-when-done=false",
+        "library.dataset.users=" + CheckoutDeskLoadIT.USERS,
+        "library.dataset.books=20000",
+        "library.dataset.reservations=200000"
+})
+@Slf4j
+@ActiveProfiles("dataset")
+class CheckoutDeskLoadIT {
+
+    static final int USERS = 2_000;
+
+    private static final int SESSION_REQUESTS = 25;
+
+    private static final String RESERVE = "POST /reservations";
+
+    private static final DatasetSpec DATASET = DatasetSpec.builder().users(USERS).build();
+
+    private static final List<String> SEARCH_TERMS = List.of(
+            "river", "silent garden", "kingdom", "golden", "winter", "smith", "garcia", "shadow of", "lost city",
+            "nakamura", "memory", "the last");
+
+    private static final List<String> PREFIXES = List.of(
+            "ri", "gar", "sha", "sil", "win", "the g", "kin", "oli", "nak", "mem", "the l", "lib");
+
+    private static final String HOT_TITLES_SQL = """
+            select b.id from books b join reservation r on r.book_id = b.id
+            where b.available_copies > 0
+            group by b.id order by count(*) desc limit 20""";
+
+    private record Response(int status, String body) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private volatile boolean measuring;
+    private HttpClient http;
+    private String deskToken;
+    private List<Long> hotTitles;
+    private long firstBookId;
+    private long bookCount;
+
+    @Test
+    void mixedWorkload_staysWithinTheBaseline() throws Exception {
+        int clients = Integer.getInteger("loadtest.clients", 32);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 10);
+        int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 30);
+        int deskClients = Math.max(1, clients / 16);
+
+        http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        deskToken = login(DatasetGenerator.email(DATASET, 0));
+        hotTitles = jdbcTemplate.queryForList(HOT_TITLES_SQL, Long.class);
+        firstBookId = jdbcTemplate.queryForObject("select min(id) from books", Long.class);
+        bookCount = jdbcTemplate.queryForObject("select max(id) from books", Long.class) - firstBookId + 1;
+
+        long measureFrom = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long until = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                int client = i;
+                running.add(executor.submit(() -> runClient(client, client < deskClients, until)));
+            }
+            Thread.sleep(Duration.ofNanos(measureFrom - System.nanoTime()));
+            measuring = true;
+            Thread.sleep(Duration.ofNanos(Math.max(0, until - System.nanoTime())));
+            measuring = false;
+            for (Future<?> client : running) {
+                client.get();
+            }
+        }
+
+        Map<String, LoadReport.EndpointSummary> endpoints = new TreeMap<>();
+        stats.forEach((endpoint, recorded) -> endpoints.put(endpoint, recorded.summarize(durationSeconds)));
+        LoadReport report = new LoadReport(clients, durationSeconds, endpoints);
+        log.info("Load test: {} clients, {} s measured\n{}", clients, durationSeconds, report.toTable());
+
+        ObjectMapper json = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        Path target = Path.of("target", "loadtest-report.json");
+        Files.createDirectories(target.getParent());
+        json.writeValue(target.toFile(), report);
+
+        List<String> failures = new ArrayList<>();
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+        endpoints.forEach((endpoint, summary) -> {
+            if (summary.errors() > summary.requests() * maxErrorRate) {
+                failures.add(endpoint + " failed " + summary.errors() + " of " + summary.requests() + " requests");
+            }
+        });
+
+        Path baselinePath = Path.of(System.getProperty("loadtest.baseline", "src/loadtest/baseline.json"));
+        if (Boolean.getBoolean("loadtest.update-baseline")) {
+            json.writeValue(baselinePath.toFile(), report);
+            log.info("Load test baseline written to {}", baselinePath);
+        } else if (Files.exists(baselinePath)) {
+            LoadReport baseline = objectMapper.readValue(baselinePath.toFile(), LoadReport.class);
+            failures.addAll(report.regressionsAgainst(baseline,
+                    Double.parseDouble(System.getProperty("loadtest.latency-tolerance", "1.0")),
+                    Double.parseDouble(System.getProperty("loadtest.latency-floor-ms", "5")),
+                    Double.parseDouble(System.getProperty("loadtest.throughput-tolerance", "0.5"))));
+        } else {
+            log.warn("No load test baseline at {}; skipping the comparison", baselinePath);
+        }
+
+        assertTrue(failures.isEmpty(), "Load test regressions:\n" + String.join("\n", failures));
+    }
+
+    private void runClient(int index, boolean desk, long until) {
+        SplittableRandom random = new SplittableRandom(index);
+        String email = DatasetGenerator.email(DATASET,
+                desk ? 0 : DATASET.getAdmins() + index % (USERS - DATASET.getAdmins()));
+
+        while (System.nanoTime() < until) {
+            String token = login(email);
+            for (int i = 0; i < SESSION_REQUESTS && System.nanoTime() < until; i++) {
+                if (desk) {
+                    watchDashboards(token, random);
+                } else {
+                    visitCatalog(token, random);
+                }
+            }
+        }
+    }
+
+    private void visitCatalog(String token, SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 30) {
+            String cursor = null;
+            for (int page = 0; page < 3; page++) {
+                Response response = get("GET /books", "/books?size=20"
+                        + (cursor == null ? "" : "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8)), null);
+                JsonNode next = response.ok() ? readTree(response.body()).get("nextCursor") : null;
+                if (next == null || next.isNull()) {
+                    break;
+                }
+                cursor = next.asText();
+            }
+        } else if (roll < 50) {
+            long bookId = random.nextInt(10) < 3
+                    ? hotTitles.get(random.nextInt(hotTitles.size()))
+                    : firstBookId + random.nextLong(bookCount);
+            get("GET /books/{id}", "/books/" + bookId, null);
+        } else if (roll < 65) {
+            get("GET /books/search", "/books/search?q=" + encode(pick(random, SEARCH_TERMS)), null);
+        } else if (roll < 80) {
+            get("GET /books/suggest", "/books/suggest?q=" + encode(pick(random, PREFIXES)), null);
+        } else if (roll < 85) {
+            get("GET /reservations/my-reservations", "/reservations/my-reservations", token);
+        } else {
+            checkOut(token, hotTitles.get(random.nextInt(hotTitles.size())));
+        }
+    }
+
+    /**
+     * Reserves a hot title as the reader, then collects and returns it at the desk.
+     */
+    private void checkOut(String token, long bookId) {
+        Response reserved = send(RESERVE, request("/reservations", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"bookId\":" + bookId + "}")));
+        if (!reserved.ok()) {
+            return;
+        }
+        long reservationId = readTree(reserved.body()).get("id").asLong();
+        send("PUT /reservations/collect/{id}", request("/reservations/collect/" + reservationId, deskToken)
+                .PUT(HttpRequest.BodyPublishers.noBody()));
+        send("PUT /reservations/return/{id}", request("/reservations/return/" + reservationId, deskToken)
+                .PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private void watchDashboards(String token, SplittableRandom random) {
+        int roll = random.nextInt(10);
+        if (roll < 4) {
+            get("GET /admin/stats", "/admin/stats", token);
+        } else if (roll < 6) {
+            get("GET /admin/perf", "/admin/perf", token);
+        } else {
+            get("GET /reservations", "/reservations?size=20", token);
+        }
+    }
+
+    private String login(String email) {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + DATASET.getPassword() + "\"}";
+        Response response = send("POST /auth/login", request("/auth/login", null)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        if (!response.ok()) {
+            throw new IllegalStateException("Login as " + email + " failed with status " + response.status());
+        }
+        return readTree(response.body()).get("accessToken").asText();
+    }
+
+    private Response get(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).GET());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    /**
+     * Sends a request and records its latency under {@code endpoint}. A
+     * reservation refused because the copies ran out counts as rejected,
+     * not failed: the hot titles are meant to run dry now and then.
+     */
+    private Response send(String endpoint, HttpRequest.Builder request) {
+        boolean counted = measuring;
+        long start = System.nanoTime();
+        Response response;
+        try {
+            HttpResponse<String> http = this.http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            response = new Response(http.statusCode(), http.body());
+        } catch (IOException e) {
+            response = new Response(-1, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during " + endpoint, e);
+        }
+        long nanos = System.nanoTime() - start;
+
+        if (counted) {
+            EndpointStats.Outcome outcome = response.ok() ? EndpointStats.Outcome.OK
+                    : endpoint.equals(RESERVE) && response.status() > 0 ? EndpointStats.Outcome.REJECTED
+                    : EndpointStats.Outcome.ERROR;
+            stats.computeIfAbsent(endpoint, key -> new EndpointStats()).record(nanos, outcome);
+        }
+        return response;
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable response: " + body, e);
+        }
+    }
+
+    private static String encode(String text) {
+        return URLEncoder.encode(text, StandardCharsets.UTF_8);
+    }
+
+    private static String pick(SplittableRandom random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.finalproject.library_management_system_backend.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Every latency measured for one endpoint during the measurement window.
+ * Samples are kept in full, so the percentiles are exact.
+ */
+final class EndpointStats {
+
+    private long[] samples = new long[1_024];
+    private int count;
+    private long errors;
+    private long rejected;
+
+    /**
+     * @param nanos    how long the request took
+     * @param outcome  whether the request succeeded, was an expected
+     *                 rejection (no copy left) or failed
+     */
+    synchronized void record(long nanos, Outcome outcome) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (outcome == Outcome.ERROR) {
+            errors++;
+        } else if (outcome == Outcome.REJECTED) {
+            rejected++;
+        }
+    }
+
+    synchronized LoadReport.EndpointSummary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new LoadReport.EndpointSummary(
+                count,
+                errors,
+                rejected,
+                count / seconds,
+                millis(percentile(sorted, 0.50)),
+                millis(percentile(sorted, 0.95)),
+                millis(percentile(sorted, 0.99)),
+                millis(count == 0 ? 0 : sorted[count - 1]));
+    }
+
+    /**
+     * Nearest-rank percentile.
+     */
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    enum Outcome {
+        OK,
+        REJECTED,
+        ERROR
+    }
+}
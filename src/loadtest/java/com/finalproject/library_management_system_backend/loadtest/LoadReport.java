@@ -0,0 +1,84 @@
+package com.finalproject.library_management_system_backend.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of one load test run, per endpoint. The stored baseline
+ * has the same shape.
+ */
+record LoadReport(int clients, int durationSeconds, Map<String, EndpointSummary> endpoints) {
+
+    /**
+     * Percentiles of endpoints with fewer requests than this, in either
+     * run, are too noisy to compare.
+     */
+    static final int MIN_REQUESTS = 50;
+
+    record EndpointSummary(long requests,
+                           long errors,
+                           long rejected,
+                           double throughput,
+                           double p50Millis,
+                           double p95Millis,
+                           double p99Millis,
+                           double maxMillis) {
+    }
+
+    /**
+     * Compares this run against {@code baseline}.
+     * <p>
+     * A p95 or p99 latency regresses when it exceeds the baseline by more
+     * than {@code latencyTolerance} (a fraction) and by more than
+     * {@code latencyFloorMillis}, so sub-millisecond noise is ignored, and
+     * only for endpoints with at least {@value #MIN_REQUESTS} requests.
+     * Throughput regresses when it falls more than {@code throughputTolerance}
+     * below the baseline; it is only compared when both runs used the same
+     * number of clients. Endpoints missing from the baseline are skipped.
+     *
+     * @return one message per regression, empty if there are none
+     */
+    List<String> regressionsAgainst(LoadReport baseline,
+                                    double latencyTolerance,
+                                    double latencyFloorMillis,
+                                    double throughputTolerance) {
+        List<String> regressions = new ArrayList<>();
+        endpoints.forEach((endpoint, current) -> {
+            EndpointSummary base = baseline.endpoints().get(endpoint);
+            if (base == null) {
+                return;
+            }
+            if (Math.min(current.requests(), base.requests()) >= MIN_REQUESTS) {
+                checkLatency(regressions, endpoint, "p95", current.p95Millis(), base.p95Millis(),
+                        latencyTolerance, latencyFloorMillis);
+                checkLatency(regressions, endpoint, "p99", current.p99Millis(), base.p99Millis(),
+                        latencyTolerance, latencyFloorMillis);
+            }
+            if (clients == baseline.clients() && current.throughput() < base.throughput() * (1 - throughputTolerance)) {
+                regressions.add(String.format("%s throughput %.1f req/s is below the baseline %.1f req/s",
+                        endpoint, current.throughput(), base.throughput()));
+            }
+        });
+        return regressions;
+    }
+
+    private static void checkLatency(List<String> regressions, String endpoint, String name,
+                                     double current, double base, double tolerance, double floorMillis) {
+        if (current > base * (1 + tolerance) && current - base > floorMillis) {
+            regressions.add(String.format("%s %s %.2f ms exceeds the baseline %.2f ms", endpoint, name, current, base));
+        }
+    }
+
+    /**
+     * @return the report as a fixed-width table
+     */
+    String toTable() {
+        StringBuilder table = new StringBuilder(String.format("%-34s %9s %7s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "rejected", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        endpoints.forEach((endpoint, s) -> table.append(String.format(
+                "%-34s %9d %7d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n", endpoint, s.requests(), s.errors(),
+                s.rejected(), s.throughput(), s.p50Millis(), s.p95Millis(), s.p99Millis(), s.maxMillis())));
+        return table.toString();
+    }
+}
@@ -1,37 +1,60 @@
 package com.finalproject.library_management_system_backend.config;
 
-import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.security.BCryptWorkFactor;
+import com.finalproject.library_management_system_backend.security.BoundedPasswordEncoder;
+import com.finalproject.library_management_system_backend.services.CachedUserDetailsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
 
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
-    private final UserRepository userRepository;
-
-    @Bean
-    public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private final CachedUserDetailsService userDetailsService;
 
+    /**
+     * Stored hashes with a lower BCrypt strength than the current one are
+     * rehashed after the next successful login.
+     * <p>
+     * Users are looked up through method references rather than a
+     * {@code UserDetailsService} bean, which Spring Security would otherwise
+     * also try to configure login with, next to this provider.
+     */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(BoundedPasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsService(userDetailsService::loadUserByEmail);
+        authProvider.setUserDetailsPasswordService(userDetailsService::updatePassword);
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
+    /**
+     * BCrypt on a bounded pool of its own. With no fixed
+     * {@code library.password.strength}, the strength is calibrated at
+     * startup against {@code library.password.target-hash-time}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${library.password.strength:0}") int strength,
+            @Value("${library.password.target-hash-time:250ms}") Duration targetHashTime,
+            @Value("${library.password.min-strength:10}") int minStrength,
+            @Value("${library.password.max-strength:16}") int maxStrength,
+            @Value("${library.password.threads:0}") int threads,
+            @Value("${library.password.queue-capacity:100}") int queueCapacity) {
+        if (strength <= 0) {
+            strength = BCryptWorkFactor.calibrate(targetHashTime, minStrength, maxStrength);
+        }
+        if (threads <= 0) {
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), threads, queueCapacity);
     }
-}
\ No newline at end of file
+}
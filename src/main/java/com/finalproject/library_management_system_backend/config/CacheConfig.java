@@ -0,0 +1,55 @@
+package com.finalproject.library_management_system_backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Declares the application's in-process caches. Every cache is bounded
+ * in size, expires entries after a TTL as a safety net and records
+ * hit/miss statistics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Book details by ID, as served by {@code GET /books/{id}}. The short
+     * default TTL bounds how stale a copy count can be when another
+     * instance changed it; see {@code BookCacheInvalidator}.
+     */
+    public static final String BOOKS = "books";
+
+    /**
+     * Users by email, as loaded for authentication.
+     */
+    public static final String USERS = "users";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${library.cache.books.max-size:10000}") long booksMaxSize,
+                                     @Value("${library.cache.books.ttl:30s}") Duration booksTtl,
+                                     @Value("${library.cache.users.max-size:10000}") long usersMaxSize,
+                                     @Value("${library.cache.users.ttl:5m}") Duration usersTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of());
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(BOOKS, Caffeine.newBuilder()
+                .maximumSize(booksMaxSize)
+                .expireAfterWrite(booksTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USERS, Caffeine.newBuilder()
+                .maximumSize(usersMaxSize)
+                .expireAfterWrite(usersTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
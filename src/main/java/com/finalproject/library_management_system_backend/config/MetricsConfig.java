@@ -0,0 +1,70 @@
+package com.finalproject.library_management_system_backend.config;
+
+import com.finalproject.library_management_system_backend.monitoring.StatementCounter;
+import com.finalproject.library_management_system_backend.security.BoundedPasswordEncoder;
+import com.finalproject.library_management_system_backend.services.BookAvailabilityFeed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Meters for application components that Spring Boot does not instrument
+ * on its own. Request timers, the connection pool, Hibernate and the
+ * caches are bound by the Actuator auto-configuration.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String PASSWORD_HASHING_ACTIVE = "library.password.hashing.active";
+    public static final String PASSWORD_HASHING_QUEUED = "library.password.hashing.queued";
+    public static final String PASSWORD_HASHING_REJECTED = "library.password.hashing.rejected";
+    public static final String AVAILABILITY_SUBSCRIBERS = "library.availability.subscribers";
+    public static final String AVAILABILITY_EVENTS = "library.availability.events";
+
+    /**
+     * Saturation of the password hashing pool: a queue that stays full
+     * means logins are about to be turned away with 503s.
+     */
+    @Bean
+    public MeterBinder passwordHashingMetrics(BoundedPasswordEncoder passwordEncoder) {
+        return registry -> {
+            Gauge.builder(PASSWORD_HASHING_ACTIVE, passwordEncoder, BoundedPasswordEncoder::getActiveCount)
+                    .description("Password hashes running")
+                    .register(registry);
+            Gauge.builder(PASSWORD_HASHING_QUEUED, passwordEncoder, BoundedPasswordEncoder::getQueuedCount)
+                    .description("Password hashes waiting for a thread")
+                    .register(registry);
+            FunctionCounter.builder(PASSWORD_HASHING_REJECTED, passwordEncoder, BoundedPasswordEncoder::getRejectedCount)
+                    .description("Password hashes turned away because the queue was full")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Open availability streams, and the events written to them.
+     */
+    @Bean
+    public MeterBinder availabilityFeedMetrics(BookAvailabilityFeed availabilityFeed) {
+        return registry -> {
+            Gauge.builder(AVAILABILITY_SUBSCRIBERS, availabilityFeed, BookAvailabilityFeed::getSubscriberCount)
+                    .description("Open availability event streams")
+                    .register(registry);
+            FunctionCounter.builder(AVAILABILITY_EVENTS, availabilityFeed, BookAvailabilityFeed::getEventsSent)
+                    .description("Availability events sent to subscribers")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Lets {@link StatementCounter} see every statement Hibernate prepares,
+     * for the per-request query budgets.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+}
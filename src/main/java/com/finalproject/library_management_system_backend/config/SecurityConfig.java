@@ -1,33 +1,52 @@
 package com.finalproject.library_management_system_backend.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import com.finalproject.library_management_system_backend.security.JwtAuthenticationFilter;
+import com.finalproject.library_management_system_backend.security.JwtService;
+import com.finalproject.library_management_system_backend.security.PasswordHashingRejectedException;
+import com.finalproject.library_management_system_backend.security.UserAccount;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 
+/**
+ * Stateless security: no HTTP session is created, and every request is
+ * authenticated from its bearer access token by
+ * {@link JwtAuthenticationFilter}. Tokens are obtained from
+ * {@code /auth/login} (JSON) or {@code /login} (form fields
+ * {@code username} and {@code password}).
+ */
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final AuthenticationProvider authenticationProvider;
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/register", "/login", "/logout").permitAll()
+                        .requestMatchers("/auth/register", "/auth/login", "/auth/refresh", "/login", "/logout").permitAll()
                         .requestMatchers(HttpMethod.GET, "/books/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
 
                         .requestMatchers(HttpMethod.GET, "/users/user-details").authenticated()
 
@@ -35,6 +54,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/reservations").hasRole("USER")
                         .requestMatchers(HttpMethod.GET, "/reservations/my-reservations").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/reservations/cancel/**").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/reservations/waitlist/**").hasRole("USER")
+                        .requestMatchers("/reservations/waitlist/**").authenticated()
 
                         .requestMatchers(HttpMethod.POST, "/books").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/books/**").hasRole("ADMIN")
@@ -47,6 +68,7 @@ public class SecurityConfig {
                         .requestMatchers("/reservations/**").hasRole("ADMIN")
                         .requestMatchers("/users/**").hasRole("ADMIN")
                         .requestMatchers("/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
 
                         .anyRequest().authenticated()
@@ -56,10 +78,15 @@ public class SecurityConfig {
 
                         .successHandler((request, response, authentication) -> {
                             response.setStatus(HttpServletResponse.SC_OK);
+                            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                            objectMapper.writeValue(response.getOutputStream(),
+                                    jwtService.issueTokens(AuthenticatedUser.from((UserAccount) authentication.getPrincipal())));
                         })
 
                         .failureHandler((request, response, exception) -> {
-                            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                            response.setStatus(exception instanceof PasswordHashingRejectedException
+                                    ? HttpServletResponse.SC_SERVICE_UNAVAILABLE
+                                    : HttpServletResponse.SC_UNAUTHORIZED);
                         })
                         .permitAll()
                 )
@@ -77,6 +104,7 @@ public class SecurityConfig {
 
 
                 .authenticationProvider(authenticationProvider)
+                .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
 
                 .cors(Customizer.withDefaults());
 
@@ -1,12 +1,25 @@
 package com.finalproject.library_management_system_backend.config;
 
+import com.finalproject.library_management_system_backend.monitoring.QueryBudgetInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final MeterRegistry meterRegistry;
+    private final boolean failOnQueryBudgetExceeded;
+
+    public WebConfig(MeterRegistry meterRegistry,
+                     @Value("${library.query-budget.fail-on-exceed:false}") boolean failOnQueryBudgetExceeded) {
+        this.meterRegistry = meterRegistry;
+        this.failOnQueryBudgetExceeded = failOnQueryBudgetExceeded;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -14,4 +27,9 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowCredentials(true);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor(meterRegistry, failOnQueryBudgetExceeded));
+    }
+}
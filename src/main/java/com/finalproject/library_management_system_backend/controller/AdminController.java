@@ -1,15 +1,35 @@
 package com.finalproject.library_management_system_backend.controller;
 
+import com.finalproject.library_management_system_backend.dtos.ArchiveStatus;
+import com.finalproject.library_management_system_backend.dtos.BookImportReport;
+import com.finalproject.library_management_system_backend.dtos.CacheStatistics;
 import com.finalproject.library_management_system_backend.dtos.DashboardStats;
-import com.finalproject.library_management_system_backend.model.ReservationStatus;
-import com.finalproject.library_management_system_backend.repositories.BookRepository;
-import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
-import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.dtos.OverdueSweepStatus;
+import com.finalproject.library_management_system_backend.dtos.PerfSummary;
+import com.finalproject.library_management_system_backend.dtos.PurgeStatus;
+import com.finalproject.library_management_system_backend.dtos.UserImportReport;
+import com.finalproject.library_management_system_backend.monitoring.QueryBudget;
+import com.finalproject.library_management_system_backend.services.BookImportService;
+import com.finalproject.library_management_system_backend.services.CacheMetricsService;
+import com.finalproject.library_management_system_backend.services.DeletedRecordPurger;
+import com.finalproject.library_management_system_backend.services.ImportFormat;
+import com.finalproject.library_management_system_backend.services.LibraryStatsService;
+import com.finalproject.library_management_system_backend.services.OverdueReservationSweeper;
+import com.finalproject.library_management_system_backend.services.PerformanceSummaryService;
+import com.finalproject.library_management_system_backend.services.ReservationArchiver;
+import com.finalproject.library_management_system_backend.services.UserImportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 /**
  * Provides administrative endpoints for retrieving system-wide statistics.
  * <p>
@@ -21,40 +41,120 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class AdminController {
 
-    private final BookRepository bookRepository;
-    private final UserRepository userRepository;
-    private final ReservationRepository reservationRepository;
+    private final LibraryStatsService libraryStatsService;
+    private final OverdueReservationSweeper overdueReservationSweeper;
+    private final ReservationArchiver reservationArchiver;
+    private final CacheMetricsService cacheMetricsService;
+    private final BookImportService bookImportService;
+    private final DeletedRecordPurger deletedRecordPurger;
+    private final UserImportService userImportService;
+    private final PerformanceSummaryService performanceSummaryService;
 
     /**
- * Provides administrative endpoints for retrieving system-wide statistics.
- * <p>
- * Returns summary metrics such as total books, users, reservations,
- * active loans, and overdue items. Intended for use in admin dashboards.
- */
-
+     * Returns summary metrics such as total books, users, reservations,
+     * active loans, and overdue items.
+     * <p>
+     * Served from counters kept by {@link LibraryStatsService}, so the
+     * cost does not depend on the size of the reservation table.
+     *
+     * @return the dashboard statistics
+     */
+    @QueryBudget(0)
     @GetMapping("/stats")
     public DashboardStats getDashboardStats() {
-        long books = bookRepository.count();
-        long users = userRepository.count();
-
-        long totalReservations = reservationRepository.count();
-
-        long active = reservationRepository.findAll().stream()
-                .filter(r -> r.getStatus() == ReservationStatus.BORROWED ||
-                        r.getStatus() == ReservationStatus.OVERDUE ||
-                        r.getStatus() == ReservationStatus.RESERVED)
-                .count();
-
-        long overdue = reservationRepository.findAll().stream()
-                .filter(r -> r.getStatus() == ReservationStatus.OVERDUE)
-                .count();
-
-        return DashboardStats.builder()
-                .totalBooks(books)
-                .totalUsers(users)
-                .activeLoans(active)
-                .overdueBooks(overdue)
-                .totalReservations(totalReservations)
-                .build();
+        return libraryStatsService.getDashboardStats();
+    }
+
+    /**
+     * Reports the progress of the running overdue sweep, or the
+     * outcome of the last one.
+     *
+     * @return chunk and row counts for the sweep
+     */
+    @QueryBudget(0)
+    @GetMapping("/overdue-sweep")
+    public OverdueSweepStatus getOverdueSweepStatus() {
+        return overdueReservationSweeper.getStatus();
+    }
+
+    /**
+     * Reports the progress of the running move of finished reservations
+     * into the archive, or the outcome of the last one.
+     *
+     * @return chunk and row counts for the archiving run
+     */
+    @QueryBudget(0)
+    @GetMapping("/archive")
+    public ArchiveStatus getArchiveStatus() {
+        return reservationArchiver.getStatus();
+    }
+
+    /**
+     * Reports the progress of the running purge of deleted books and
+     * users, or the outcome of the last one.
+     *
+     * @return chunk and row counts for the purge
+     */
+    @QueryBudget(0)
+    @GetMapping("/purge")
+    public PurgeStatus getPurgeStatus() {
+        return deletedRecordPurger.getStatus();
+    }
+
+    /**
+     * Reports size, hits, misses and evictions for each in-process cache.
+     *
+     * @return statistics per cache
+     */
+    @QueryBudget(0)
+    @GetMapping("/caches")
+    public List<CacheStatistics> getCacheStatistics() {
+        return cacheMetricsService.getCacheStatistics();
+    }
+
+    /**
+     * Summarizes request and reservation latency percentiles, connection
+     * pool saturation, Hibernate statistics and the password hashing
+     * queue. The underlying meters are under {@code /actuator/metrics}.
+     *
+     * @return the performance summary
+     */
+    @QueryBudget(0)
+    @GetMapping("/perf")
+    public PerfSummary getPerfSummary() {
+        return performanceSummaryService.getSummary();
+    }
+
+    /**
+     * Imports books from a CSV or NDJSON upload sent as the raw request
+     * body. The body is streamed, so uploads of any size are accepted.
+     * There is no query budget: statements grow with the number of batches.
+     *
+     * @param contentType {@code text/csv} or {@code application/x-ndjson}
+     * @param body        the upload
+     * @return how many rows were imported, and why the others were rejected
+     */
+    @PostMapping(value = "/books/import",
+            consumes = {ImportFormat.CSV_VALUE, ImportFormat.NDJSON_VALUE})
+    public BookImportReport importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                        InputStream body) throws IOException {
+        return bookImportService.importBooks(body, ImportFormat.fromContentType(contentType));
+    }
+
+    /**
+     * Creates users from a CSV or NDJSON upload sent as the raw request
+     * body. Rows whose email is already registered, or repeated earlier in
+     * the upload, are reported as duplicates and skipped. Like the book
+     * import, it has no query budget.
+     *
+     * @param contentType {@code text/csv} or {@code application/x-ndjson}
+     * @param body        the upload
+     * @return the outcome of every row, with the ID of each created user
+     */
+    @PostMapping(value = "/users/import",
+            consumes = {ImportFormat.CSV_VALUE, ImportFormat.NDJSON_VALUE})
+    public UserImportReport importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                        InputStream body) throws IOException {
+        return userImportService.importUsers(body, ImportFormat.fromContentType(contentType));
     }
 }
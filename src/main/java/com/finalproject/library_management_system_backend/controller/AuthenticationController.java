@@ -1,7 +1,11 @@
 package com.finalproject.library_management_system_backend.controller;
 
+import com.finalproject.library_management_system_backend.dtos.AuthenticationResponse;
+import com.finalproject.library_management_system_backend.dtos.LoginRequest;
+import com.finalproject.library_management_system_backend.dtos.RefreshTokenRequest;
 import com.finalproject.library_management_system_backend.dtos.RegisterUserRequest;
 import com.finalproject.library_management_system_backend.dtos.UserDto;
+import com.finalproject.library_management_system_backend.monitoring.QueryBudget;
 import com.finalproject.library_management_system_backend.services.AuthenticationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -13,8 +17,9 @@ import org.springframework.web.bind.annotation.RestController;
 /**
  * Handles authentication-related endpoints for the library system.
  * <p>
- * Currently supports user registration by accepting incoming
- * sign-up data and forwarding it to the authentication service.
+ * Supports user registration, and logging in with an email and
+ * password in exchange for signed access and refresh tokens. Clients
+ * send the access token as {@code Authorization: Bearer <token>}.
  */
 @RestController
 @RequestMapping("/auth")
@@ -23,8 +28,21 @@ public class AuthenticationController {
 
     private final AuthenticationService authenticationService;
 
+    @QueryBudget(3)
     @PostMapping("/register")
     public UserDto register(@RequestBody RegisterUserRequest request){
         return authenticationService.register(request);
     }
+
+    @QueryBudget(2)
+    @PostMapping("/login")
+    public AuthenticationResponse login(@RequestBody LoginRequest request) {
+        return authenticationService.login(request);
+    }
+
+    @QueryBudget(1)
+    @PostMapping("/refresh")
+    public AuthenticationResponse refresh(@RequestBody RefreshTokenRequest request) {
+        return authenticationService.refresh(request.getRefreshToken());
+    }
 }
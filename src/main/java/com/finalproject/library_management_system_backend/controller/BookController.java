@@ -2,17 +2,22 @@ package com.finalproject.library_management_system_backend.controller;
 
 
 import com.finalproject.library_management_system_backend.dtos.BookDto;
+import com.finalproject.library_management_system_backend.dtos.BookSearchHit;
 import com.finalproject.library_management_system_backend.dtos.CreateBookRequest;
-import com.finalproject.library_management_system_backend.mappers.BookMapper;
-import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.dtos.CursorPage;
+import com.finalproject.library_management_system_backend.dtos.SearchPage;
+import com.finalproject.library_management_system_backend.dtos.Suggestion;
+import com.finalproject.library_management_system_backend.monitoring.QueryBudget;
+import com.finalproject.library_management_system_backend.services.BookAvailabilityFeed;
 import com.finalproject.library_management_system_backend.services.BookService;
 import lombok.AllArgsConstructor;
-import lombok.Getter;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+
 /**
  * Handles all book-related operations in the library system.
  * <p>
@@ -25,19 +30,68 @@ import java.util.List;
 @RequestMapping("/books")
 public class BookController {
 
-    private final BookRepository bookRepository;
-    private final BookMapper bookMapper;
     private final BookService bookService;
+    private final BookAvailabilityFeed bookAvailabilityFeed;
 
     /**
-     * Returns all books, with optional sorting.
+     * Returns one page of books, with optional sorting.
      *
-     * @param sort the field to sort by; defaults to title
-     * @return a list of books mapped to DTOs
+     * @param sort   the field to sort by; defaults to title
+     * @param size   the page size; capped by the server
+     * @param cursor the {@code nextCursor} of the previous page, if any
+     * @return a page of books mapped to DTOs
      */
+    @QueryBudget(1)
     @GetMapping
-    public Iterable<BookDto> getAllBooks(@RequestParam(required = false, defaultValue = "title") String sort) {
-        return bookRepository.findAll(Sort.by(sort)).stream().map(book -> bookMapper.toBookDto(book)).toList();
+    public CursorPage<BookDto> getAllBooks(@RequestParam(required = false, defaultValue = "title") String sort,
+                                           @RequestParam(required = false) Integer size,
+                                           @RequestParam(required = false) String cursor) {
+        return bookService.getBooks(sort, size, cursor);
+    }
+
+    /**
+     * Searches the catalog by title and author.
+     *
+     * @param q    the search text; words match whole words or prefixes
+     * @param page zero-based page number; defaults to 0
+     * @param size the page size; capped by the server
+     * @return ranked matches, best first
+     */
+    @QueryBudget(0)
+    @GetMapping("/search")
+    public SearchPage<BookSearchHit> searchBooks(@RequestParam String q,
+                                                 @RequestParam(required = false) Integer page,
+                                                 @RequestParam(required = false) Integer size) {
+        return bookService.searchBooks(q, page, size);
+    }
+
+    /**
+     * Suggests titles and authors as the user types.
+     *
+     * @param q     the text typed so far
+     * @param limit the maximum number of suggestions; defaults to 10
+     * @return matching titles and authors, most borrowed first
+     */
+    @QueryBudget(0)
+    @GetMapping("/suggest")
+    public List<Suggestion> suggestBooks(@RequestParam String q,
+                                         @RequestParam(required = false) Integer limit) {
+        return bookService.suggestBooks(q, limit);
+    }
+
+    /**
+     * Streams availability changes as Server-Sent Events named
+     * {@code availability}, each carrying one book's copy counts. Changes
+     * within a short window are combined into one event per book.
+     *
+     * @param bookId the books to follow; omit to follow every book, in
+     *               which case the current figures are not sent up front
+     * @return the open event stream
+     */
+    @QueryBudget(1)
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(@RequestParam(required = false) List<Long> bookId) {
+        return bookAvailabilityFeed.subscribe(bookId == null ? List.of() : bookId);
     }
 
     /**
@@ -47,6 +101,7 @@ public class BookController {
      * @return the matching book's details
      */
 
+    @QueryBudget(1)
     @GetMapping("/{id}")
     public BookDto getBookById(@PathVariable Long id) {
         return bookService.getBookById(id);
@@ -60,6 +115,7 @@ public class BookController {
      * @return the newly created book as a DTO
      */
 
+    @QueryBudget(1)
     @PostMapping
     public BookDto createBook(@RequestBody CreateBookRequest request) {
         return bookService.createBook(request);
@@ -73,6 +129,7 @@ public class BookController {
      * @return the updated book as a DTO
      */
 
+    @QueryBudget(6)
     @PutMapping("/{id}")
     public BookDto updateBook(@PathVariable Long id, @RequestBody CreateBookRequest request) {
         return bookService.updateBook(id, request);
@@ -85,6 +142,7 @@ public class BookController {
      * @return a confirmation message
      */
 
+    @QueryBudget(2)
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteBook(@PathVariable Long id) {
         bookService.deleteBook(id);
@@ -1,5 +1,6 @@
 package com.finalproject.library_management_system_backend.controller;
 
+import com.finalproject.library_management_system_backend.monitoring.QueryBudget;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 /**
@@ -14,6 +15,7 @@ public class HomeController {
      *
      * @return a plain text "Hello World" string
      */
+    @QueryBudget(0)
     @GetMapping("/home")
     public  String home() {
         return "Hello World";
@@ -1,13 +1,23 @@
 package com.finalproject.library_management_system_backend.controller;
 
 import com.finalproject.library_management_system_backend.dtos.CreateReservationRequest;
+import com.finalproject.library_management_system_backend.dtos.CursorPage;
 import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.dtos.ReservationFilter;
+import com.finalproject.library_management_system_backend.dtos.WaitlistPosition;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.monitoring.QueryBudget;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import com.finalproject.library_management_system_backend.services.BookWaitlist;
 import com.finalproject.library_management_system_backend.services.ReservationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -15,7 +25,8 @@ import java.util.List;
  * <p>
  * Users can create reservations, view their own reservations,
  * and perform status updates like collecting, canceling,
- * or returning reserved books.
+ * or returning reserved books. Readers who find no copy left can join
+ * the book's waitlist and are given the next freed copy.
  */
 
 @RestController
@@ -24,51 +35,79 @@ import java.util.List;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final BookWaitlist bookWaitlist;
 
        /**
      * Creates a reservation for the authenticated user.
      *
-     * @param request   details about the book being reserved
-     * @param principal provides access to the current user's identity
+     * @param request details about the book being reserved
+     * @param reader  the current user, as described by their access token
      * @return the newly created reservation
      */
 
+    @QueryBudget(3)
     @PostMapping
-    public ReservationDto createReservation(@RequestBody CreateReservationRequest request, Principal principal) {
-        return reservationService.createReservation(request,principal.getName());
+    public ReservationDto createReservation(@RequestBody CreateReservationRequest request,
+                                            @AuthenticationPrincipal AuthenticatedUser reader) {
+        return reservationService.createReservation(request, reader);
     }
 
         /**
-     * Retrieves all reservations in the system.
+     * Retrieves one page of reservations in the system.
      * Intended for admin or staff use.
      *
-     * @return a list of all reservations
+     * @param status       only return reservations in this status
+     * @param bookId       only return reservations for this book
+     * @param reservedFrom only return reservations made at or after this time
+     * @param reservedTo   only return reservations made before this time
+     * @param sort         the field to sort by; defaults to id
+     * @param size         the page size; capped by the server
+     * @param cursor       the {@code nextCursor} of the previous page, if any
+     * @return a page of reservations
      */
 
+    @QueryBudget(1)
     @GetMapping
-    public List<ReservationDto> getAllReservations() {
-        return reservationService.getAllReservations();
+    public CursorPage<ReservationDto> getAllReservations(
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) Long bookId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime reservedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime reservedTo,
+            @RequestParam(required = false, defaultValue = "id") String sort,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        ReservationFilter filter = ReservationFilter.builder()
+                .status(status)
+                .bookId(bookId)
+                .reservedFrom(reservedFrom)
+                .reservedTo(reservedTo)
+                .build();
+        return reservationService.getAllReservations(filter, sort, size, cursor);
     }
 
         /**
-     * Retrieves reservations belonging to the current user.
+     * Retrieves reservations belonging to the current user, archived
+     * ones included.
      *
      * @param principal identifies the logged-in user
      * @return the user's reservations
      */
 
+    @QueryBudget(2)
     @GetMapping("/my-reservations")
     public List<ReservationDto> getMyReservations(Principal principal) {
         return reservationService.getReservationsByUser(principal.getName());
     }
 
         /**
-     * Retrieves reservations for a specific user by ID.
+     * Retrieves reservations for a specific user by ID, archived ones
+     * included.
      *
      * @param userId the user whose reservations should be returned
      * @return a list of reservations for that user
      */
 
+    @QueryBudget(2)
     @GetMapping("/user/{userId}")
     public List<ReservationDto> getUserReservations(@PathVariable Long userId) {
         return reservationService.getReservationsByUserId(userId);
@@ -82,6 +121,7 @@ public class ReservationController {
      * @return a confirmation message
      */
 
+    @QueryBudget(2)
     @PutMapping("/collect/{id}")
     public ResponseEntity<String> collectBook(@PathVariable Long id) {
         reservationService.collectBook(id);
@@ -95,6 +135,7 @@ public class ReservationController {
      * @return a confirmation message
      */
 
+    @QueryBudget(6)
     @PutMapping("/cancel/{id}")
     public ResponseEntity<String> cancelReservation(@PathVariable Long id) {
         reservationService.cancelReservation(id);
@@ -108,15 +149,65 @@ public class ReservationController {
      * @return a confirmation message
      */
 
+    @QueryBudget(6)
     @PutMapping("/return/{id}")
     public ResponseEntity<String> returnBook(@PathVariable Long id) {
         reservationService.returnBook(id);
         return ResponseEntity.ok("Book returned successfully.");
     }
 
+    @QueryBudget(2)
     @PutMapping("/extend/{id}")
     public ResponseEntity<String> extendReservation(@PathVariable Long id) {
         reservationService.extendReservation(id);
         return ResponseEntity.ok("Loan extended by 7 days.");
     }
+
+        /**
+     * Puts the current user on the waitlist of a book with no copy left.
+     * When a copy is returned or canceled it is reserved for the first
+     * reader in line.
+     *
+     * @param bookId the book to wait for
+     * @param reader the current user, as described by their access token
+     * @return the user's place in the queue
+     */
+
+    @QueryBudget(2)
+    @PostMapping("/waitlist/{bookId}")
+    public WaitlistPosition joinWaitlist(@PathVariable Long bookId,
+                                         @AuthenticationPrincipal AuthenticatedUser reader) {
+        return bookWaitlist.join(bookId, reader);
+    }
+
+        /**
+     * Reports where the current user stands on a book's waitlist.
+     *
+     * @param bookId the book being waited for
+     * @param reader the current user, as described by their access token
+     * @return the user's place in the queue
+     */
+
+    @QueryBudget(0)
+    @GetMapping("/waitlist/{bookId}")
+    public WaitlistPosition getWaitlistPosition(@PathVariable Long bookId,
+                                                @AuthenticationPrincipal AuthenticatedUser reader) {
+        return bookWaitlist.getPosition(bookId, reader.id());
+    }
+
+        /**
+     * Takes the current user off a book's waitlist.
+     *
+     * @param bookId the book being waited for
+     * @param reader the current user, as described by their access token
+     * @return a confirmation message
+     */
+
+    @QueryBudget(1)
+    @DeleteMapping("/waitlist/{bookId}")
+    public ResponseEntity<String> leaveWaitlist(@PathVariable Long bookId,
+                                                @AuthenticationPrincipal AuthenticatedUser reader) {
+        bookWaitlist.leave(bookId, reader.id());
+        return ResponseEntity.ok("Left the waitlist.");
+    }
 }
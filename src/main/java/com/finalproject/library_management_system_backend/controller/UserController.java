@@ -1,12 +1,11 @@
 package com.finalproject.library_management_system_backend.controller;
 
+import com.finalproject.library_management_system_backend.dtos.CursorPage;
 import com.finalproject.library_management_system_backend.dtos.RegisterUserRequest;
 import com.finalproject.library_management_system_backend.dtos.UserDto;
-import com.finalproject.library_management_system_backend.mappers.UserMapper;
-import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.monitoring.QueryBudget;
 import com.finalproject.library_management_system_backend.services.UserService;
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,20 +23,23 @@ import java.security.Principal;
 @RequestMapping("/users")
 public class UserController {
 
-    private final UserRepository userRepository;
-    private final UserMapper userMapper;
     private final UserService userService;
 
       /**
-     * Returns all users, optionally sorted by a provided field.
+     * Returns one page of users, optionally sorted by a provided field.
      *
-     * @param sort the field to sort by; defaults to firstName
-     * @return a list of users as DTOs
+     * @param sort   the field to sort by; defaults to firstName
+     * @param size   the page size; capped by the server
+     * @param cursor the {@code nextCursor} of the previous page, if any
+     * @return a page of users as DTOs
      */
 
+    @QueryBudget(1)
     @GetMapping
-    public Iterable<UserDto> getAllUsers(@RequestParam(required = false, defaultValue = "firstName") String sort) {
-        return userRepository.findAll(Sort.by(sort)).stream().map(user -> userMapper.toDto(user)).toList();
+    public CursorPage<UserDto> getAllUsers(@RequestParam(required = false, defaultValue = "firstName") String sort,
+                                           @RequestParam(required = false) Integer size,
+                                           @RequestParam(required = false) String cursor) {
+        return userService.getUsers(sort, size, cursor);
     }
 
         /**
@@ -48,6 +50,7 @@ public class UserController {
      * @return the newly created user as a DTO
      */
 
+    @QueryBudget(1)
     @PostMapping
     public UserDto createUser(@RequestBody RegisterUserRequest request){
         return userService.createUser(request);
@@ -60,11 +63,13 @@ public class UserController {
      * @return the user’s profile information
      */
 
+    @QueryBudget(2)
     @GetMapping("/user-details")
     public UserDto getMyUserDetails(Principal principal) {
         return userService.getUserDetailsByEmail(principal.getName());
     }
 
+    @QueryBudget(3)
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteUser(@PathVariable Long id) {
         userService.deleteUser(id);
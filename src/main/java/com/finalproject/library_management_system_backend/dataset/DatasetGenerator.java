@@ -0,0 +1,556 @@
+package com.finalproject.library_management_system_backend.dataset;
+
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fills the {@code users}, {@code books} and {@code reservation} tables
+ * with a synthetic, production-shaped dataset.
+ * <p>
+ * Book popularity and user activity follow Zipf distributions, so a few
+ * titles take most of the borrowing and most of the catalog is rarely
+ * touched. Popularity ranks are scattered over the ID range rather than
+ * following it. Each book's copies are on loan or on hold in proportion
+ * to its popularity, and its available copies match those active
+ * reservations; some of those loans are overdue. The rest of the
+ * reservations are spread over the history window: mostly loans returned
+ * on time, some returned late and some holds canceled.
+ * <p>
+ * Rows are written with plain JDBC batches by a pool of threads, one
+ * transaction per chunk. Every chunk draws from its own random stream
+ * derived from the seed, so the data does not depend on the number of
+ * threads or on their timing; only the reservation IDs, which come from
+ * the auto-increment column, follow the order in which chunks finish.
+ * User and book IDs are reserved from {@code id_generator} up front, so
+ * the application can keep running while the dataset is written.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DatasetGenerator {
+
+    /**
+     * Every generated user has an email address in this domain.
+     */
+    public static final String EMAIL_DOMAIN = "@dataset.test";
+
+    /**
+     * The allocation size of the {@code User} and {@code Book} ID generators.
+     */
+    private static final int ID_ALLOCATION_SIZE = 1_000;
+
+    private static final long USERS_STREAM = 1;
+    private static final long BOOKS_STREAM = 2;
+    private static final long HISTORY_STREAM = 3;
+    private static final long LAYOUT_STREAM = 4;
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final int OPENING_HOUR = 9;
+    private static final int OPEN_SECONDS = 11 * 60 * 60;
+
+    /**
+     * Loan lengths in days, weighted by repetition: most readers keep the 7-day default.
+     */
+    private static final int[] LOAN_DAYS = {7, 7, 7, 7, 7, 7, 7, 14, 14, 21};
+
+    /**
+     * Copies per title, weighted by repetition.
+     */
+    private static final int[] COPIES = {1, 1, 1, 1, 2, 2, 2, 3, 3, 4, 5};
+
+    /**
+     * Share of active reservations still waiting to be collected.
+     */
+    private static final double HELD_SHARE = 0.2;
+
+    /**
+     * Share of active reservations past their expected return date.
+     */
+    private static final double OVERDUE_SHARE = 0.1;
+
+    /**
+     * Share of finished reservations that were canceled before collection.
+     */
+    private static final double CANCELED_SHARE = 0.06;
+
+    /**
+     * Share of finished reservations returned after their expected return date.
+     */
+    private static final double LATE_SHARE = 0.15;
+
+    /**
+     * Even the most popular title keeps a copy on the shelf now and then.
+     */
+    private static final double MAX_UTILIZATION = 0.95;
+
+    private static final String USER_SQL = "insert into users (id, first_name, last_name, email, password_hash, "
+            + "user_type_id, created_at) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] USER_TYPES = {
+            Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP};
+
+    private static final String BOOK_SQL = "insert into books (id, title, author, publication_year, total_copies, "
+            + "available_copies) values (?, ?, ?, ?, ?, ?)";
+    private static final int[] BOOK_TYPES = {
+            Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.INTEGER};
+
+    private static final String RESERVATION_SQL = "insert into reservation (user_id, book_id, status, "
+            + "reservation_date, expected_return_date, return_date) values (?, ?, ?, ?, ?, ?)";
+    private static final int[] RESERVATION_TYPES = {
+            Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP};
+
+    private static final String[] FIRST_NAMES = {
+            "Olivia", "Liam", "Emma", "Noah", "Amelia", "Oliver", "Ava", "Elijah", "Sophia", "Lucas",
+            "Isabella", "Mateo", "Mia", "Levi", "Charlotte", "Ezra", "Harper", "Asher", "Evelyn", "Leo",
+            "Luna", "James", "Aria", "Ethan", "Ella", "Hudson", "Nora", "Kai", "Chloe", "Aiden",
+            "Grace", "Samuel", "Zoe", "Mason", "Layla", "Henry", "Ruth", "Theo", "Ines", "Omar",
+            "Yara", "Tariq", "Mei", "Kenji", "Priya", "Arjun", "Sofia", "Mikael"};
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+            "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen", "Hill", "Flores",
+            "Okafor", "Haddad", "Kowalski", "Nakamura", "Singh", "Petrov", "Lindqvist", "Costa"};
+
+    private static final String[] ADJECTIVES = {
+            "Silent", "Hidden", "Last", "Broken", "Golden", "Crimson", "Forgotten", "Distant", "Burning", "Quiet",
+            "Endless", "Secret", "Wild", "Hollow", "Shattered", "Frozen", "Midnight", "Lost", "Bright", "Dark",
+            "Iron", "Silver", "Restless", "Fallen", "Little", "Ancient", "Invisible", "Final", "Bitter", "Gentle"};
+
+    private static final String[] NOUNS = {
+            "River", "Garden", "Kingdom", "Shadow", "Storm", "Memory", "Winter", "Island", "Tower", "Journey",
+            "Empire", "Harbor", "Forest", "Mirror", "Promise", "Night", "Road", "City", "Crown", "Ocean",
+            "Library", "Letter", "Witness", "House", "Orchard", "Machine", "Summer", "Mountain", "Lantern", "Signal",
+            "Silence", "Dream", "Map", "Fire", "Stranger", "Bridge", "Compass", "Voyage", "Archive", "Sky"};
+
+    private record Chunk(long index, long from, long to) {
+    }
+
+    private interface ChunkWriter {
+        long write(Chunk chunk);
+    }
+
+    /**
+     * A bijection between popularity ranks and row indexes, so the most
+     * popular rows are spread over the table instead of being the first ones.
+     */
+    private record Permutation(long n, long multiplier, long offset, long inverse) {
+
+        static Permutation random(long n, SplittableRandom random) {
+            long multiplier = 1;
+            if (n > 1) {
+                do {
+                    multiplier = 1 + random.nextLong(n - 1);
+                } while (!BigInteger.valueOf(multiplier).gcd(BigInteger.valueOf(n)).equals(BigInteger.ONE));
+            }
+            long inverse = BigInteger.valueOf(multiplier).modInverse(BigInteger.valueOf(n)).longValueExact();
+            return new Permutation(n, multiplier, random.nextLong(n), inverse);
+        }
+
+        /**
+         * @return the 0-based index of the row with the given 1-based rank
+         */
+        long indexOf(long rank) {
+            return Math.floorMod((rank - 1) * multiplier + offset, n);
+        }
+
+        /**
+         * @return the 1-based rank of the row with the given 0-based index
+         */
+        long rankOf(long index) {
+            return Math.floorMod(Math.floorMod(index - offset, n) * inverse, n) + 1;
+        }
+    }
+
+    /**
+     * Everything the chunks share, fixed before the first row is written.
+     */
+    private record Layout(DatasetSpec spec,
+                          LocalDateTime now,
+                          long firstUserId,
+                          long firstBookId,
+                          long adminTypeId,
+                          long userTypeId,
+                          String passwordHash,
+                          ZipfSampler bookPopularity,
+                          double bookHarmonic,
+                          Permutation bookOrder,
+                          ZipfSampler userActivity,
+                          Permutation userOrder) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * @param spec      the dataset spec
+     * @param userIndex the 0-based position of the user in the dataset
+     * @return the email address of that generated user; every generated
+     *         user's password is {@link DatasetSpec#getPassword()}
+     */
+    public static String email(DatasetSpec spec, long userIndex) {
+        return (userIndex < spec.getAdmins() ? "admin" : "reader") + (userIndex + 1) + EMAIL_DOMAIN;
+    }
+
+    /**
+     * Writes the dataset described by {@code spec} next to any existing data.
+     *
+     * @return the row counts and the first user and book IDs of the dataset
+     * @throws IllegalArgumentException if the spec is out of range
+     * @throws IllegalStateException    if the database already holds this
+     *                                  dataset or a chunk fails to insert
+     */
+    public DatasetReport generate(DatasetSpec spec) {
+        validate(spec);
+        Integer existing = jdbcTemplate.queryForObject(
+                "select count(*) from users where email = ?", Integer.class, email(spec, 0));
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("The database already holds a generated dataset");
+        }
+
+        long start = System.nanoTime();
+        Layout layout = layout(spec);
+        log.info("Generating {} users, {} books and {} reservations with seed {} on {} threads",
+                spec.getUsers(), spec.getBooks(), spec.getReservations(), spec.getSeed(), spec.getThreads());
+
+        DatasetReport report = new DatasetReport();
+        report.setFirstUserId(layout.firstUserId());
+        report.setFirstBookId(layout.firstBookId());
+
+        ExecutorService executor = Executors.newFixedThreadPool(spec.getThreads());
+        try {
+            report.setUsers(runPhase(executor, "users", spec.getUsers(), spec.getChunkSize(),
+                    chunk -> writeUsers(layout, chunk)));
+            report.setBooks(spec.getBooks());
+            report.setActiveReservations(runPhase(executor, "books", spec.getBooks(), spec.getChunkSize(),
+                    chunk -> writeBooks(layout, chunk)));
+            long history = Math.max(0, spec.getReservations() - report.getActiveReservations());
+            report.setReservations(report.getActiveReservations() + runPhase(executor, "reservations", history,
+                    spec.getChunkSize(), chunk -> writeHistory(layout, chunk)));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Generated {} users, {} books and {} reservations ({} active) in {} ms",
+                report.getUsers(), report.getBooks(), report.getReservations(),
+                report.getActiveReservations(), report.getElapsedMillis());
+        return report;
+    }
+
+    private Layout layout(DatasetSpec spec) {
+        SplittableRandom random = random(spec, LAYOUT_STREAM, 0);
+        ZipfSampler bookPopularity = new ZipfSampler(spec.getBooks(), spec.getBookExponent());
+
+        return new Layout(
+                spec,
+                spec.getReferenceDate().atStartOfDay(),
+                reserveIds("users", "users", spec.getUsers()),
+                reserveIds("books", "books", spec.getBooks()),
+                userTypeId("Admin"),
+                userTypeId("User"),
+                passwordEncoder.encode(spec.getPassword()),
+                bookPopularity,
+                bookPopularity.harmonic(),
+                Permutation.random(spec.getBooks(), random),
+                new ZipfSampler(spec.getUsers(), spec.getUserExponent()),
+                Permutation.random(spec.getUsers(), random));
+    }
+
+    /**
+     * Moves the ID generator past a block of {@code count} IDs and returns
+     * its first ID. Blocks the application already holds all lie below
+     * the stored {@code next_val}, so the reserved block overlaps none of them.
+     */
+    private long reserveIds(String sequence, String table, long count) {
+        Long first = transactionTemplate.execute(status -> {
+            Long next = jdbcTemplate.queryForObject(
+                    "select next_val from id_generator where sequence_name = ? for update", Long.class, sequence);
+            Long max = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+            long firstId = Math.max(next, max) + 1;
+            jdbcTemplate.update("update id_generator set next_val = ? where sequence_name = ?",
+                    firstId + count - 1 + ID_ALLOCATION_SIZE, sequence);
+            return firstId;
+        });
+        return first;
+    }
+
+    private long userTypeId(String name) {
+        return jdbcTemplate.queryForObject("select id from user_type where type_name = ?", Long.class, name);
+    }
+
+    private long writeUsers(Layout layout, Chunk chunk) {
+        DatasetSpec spec = layout.spec();
+        SplittableRandom random = random(spec, USERS_STREAM, chunk.index());
+        LocalDateTime historyStart = layout.now().minusDays(spec.getHistoryDays());
+
+        List<Object[]> users = new ArrayList<>((int) (chunk.to() - chunk.from()));
+        for (long i = chunk.from(); i < chunk.to(); i++) {
+            users.add(new Object[]{
+                    layout.firstUserId() + i,
+                    pick(random, FIRST_NAMES),
+                    pick(random, LAST_NAMES),
+                    email(spec, i),
+                    layout.passwordHash(),
+                    i < spec.getAdmins() ? layout.adminTypeId() : layout.userTypeId(),
+                    historyStart.minusSeconds(random.nextLong(365L * SECONDS_PER_DAY))
+            });
+        }
+
+        transactionTemplate.executeWithoutResult(status -> insert(USER_SQL, USER_TYPES, users, spec.getBatchSize()));
+        return users.size();
+    }
+
+    /**
+     * Writes a chunk of books together with their active reservations.
+     *
+     * @return the number of active reservations written
+     */
+    private long writeBooks(Layout layout, Chunk chunk) {
+        DatasetSpec spec = layout.spec();
+        SplittableRandom random = random(spec, BOOKS_STREAM, chunk.index());
+        int authors = Math.max(1, spec.getBooks() / 8);
+
+        List<Object[]> books = new ArrayList<>((int) (chunk.to() - chunk.from()));
+        List<Object[]> reservations = new ArrayList<>();
+        for (long i = chunk.from(); i < chunk.to(); i++) {
+            long bookId = layout.firstBookId() + i;
+            long rank = layout.bookOrder().rankOf(i);
+
+            int copies = pick(random, COPIES);
+            if (rank <= spec.getBooks() / 100) {
+                copies += 1 + random.nextInt(4);
+            }
+            double utilization = Math.min(MAX_UTILIZATION, spec.getActiveShare() * spec.getBooks()
+                    * layout.bookPopularity().weight((int) rank) / layout.bookHarmonic());
+
+            int active = 0;
+            for (int copy = 0; copy < copies; copy++) {
+                if (random.nextDouble() < utilization) {
+                    reservations.add(activeReservation(layout, random, bookId));
+                    active++;
+                }
+            }
+
+            books.add(new Object[]{
+                    bookId,
+                    title(random),
+                    author(random.nextInt(authors)),
+                    spec.getReferenceDate().getYear() - (int) Math.min(150, -Math.log(1 - random.nextDouble()) * 12),
+                    copies,
+                    copies - active
+            });
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            insert(BOOK_SQL, BOOK_TYPES, books, spec.getBatchSize());
+            insert(RESERVATION_SQL, RESERVATION_TYPES, reservations, spec.getBatchSize());
+        });
+        return reservations.size();
+    }
+
+    /**
+     * A book on hold for the last two days, on loan and not yet due, or
+     * on loan and overdue by up to two weeks.
+     */
+    private Object[] activeReservation(Layout layout, SplittableRandom random, long bookId) {
+        int loanDays = pick(random, LOAN_DAYS);
+        double roll = random.nextDouble();
+        ReservationStatus status;
+        int daysAgo;
+        if (roll < HELD_SHARE) {
+            status = ReservationStatus.RESERVED;
+            daysAgo = 1 + random.nextInt(2);
+        } else if (roll < HELD_SHARE + OVERDUE_SHARE) {
+            status = ReservationStatus.OVERDUE;
+            daysAgo = loanDays + 1 + random.nextInt(14);
+        } else {
+            status = ReservationStatus.BORROWED;
+            daysAgo = 1 + random.nextInt(loanDays - 1);
+        }
+        LocalDateTime reservedAt = openingHours(layout, random, daysAgo);
+
+        return new Object[]{
+                userId(layout, random),
+                bookId,
+                status.name(),
+                reservedAt,
+                reservedAt.plusDays(loanDays),
+                null
+        };
+    }
+
+    /**
+     * Writes a chunk of finished reservations: holds that were canceled
+     * and loans returned on time or late.
+     *
+     * @return the number of reservations written
+     */
+    private long writeHistory(Layout layout, Chunk chunk) {
+        DatasetSpec spec = layout.spec();
+        SplittableRandom random = random(spec, HISTORY_STREAM, chunk.index());
+
+        List<Object[]> reservations = new ArrayList<>((int) (chunk.to() - chunk.from()));
+        for (long i = chunk.from(); i < chunk.to(); i++) {
+            long bookId = layout.firstBookId() + layout.bookOrder().indexOf(layout.bookPopularity().sample(random));
+            int loanDays = pick(random, LOAN_DAYS);
+            LocalDateTime reservedAt = openingHours(layout, random, 1 + random.nextInt(spec.getHistoryDays()));
+            LocalDateTime expectedReturn = reservedAt.plusDays(loanDays);
+
+            double roll = random.nextDouble();
+            ReservationStatus status;
+            LocalDateTime returnedAt = null;
+            if (roll < CANCELED_SHARE) {
+                status = ReservationStatus.CANCELED;
+            } else {
+                returnedAt = roll < CANCELED_SHARE + LATE_SHARE
+                        ? expectedReturn.plusSeconds(1 + random.nextLong(21L * SECONDS_PER_DAY))
+                        : reservedAt.plusSeconds(1 + random.nextLong((long) loanDays * SECONDS_PER_DAY));
+                if (!returnedAt.isBefore(layout.now())) {
+                    returnedAt = layout.now().minusSeconds(1 + random.nextInt(60 * 60));
+                }
+                status = returnedAt.isAfter(expectedReturn) ? ReservationStatus.LATE_RETURNED : ReservationStatus.RETURNED;
+            }
+
+            reservations.add(new Object[]{
+                    userId(layout, random),
+                    bookId,
+                    status.name(),
+                    reservedAt,
+                    expectedReturn,
+                    returnedAt
+            });
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                insert(RESERVATION_SQL, RESERVATION_TYPES, reservations, spec.getBatchSize()));
+        return reservations.size();
+    }
+
+    private void insert(String sql, int[] types, List<Object[]> rows, int batchSize) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)), types);
+        }
+    }
+
+    /**
+     * Splits {@code rows} into chunks, writes them on {@code executor}
+     * and waits for all of them.
+     *
+     * @return the sum of what the chunk writers returned
+     */
+    private static long runPhase(ExecutorService executor, String phase, long rows, int chunkSize, ChunkWriter writer) {
+        long start = System.nanoTime();
+        List<Future<Long>> futures = new ArrayList<>();
+        long index = 0;
+        for (long from = 0; from < rows; from += chunkSize) {
+            Chunk chunk = new Chunk(index++, from, Math.min(rows, from + chunkSize));
+            futures.add(executor.submit(() -> writer.write(chunk)));
+        }
+
+        long total = 0;
+        try {
+            for (Future<Long> future : futures) {
+                total += future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating " + phase, e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Generating " + phase + " failed", e.getCause());
+        }
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Wrote {} {} in {} ms ({} rows/sec)", rows, phase, millis, rows * 1000 / millis);
+        return total;
+    }
+
+    private static void validate(DatasetSpec spec) {
+        if (spec.getUsers() < 1 || spec.getBooks() < 1 || spec.getReservations() < 0) {
+            throw new IllegalArgumentException("A dataset needs at least one user and one book");
+        }
+        if (spec.getAdmins() < 0 || spec.getAdmins() > spec.getUsers()) {
+            throw new IllegalArgumentException("admins must be between 0 and the number of users");
+        }
+        if (spec.getHistoryDays() < 1 || spec.getThreads() < 1 || spec.getBatchSize() < 1 || spec.getChunkSize() < 1) {
+            throw new IllegalArgumentException("historyDays, threads, batchSize and chunkSize must be positive");
+        }
+        if (spec.getActiveShare() < 0 || spec.getActiveShare() > 1) {
+            throw new IllegalArgumentException("activeShare must be between 0 and 1");
+        }
+    }
+
+    private static long userId(Layout layout, SplittableRandom random) {
+        return layout.firstUserId() + layout.userOrder().indexOf(layout.userActivity().sample(random));
+    }
+
+    /**
+     * @return a moment during opening hours, {@code daysAgo} days before the reference date
+     */
+    private static LocalDateTime openingHours(Layout layout, SplittableRandom random, int daysAgo) {
+        return layout.now().minusDays(daysAgo).plusHours(OPENING_HOUR).plusSeconds(random.nextInt(OPEN_SECONDS));
+    }
+
+    private static String title(SplittableRandom random) {
+        String adjective = pick(random, ADJECTIVES);
+        String noun = pick(random, NOUNS);
+        String other = pick(random, NOUNS);
+        return switch (random.nextInt(5)) {
+            case 0 -> "The " + adjective + " " + noun;
+            case 1 -> noun + " of " + other;
+            case 2 -> "The " + noun + " of the " + adjective + " " + other;
+            case 3 -> adjective + " " + noun;
+            default -> "A " + noun + " for the " + other;
+        };
+    }
+
+    /**
+     * @return a stable name for author number {@code index}, with a middle
+     *         initial once the first and last name pairs run out
+     */
+    private static String author(int index) {
+        int pairs = FIRST_NAMES.length * LAST_NAMES.length;
+        String first = FIRST_NAMES[index % FIRST_NAMES.length];
+        String last = LAST_NAMES[(index / FIRST_NAMES.length) % LAST_NAMES.length];
+        if (index < pairs) {
+            return first + " " + last;
+        }
+        return first + " " + (char) ('A' + (index / pairs - 1) % 26) + ". " + last;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static int pick(SplittableRandom random, int[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * @return the random stream of one chunk of one phase, derived from the seed alone
+     */
+    private static SplittableRandom random(DatasetSpec spec, long stream, long chunk) {
+        return new SplittableRandom(spec.getSeed() * 0x9E3779B97F4A7C15L
+                ^ stream * 0xC2B2AE3D27D4EB4FL
+                ^ chunk * 0x165667B19E3779F9L);
+    }
+}
@@ -0,0 +1,65 @@
+package com.finalproject.library_management_system_backend.dataset;
+
+import com.finalproject.library_management_system_backend.services.LibraryStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generates a dataset when the application starts with the
+ * {@code dataset} profile, then exits.
+ * <p>
+ * The spec is read from the {@code library.dataset.*} properties, one per
+ * {@link DatasetSpec} field, for example
+ * {@code --library.dataset.books=1000000 --library.dataset.reservations=50000000}.
+ * With {@code library.dataset.exit-when-done=false} the application keeps
+ * running instead; since runners finish before the application reports
+ * ready, the search index and suggestions then load the new data.
+ */
+@Slf4j
+@Component
+@Profile("dataset")
+public class DatasetGeneratorRunner implements ApplicationRunner {
+
+    private final DatasetGenerator datasetGenerator;
+    private final LibraryStatsService libraryStatsService;
+    private final ConfigurableApplicationContext context;
+    private final Environment environment;
+    private final boolean exitWhenDone;
+
+    public DatasetGeneratorRunner(DatasetGenerator datasetGenerator,
+                                  LibraryStatsService libraryStatsService,
+                                  ConfigurableApplicationContext context,
+                                  Environment environment,
+                                  @Value("${library.dataset.exit-when-done:true}") boolean exitWhenDone) {
+        this.datasetGenerator = datasetGenerator;
+        this.libraryStatsService = libraryStatsService;
+        this.context = context;
+        this.environment = environment;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        DatasetSpec spec = Binder.get(environment)
+                .bind("library.dataset", Bindable.ofInstance(DatasetSpec.builder().build()))
+                .orElseGet(() -> DatasetSpec.builder().build());
+
+        DatasetReport report = datasetGenerator.generate(spec);
+        libraryStatsService.reconcile();
+        log.info("Dataset ready: users from ID {}, books from ID {}, password '{}'",
+                report.getFirstUserId(), report.getFirstBookId(), spec.getPassword());
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.finalproject.library_management_system_backend.dataset;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class DatasetReport {
+    private long users;
+    private long firstUserId;
+    private long books;
+    private long firstBookId;
+    private long reservations;
+    private long activeReservations;
+    private long elapsedMillis;
+}
@@ -0,0 +1,92 @@
+package com.finalproject.library_management_system_backend.dataset;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * What {@link DatasetGenerator} should produce. The same spec, seed and
+ * reference date always produce the same rows.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatasetSpec {
+
+    @Builder.Default
+    private long seed = 42;
+
+    @Builder.Default
+    private int users = 10_000;
+
+    /**
+     * How many of the users are admins; they come first.
+     */
+    @Builder.Default
+    private int admins = 1;
+
+    @Builder.Default
+    private int books = 100_000;
+
+    /**
+     * Total reservations, active and historical.
+     */
+    @Builder.Default
+    private long reservations = 1_000_000;
+
+    /**
+     * Zipf exponent of book popularity; 1.0 gives the usual long tail.
+     */
+    @Builder.Default
+    private double bookExponent = 1.0;
+
+    /**
+     * Zipf exponent of user activity; flatter than books.
+     */
+    @Builder.Default
+    private double userExponent = 0.6;
+
+    /**
+     * Share of all copies that are on loan or on hold right now.
+     */
+    @Builder.Default
+    private double activeShare = 0.08;
+
+    /**
+     * How far back the reservation history reaches.
+     */
+    @Builder.Default
+    private int historyDays = 730;
+
+    /**
+     * "Today" for the generated dates. Every date lies before its start.
+     */
+    @Builder.Default
+    private LocalDate referenceDate = LocalDate.now();
+
+    /**
+     * The plain password shared by every generated user.
+     */
+    @Builder.Default
+    private String password = "dataset";
+
+    @Builder.Default
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Rows per JDBC batch.
+     */
+    @Builder.Default
+    private int batchSize = 1_000;
+
+    /**
+     * Rows per unit of work. Each chunk has its own random stream, so
+     * changing this changes the data.
+     */
+    @Builder.Default
+    private int chunkSize = 10_000;
+}
@@ -0,0 +1,22 @@
+package com.finalproject.library_management_system_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveStatus {
+    private boolean running;
+    private LocalDateTime cutoff;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long chunks;
+    private long reservationsArchived;
+    private long lastReservationId;
+}
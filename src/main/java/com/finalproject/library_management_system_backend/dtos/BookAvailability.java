@@ -0,0 +1,18 @@
+package com.finalproject.library_management_system_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How many copies of a book are on the shelf, as pushed by the
+ * availability stream. A deleted book reports no copies.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookAvailability {
+    private Long bookId;
+    private Integer availableCopies;
+    private Integer totalCopies;
+}
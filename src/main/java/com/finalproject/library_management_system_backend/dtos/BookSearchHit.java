@@ -0,0 +1,17 @@
+package com.finalproject.library_management_system_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSearchHit {
+    private Long id;
+    private String title;
+    private String author;
+    private Integer publicationYear;
+    private String pictureUrl;
+    private int score;
+}
@@ -0,0 +1,66 @@
+package com.finalproject.library_management_system_backend.dtos;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PerfSummary {
+
+    /**
+     * One timer: how often it fired and how long it took, in milliseconds.
+     * Percentiles are {@code null} when none are configured for the timer.
+     */
+    @Data
+    @Builder
+    public static class TimerSummary {
+        private String name;
+        private long count;
+        private double meanMs;
+        private Double p50Ms;
+        private Double p95Ms;
+        private Double p99Ms;
+        private double maxMs;
+    }
+
+    @Data
+    @Builder
+    public static class ConnectionPool {
+        private String name;
+        private int active;
+        private int idle;
+        private int pending;
+        private int max;
+        private long timeouts;
+    }
+
+    @Data
+    @Builder
+    public static class Hibernate {
+        private boolean statisticsEnabled;
+        private long statements;
+        private long queries;
+        private long slowestQueryMs;
+        private String slowestQuery;
+        private long entityLoads;
+        private long secondLevelCacheHits;
+        private long secondLevelCacheMisses;
+        private long transactions;
+    }
+
+    @Data
+    @Builder
+    public static class PasswordHashing {
+        private int active;
+        private int queued;
+        private long rejected;
+    }
+
+    private List<TimerSummary> endpoints;
+    private List<TimerSummary> reservationOperations;
+    private List<ConnectionPool> connectionPools;
+    private Hibernate hibernate;
+    private PasswordHashing passwordHashing;
+}
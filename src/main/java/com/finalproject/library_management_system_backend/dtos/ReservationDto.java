@@ -1,11 +1,15 @@
 package com.finalproject.library_management_system_backend.dtos;
 
 import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ReservationDto {
 
     private Long id;
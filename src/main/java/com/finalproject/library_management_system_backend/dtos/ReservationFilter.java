@@ -0,0 +1,20 @@
+package com.finalproject.library_management_system_backend.dtos;
+
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationFilter {
+    private ReservationStatus status;
+    private Long bookId;
+    private LocalDateTime reservedFrom;
+    private LocalDateTime reservedTo;
+}
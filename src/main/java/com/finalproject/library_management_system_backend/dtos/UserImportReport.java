@@ -0,0 +1,39 @@
+package com.finalproject.library_management_system_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class UserImportReport {
+
+    public enum Outcome {
+        CREATED,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private long line;
+        private String email;
+        private Outcome outcome;
+        private Long userId;
+        private String message;
+    }
+
+    private long rowsRead;
+    private long created;
+    private long duplicates;
+    private long invalid;
+    private long failed;
+    private List<RowResult> rows = new ArrayList<>();
+    private long elapsedMillis;
+}
@@ -0,0 +1,24 @@
+package com.finalproject.library_management_system_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistPosition {
+    private Long bookId;
+
+    /**
+     * 1 for the reader who gets the next freed copy.
+     */
+    private int position;
+
+    /**
+     * How many readers are waiting for the book in total.
+     */
+    private int waiting;
+}
@@ -0,0 +1,33 @@
+package com.finalproject.library_management_system_backend.events;
+
+import com.finalproject.library_management_system_backend.dtos.BookDto;
+
+/**
+ * Published by {@code BookService} whenever a book is created, edited or
+ * deleted. Listeners that keep in-memory views of the catalog use it to
+ * stay in sync without querying the database.
+ *
+ * @param type   what happened to the book
+ * @param bookId the ID of the book
+ * @param book   the book as it is now, or {@code null} when it was deleted
+ */
+public record BookChangedEvent(Type type, Long bookId, BookDto book) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static BookChangedEvent created(BookDto book) {
+        return new BookChangedEvent(Type.CREATED, book.getId(), book);
+    }
+
+    public static BookChangedEvent updated(BookDto book) {
+        return new BookChangedEvent(Type.UPDATED, book.getId(), book);
+    }
+
+    public static BookChangedEvent deleted(Long bookId) {
+        return new BookChangedEvent(Type.DELETED, bookId, null);
+    }
+}
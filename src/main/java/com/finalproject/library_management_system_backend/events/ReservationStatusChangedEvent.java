@@ -0,0 +1,21 @@
+package com.finalproject.library_management_system_backend.events;
+
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+
+/**
+ * Published by {@code ReservationService} on every reservation state
+ * transition, after which the book's availability or popularity may
+ * have changed.
+ *
+ * @param reservationId the reservation that changed
+ * @param bookId        the book it is for
+ * @param from          the previous status, or {@code null} for a new reservation
+ * @param to            the new status
+ */
+public record ReservationStatusChangedEvent(Long reservationId, Long bookId,
+                                            ReservationStatus from, ReservationStatus to) {
+
+    public boolean isNewReservation() {
+        return from == null;
+    }
+}
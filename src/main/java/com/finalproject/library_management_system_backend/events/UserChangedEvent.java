@@ -0,0 +1,25 @@
+package com.finalproject.library_management_system_backend.events;
+
+/**
+ * Published whenever a user account is created or deleted, so caches
+ * keyed by email can drop what they hold for it.
+ *
+ * @param type   what happened to the user
+ * @param userId the ID of the user
+ * @param email  the user's email
+ */
+public record UserChangedEvent(Type type, Long userId, String email) {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+
+    public static UserChangedEvent created(Long userId, String email) {
+        return new UserChangedEvent(Type.CREATED, userId, email);
+    }
+
+    public static UserChangedEvent deleted(Long userId, String email) {
+        return new UserChangedEvent(Type.DELETED, userId, email);
+    }
+}
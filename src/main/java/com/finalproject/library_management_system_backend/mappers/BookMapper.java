@@ -4,10 +4,13 @@ import com.finalproject.library_management_system_backend.dtos.BookDto;
 import com.finalproject.library_management_system_backend.dtos.CreateBookRequest;
 import com.finalproject.library_management_system_backend.model.Book;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface BookMapper {
     BookDto toBookDto(Book book);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     Book toEntity(CreateBookRequest bookDto);
 }
@@ -2,6 +2,7 @@ package com.finalproject.library_management_system_backend.mappers;
 
 import com.finalproject.library_management_system_backend.dtos.ReservationDto;
 import com.finalproject.library_management_system_backend.model.Reservation;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -13,4 +14,15 @@ public interface ReservationMapper {
     @Mapping(source = "book.id", target = "bookId")
     @Mapping(source = "book.title", target = "bookTitle")
     ReservationDto toDto(Reservation reservation);
+
+    /**
+     * Maps a reservation made by {@code reader}, taking the user fields from
+     * the caller so the reservation's user is never loaded.
+     */
+    @Mapping(source = "reservation.id", target = "id")
+    @Mapping(source = "reader.id", target = "userId")
+    @Mapping(source = "reader.name", target = "userFirstName")
+    @Mapping(source = "reservation.book.id", target = "bookId")
+    @Mapping(source = "reservation.book.title", target = "bookTitle")
+    ReservationDto toDto(Reservation reservation, AuthenticatedUser reader);
 }
@@ -4,6 +4,7 @@ import com.finalproject.library_management_system_backend.dtos.RegisterUserReque
 import com.finalproject.library_management_system_backend.dtos.UserDto;
 import com.finalproject.library_management_system_backend.model.User;
 import com.finalproject.library_management_system_backend.model.UserType;
+import com.finalproject.library_management_system_backend.security.UserAccount;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -15,8 +16,12 @@ public interface UserMapper {
     @Mapping(source = "email", target = "email")
     UserDto toDto(User user);
 
+    UserDto toDto(UserAccount account);
+
 
     @Mapping(target= "userType", source= "userTypeId")
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     User toEntity(RegisterUserRequest request);
 
     default UserType map(Long userTypeId) {
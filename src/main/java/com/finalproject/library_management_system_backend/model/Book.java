@@ -3,9 +3,13 @@ package com.finalproject.library_management_system_backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "books")
+@SQLRestriction("deleted_at is null")
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -16,7 +20,10 @@ import lombok.*;
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "book_ids")
+    @TableGenerator(name = "book_ids", table = "id_generator",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "books", allocationSize = 1000)
     private Long id;
 
     @Column(name="title", nullable = false)
@@ -36,4 +43,7 @@ public class Book {
 
     @Column(name="picture_url")
     private String pictureUrl;
+
+    @Column(name="deleted_at")
+    private LocalDateTime deletedAt;
 }
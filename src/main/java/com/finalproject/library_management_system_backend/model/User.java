@@ -2,11 +2,13 @@ package com.finalproject.library_management_system_backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -19,10 +21,14 @@ import java.util.List;
 @Getter
 @Setter
 @Table(name = "users")
+@SQLRestriction("deleted_at is null")
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_ids")
+    @TableGenerator(name = "user_ids", table = "id_generator",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "users", allocationSize = 1000)
     private Long id;
 
     @Column(name="first_name", nullable = false)
@@ -42,6 +48,9 @@ public class User implements UserDetails {
     @ToString.Exclude
     private UserType userType;
 
+    @Column(name="deleted_at")
+    private LocalDateTime deletedAt;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + userType.getTypeName().toUpperCase()));
@@ -0,0 +1,30 @@
+package com.finalproject.library_management_system_backend.monitoring;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the most SQL statements one call of a controller method may
+ * send through Hibernate, counted from the first statement to the end
+ * of the request and with every cache cold.
+ * <p>
+ * Going over the budget is logged and counted by
+ * {@link QueryBudgetInterceptor}. With
+ * {@code library.query-budget.fail-on-exceed=true}, as in the tests,
+ * the statement that goes over fails with
+ * {@link QueryBudgetExceededException} instead, so an N+1 regression
+ * breaks the build rather than slowing production down.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /**
+     * @return the maximum number of statements
+     */
+    int value();
+}
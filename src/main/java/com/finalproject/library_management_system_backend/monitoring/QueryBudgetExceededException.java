@@ -0,0 +1,12 @@
+package com.finalproject.library_management_system_backend.monitoring;
+
+/**
+ * Thrown from the statement that takes a request over its
+ * {@link QueryBudget} when budgets are enforced.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(int budget, String sql) {
+        super("Query budget of " + budget + " statements exceeded by: " + sql);
+    }
+}
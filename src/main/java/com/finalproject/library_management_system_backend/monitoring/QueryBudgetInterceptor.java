@@ -0,0 +1,80 @@
+package com.finalproject.library_management_system_backend.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Opens a {@link StatementCounter} scope around every controller call and
+ * checks it against the method's {@link QueryBudget}, if it declares one.
+ * <p>
+ * The statements of every request are recorded under
+ * {@link #STATEMENTS_SUMMARY}, tagged with the URI pattern; requests over
+ * budget are logged and counted under {@link #EXCEEDED_COUNTER}.
+ */
+@Slf4j
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String STATEMENTS_SUMMARY = "library.sql.statements";
+    public static final String EXCEEDED_COUNTER = "library.sql.budget.exceeded";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean failOnExceed;
+
+    public QueryBudgetInterceptor(MeterRegistry meterRegistry, boolean failOnExceed) {
+        this.meterRegistry = meterRegistry;
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            QueryBudget budget = method.getMethodAnnotation(QueryBudget.class);
+            StatementCounter.begin(budget != null ? budget.value() : -1, failOnExceed);
+        }
+        return true;
+    }
+
+    /**
+     * Streaming responses finish on another thread; only the statements
+     * made before the handler returned are counted.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        afterCompletion(request, response, handler, null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        StatementCounter.Scope scope = StatementCounter.end();
+        if (scope == null) {
+            return;
+        }
+
+        String uri = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        DistributionSummary.builder(STATEMENTS_SUMMARY)
+                .description("SQL statements per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.getCount());
+
+        if (scope.isExceeded()) {
+            log.warn("{} {} ran {} SQL statements, over its budget of {}:\n{}",
+                    request.getMethod(), uri, scope.getCount(), scope.getBudget(),
+                    String.join("\n", scope.getStatements()));
+            Counter.builder(EXCEEDED_COUNTER)
+                    .description("Requests that ran more SQL statements than their budget")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
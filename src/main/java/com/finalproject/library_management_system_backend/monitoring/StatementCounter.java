@@ -0,0 +1,85 @@
+package com.finalproject.library_management_system_backend.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread
+ * between {@link #begin} and {@link #end}, keeping their SQL.
+ * <p>
+ * Registered as the session factory's {@link StatementInspector}, so it
+ * sees JPQL, criteria and native queries alike, but not statements sent
+ * through {@code JdbcTemplate}. Outside a scope it does nothing.
+ */
+public class StatementCounter implements StatementInspector {
+
+    /**
+     * The statements counted so far in one scope.
+     */
+    public static final class Scope {
+        private final int budget;
+        private final boolean failOnExceed;
+        private final List<String> statements = new ArrayList<>();
+
+        private Scope(int budget, boolean failOnExceed) {
+            this.budget = budget;
+            this.failOnExceed = failOnExceed;
+        }
+
+        public int getBudget() {
+            return budget;
+        }
+
+        public int getCount() {
+            return statements.size();
+        }
+
+        /**
+         * @return the SQL of every statement counted, in order
+         */
+        public List<String> getStatements() {
+            return statements;
+        }
+
+        public boolean isExceeded() {
+            return budget >= 0 && getCount() > budget;
+        }
+    }
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Starts counting on this thread, replacing any scope already open.
+     *
+     * @param budget       the statements allowed, or {@code -1} to only count
+     * @param failOnExceed whether the statement that goes over the budget should fail
+     */
+    public static void begin(int budget, boolean failOnExceed) {
+        CURRENT.set(new Scope(budget, failOnExceed));
+    }
+
+    /**
+     * Stops counting on this thread.
+     *
+     * @return the finished scope, or {@code null} if none was open
+     */
+    public static Scope end() {
+        Scope scope = CURRENT.get();
+        CURRENT.remove();
+        return scope;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statements.add(sql);
+            if (scope.failOnExceed && scope.isExceeded()) {
+                throw new QueryBudgetExceededException(scope.budget, sql);
+            }
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,135 @@
+package com.finalproject.library_management_system_backend.pagination;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finalproject.library_management_system_backend.dtos.CursorPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Shared keyset (cursor) pagination for the listing endpoints.
+ * <p>
+ * Sort keys are checked against a per-endpoint whitelist of indexed
+ * columns, page sizes are clamped, and Spring Data scroll positions are
+ * converted to and from opaque, URL-safe cursor strings. The entity ID is
+ * always appended as a tie-breaker so every cursor points at a unique row.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetPaginator {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String ID = "id";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Builds the sort for a listing request.
+     *
+     * @param sort     the requested sort key
+     * @param sortKeys allowed sort keys mapped to their Java type; must include {@code id}
+     * @return the sort key followed by the ID tie-breaker
+     * @throws ResponseStatusException if the key is not whitelisted
+     */
+    public Sort resolveSort(String sort, Map<String, Class<?>> sortKeys) {
+        if (sort == null || !sortKeys.containsKey(sort)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported sort key: " + sort);
+        }
+        return ID.equals(sort) ? Sort.by(ID) : Sort.by(sort).and(Sort.by(ID));
+    }
+
+    /**
+     * Clamps the requested page size to {@link #MAX_PAGE_SIZE}.
+     *
+     * @param size the requested size, or {@code null} for the default
+     * @return the limit to apply to the query
+     */
+    public Limit resolveLimit(Integer size) {
+        if (size == null) {
+            return Limit.of(DEFAULT_PAGE_SIZE);
+        }
+        if (size <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be positive");
+        }
+        return Limit.of(Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #toPage}.
+     *
+     * @param cursor   the opaque cursor, or {@code null} for the first page
+     * @param sort     the sort the cursor must have been produced with
+     * @param sortKeys allowed sort keys mapped to their Java type
+     * @return the scroll position to continue from
+     * @throws ResponseStatusException if the cursor is malformed or belongs to another sort
+     */
+    public KeysetScrollPosition decode(String cursor, Sort sort, Map<String, Class<?>> sortKeys) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            Map<String, Object> raw = objectMapper.readValue(
+                    Base64.getUrlDecoder().decode(cursor), new TypeReference<Map<String, Object>>() {});
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (Sort.Order order : sort) {
+                Object value = raw.get(order.getProperty());
+                if (value == null) {
+                    throw invalidCursor();
+                }
+                keys.put(order.getProperty(), objectMapper.convertValue(value, sortKeys.get(order.getProperty())));
+            }
+
+            if (raw.size() != keys.size()) {
+                throw invalidCursor();
+            }
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IOException e) {
+            throw invalidCursor();
+        }
+    }
+
+    /**
+     * Maps a window of results and attaches the cursor for the next page.
+     *
+     * @param window the window returned by the repository
+     * @param mapper converts each row to its DTO
+     * @return the page, with a {@code null} cursor when there are no more rows
+     */
+    public <T, D> CursorPage<D> toPage(Window<T> window, Function<? super T, D> mapper) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = encode((KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+        return new CursorPage<>(window.map(mapper).getContent(), nextCursor);
+    }
+
+    private String encode(KeysetScrollPosition position) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(position.getKeys()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    private ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
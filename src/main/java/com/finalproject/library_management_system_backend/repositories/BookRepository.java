@@ -1,12 +1,98 @@
 package com.finalproject.library_management_system_backend.repositories;
 
+import com.finalproject.library_management_system_backend.dtos.BookAvailability;
 import com.finalproject.library_management_system_backend.model.Book;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    Window<Book> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("select new com.finalproject.library_management_system_backend.dtos.BookAvailability("
+            + "b.id, b.availableCopies, b.totalCopies) from Book b where b.id in :ids")
+    List<BookAvailability> findAvailabilityByIdIn(Collection<Long> ids);
+
+    /**
+     * Loads a book and locks its row until the transaction ends, so an edit
+     * of its copy counts cannot overwrite a checkout or return committed
+     * in between.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Book b where b.id = :id")
+    Optional<Book> findForUpdateById(Long id);
+
+    /**
+     * Takes one copy of a book if any is left.
+     *
+     * @return 1 if a copy was taken, 0 if the book is missing or has no copies left
+     */
+    @Modifying
+    @Query("update Book b set b.availableCopies = b.availableCopies - 1 where b.id = :id and b.availableCopies > 0")
+    int decrementAvailableCopies(Long id);
+
+    /**
+     * Puts one copy of a book back, never exceeding its total copies.
+     *
+     * @return 1 if a copy was restored, 0 otherwise
+     */
+    @Modifying
+    @Query("update Book b set b.availableCopies = b.availableCopies + 1 where b.id = :id and b.availableCopies < b.totalCopies")
+    int incrementAvailableCopies(Long id);
+
+    /**
+     * Locks a book's row until the caller's transaction ends, so that
+     * joining its waitlist and releasing one of its copies take turns.
+     *
+     * @return the copies left, or empty if the book is missing or deleted
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b.availableCopies from Book b where b.id = :id")
+    Optional<Integer> lockAvailableCopies(Long id);
+
+    /**
+     * Hides a book from every query; its row and reservations are removed
+     * later by the purger.
+     *
+     * @return 1 if the book was marked, 0 if it is missing or already deleted
+     */
+    @Modifying
+    @Query("update Book b set b.deletedAt = :deletedAt where b.id = :id and b.deletedAt is null")
+    int markDeleted(Long id, LocalDateTime deletedAt);
 
+    /**
+     * Native, because soft-deleted books are invisible to entity queries.
+     */
+    @Query(value = "select id from books where deleted_at is not null and id > :afterId order by id limit :limit",
+            nativeQuery = true)
+    List<Long> findDeletedIds(Long afterId, int limit);
 
+    /**
+     * Removes the row of a soft-deleted book in its own transaction.
+     *
+     * @return 1 if the row was removed, 0 if it is gone or was never deleted
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books"))
+    @Query(value = "delete from books where id = :id and deleted_at is not null", nativeQuery = true)
+    int purgeDeleted(Long id);
 }
@@ -0,0 +1,75 @@
+package com.finalproject.library_management_system_backend.repositories;
+
+import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.model.ArchivedReservation;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReservationArchiveRepository extends JpaRepository<ArchivedReservation, Long> {
+
+    String SELECT_DTO = "select new com.finalproject.library_management_system_backend.dtos.ReservationDto("
+            + "r.id, r.status, r.reservationDate, r.expectedReturnDate, r.returnDate, "
+            + "u.id, concat(u.firstName, ' ', u.lastName), b.id, b.title) "
+            + "from ArchivedReservation r join r.user u join r.book b ";
+
+    @Query(SELECT_DTO + "where u.email = :email order by r.reservationDate desc, r.id desc")
+    List<ReservationDto> findDtosByUserEmail(String email);
+
+    @Query(SELECT_DTO + "where u.id = :userId order by r.reservationDate desc, r.id desc")
+    List<ReservationDto> findDtosByUserId(Long userId);
+
+    /**
+     * Copies the given reservations into the archive, stamped with
+     * {@code archivedAt}. Native, because JPQL cannot insert from another
+     * entity's table; the caller removes the originals in the same
+     * transaction.
+     *
+     * @return the number of reservations copied
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reservation_archive"))
+    @Query(value = "insert into reservation_archive "
+            + "(id, user_id, book_id, status, reservation_date, expected_return_date, return_date, archived_at) "
+            + "select id, user_id, book_id, status, reservation_date, expected_return_date, return_date, :archivedAt "
+            + "from reservation where id in (:ids)", nativeQuery = true)
+    int copyFromReservations(List<Long> ids, LocalDateTime archivedAt);
+
+    @Query("select r.status as status, count(r) as count from ArchivedReservation r group by r.status")
+    List<ReservationRepository.StatusCount> countByStatus();
+
+    @Query("select r.book.id as bookId, count(r) as count from ArchivedReservation r " +
+            "where r.status in :statuses group by r.book.id")
+    List<ReservationRepository.BookCount> countByBookAndStatusIn(Collection<ReservationStatus> statuses);
+
+    @Query("select r.id from ArchivedReservation r where r.book.id = :bookId order by r.id")
+    List<Long> findIdsByBookId(Long bookId, Limit limit);
+
+    @Query("select r.id from ArchivedReservation r where r.user.id = :userId order by r.id")
+    List<Long> findIdsByUserId(Long userId, Limit limit);
+
+    /**
+     * Deletes the given archived reservations in a single statement and
+     * its own transaction. Native, since archived rows are immutable to
+     * Hibernate.
+     *
+     * @return the number of reservations deleted
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reservation_archive"))
+    @Query(value = "delete from reservation_archive where id in (:ids)", nativeQuery = true)
+    int deleteByIdIn(List<Long> ids);
+}
@@ -1,24 +1,115 @@
 package com.finalproject.library_management_system_backend.repositories;
 
+import com.finalproject.library_management_system_backend.dtos.ReservationDto;
 import com.finalproject.library_management_system_backend.model.Reservation;
 import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationRepositoryCustom {
 
-    List<Reservation> findByUserEmail(String email);
+    String SELECT_DTO = "select new com.finalproject.library_management_system_backend.dtos.ReservationDto("
+            + "r.id, r.status, r.reservationDate, r.expectedReturnDate, r.returnDate, "
+            + "u.id, concat(u.firstName, ' ', u.lastName), b.id, b.title) "
+            + "from Reservation r join r.user u join r.book b ";
 
-    List<Reservation> findByUserId(Long userId);
+    interface StatusCount {
+        ReservationStatus getStatus();
+        long getCount();
+    }
+
+    interface BookCount {
+        Long getBookId();
+        long getCount();
+    }
+
+    interface Hold {
+        Long getId();
+        Long getBookId();
+        LocalDateTime getReservationDate();
+    }
+
+    /**
+     * Loads a reservation and locks its row until the transaction ends, so
+     * transitions (collect, cancel, pickup expiry, return, extend) cannot
+     * overwrite each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.id = :id")
+    Optional<Reservation> findForUpdateById(Long id);
+
+    @Query(SELECT_DTO + "where u.email = :email order by r.reservationDate desc, r.id desc")
+    List<ReservationDto> findDtosByUserEmail(String email);
+
+    @Query(SELECT_DTO + "where u.id = :userId order by r.reservationDate desc, r.id desc")
+    List<ReservationDto> findDtosByUserId(Long userId);
 
     List<Reservation> findByStatusAndExpectedReturnDateBefore(ReservationStatus status, LocalDateTime now);
 
+    @Query("select r.id from Reservation r where r.status = :status and r.expectedReturnDate < :before "
+            + "and r.id > :afterId order by r.id")
+    List<Long> findIdsByStatusAndExpectedReturnDateBefore(ReservationStatus status, LocalDateTime before,
+                                                          Long afterId, Limit limit);
+
+    @Query("select r.id from Reservation r where r.status in :statuses and r.expectedReturnDate < :before "
+            + "and r.id > :afterId order by r.id")
+    List<Long> findIdsByStatusInAndExpectedReturnDateBefore(Collection<ReservationStatus> statuses,
+                                                            LocalDateTime before, Long afterId, Limit limit);
+
+    @Query("select r.id as id, r.book.id as bookId, r.reservationDate as reservationDate from Reservation r "
+            + "where r.status = :status and r.id > :afterId order by r.id")
+    List<Hold> findHoldsByStatus(ReservationStatus status, Long afterId, Limit limit);
 
+    /**
+     * Moves the given reservations from one status to another in a single
+     * statement and its own transaction. Rows no longer in {@code from}
+     * are left untouched.
+     *
+     * @return the number of reservations updated
+     */
+    @Transactional
+    @Modifying
+    @Query("update Reservation r set r.status = :to where r.id in :ids and r.status = :from")
+    int updateStatus(List<Long> ids, ReservationStatus from, ReservationStatus to);
+
+
+
+    @Query("select r.status as status, count(r) as count from Reservation r group by r.status")
+    List<StatusCount> countByStatus();
+
+    @Query("select r.book.id as bookId, count(r) as count from Reservation r " +
+            "where r.status in :statuses group by r.book.id")
+    List<BookCount> countByBookAndStatusIn(Collection<ReservationStatus> statuses);
 
     boolean existsByBookId(Long bookId);
+
+    @Query("select r.id from Reservation r where r.book.id = :bookId order by r.id")
+    List<Long> findIdsByBookId(Long bookId, Limit limit);
+
+    @Query("select r.id from Reservation r where r.user.id = :userId order by r.id")
+    List<Long> findIdsByUserId(Long userId, Limit limit);
+
+    /**
+     * Deletes the given reservations in a single statement and its own
+     * transaction.
+     *
+     * @return the number of reservations deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Reservation r where r.id in :ids")
+    int deleteByIdIn(List<Long> ids);
 }
 
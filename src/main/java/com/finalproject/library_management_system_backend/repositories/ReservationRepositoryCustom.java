@@ -0,0 +1,13 @@
+package com.finalproject.library_management_system_backend.repositories;
+
+import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.dtos.ReservationFilter;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+public interface ReservationRepositoryCustom {
+
+    Window<ReservationDto> findDtos(ReservationFilter filter, KeysetScrollPosition position, Sort sort, Limit limit);
+}
@@ -0,0 +1,126 @@
+package com.finalproject.library_management_system_backend.repositories;
+
+import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.dtos.ReservationFilter;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.Reservation;
+import com.finalproject.library_management_system_backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds {@link ReservationDto} rows straight from a single joined
+ * SELECT, so listing reservations never touches the lazy
+ * {@code user} and {@code book} associations.
+ * <p>
+ * Results are keyset-paginated over the requested sort, which must be
+ * made of {@link Reservation} attributes that also exist on the DTO.
+ */
+@RequiredArgsConstructor
+public class ReservationRepositoryImpl implements ReservationRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Window<ReservationDto> findDtos(ReservationFilter filter, KeysetScrollPosition position, Sort sort, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReservationDto> query = cb.createQuery(ReservationDto.class);
+
+        Root<Reservation> reservation = query.from(Reservation.class);
+        // Outer joins keep reservation as the driving table, so the database
+        // walks it in index order and stops at the limit instead of joining
+        // and sorting every row. Soft-deleted users and books come back as
+        // nulls and are filtered out below.
+        Join<Reservation, User> user = reservation.join("user", JoinType.LEFT);
+        Join<Reservation, Book> book = reservation.join("book", JoinType.LEFT);
+
+        query.select(cb.construct(ReservationDto.class,
+                reservation.get("id"),
+                reservation.get("status"),
+                reservation.get("reservationDate"),
+                reservation.get("expectedReturnDate"),
+                reservation.get("returnDate"),
+                user.get("id"),
+                cb.concat(cb.concat(user.<String>get("firstName"), " "), user.<String>get("lastName")),
+                book.get("id"),
+                book.get("title")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isNotNull(user.get("id")));
+        predicates.add(cb.isNotNull(book.get("id")));
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(reservation.get("status"), filter.getStatus()));
+        }
+        if (filter.getBookId() != null) {
+            predicates.add(cb.equal(book.get("id"), filter.getBookId()));
+        }
+        if (filter.getReservedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(reservation.get("reservationDate"), filter.getReservedFrom()));
+        }
+        if (filter.getReservedTo() != null) {
+            predicates.add(cb.lessThan(reservation.get("reservationDate"), filter.getReservedTo()));
+        }
+        if (!position.isInitial()) {
+            predicates.add(keysetPredicate(cb, reservation, position.getKeys(), sort));
+        }
+
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(sort.stream().map(order -> cb.asc(reservation.get(order.getProperty()))).toList());
+
+        List<ReservationDto> rows = entityManager.createQuery(query)
+                .setMaxResults(limit.max() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > limit.max();
+        List<ReservationDto> content = hasNext ? rows.subList(0, limit.max()) : rows;
+
+        return Window.from(content, i -> ScrollPosition.forward(keysOf(content.get(i), sort)), hasNext);
+    }
+
+    /**
+     * Builds {@code (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ...} for an ascending sort.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate keysetPredicate(CriteriaBuilder cb, Root<Reservation> root, Map<String, ?> keys, Sort sort) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalSoFar = new ArrayList<>();
+
+        for (Sort.Order order : sort) {
+            var path = root.<Comparable>get(order.getProperty());
+            Comparable value = (Comparable) keys.get(order.getProperty());
+
+            List<Predicate> branch = new ArrayList<>(equalSoFar);
+            branch.add(cb.greaterThan(path, value));
+            alternatives.add(cb.and(branch.toArray(Predicate[]::new)));
+
+            equalSoFar.add(cb.equal(path, value));
+        }
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    private Map<String, Object> keysOf(ReservationDto dto, Sort sort) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(dto);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            keys.put(order.getProperty(), wrapper.getPropertyValue(order.getProperty()));
+        }
+        return keys;
+    }
+}
@@ -2,9 +2,22 @@ package com.finalproject.library_management_system_backend.repositories;
 
 import com.finalproject.library_management_system_backend.model.Reservation;
 import com.finalproject.library_management_system_backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +25,47 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
+    @EntityGraph(attributePaths = "userType")
+    Window<User> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Native, so emails still held by soft-deleted users count as taken.
+     *
+     * @return those of {@code emails} that already belong to a user
+     */
+    @Query(value = "select email from users where email in (:emails)", nativeQuery = true)
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(Long id, String password);
+
+    /**
+     * Hides a user from every query, including login; the row and its
+     * reservations are removed later by the purger.
+     *
+     * @return 1 if the user was marked, 0 if it is missing or already deleted
+     */
+    @Modifying
+    @Query("update User u set u.deletedAt = :deletedAt where u.id = :id and u.deletedAt is null")
+    int markDeleted(Long id, LocalDateTime deletedAt);
+
+    /**
+     * Native, because soft-deleted users are invisible to entity queries.
+     */
+    @Query(value = "select id from users where deleted_at is not null and id > :afterId order by id limit :limit",
+            nativeQuery = true)
+    List<Long> findDeletedIds(Long afterId, int limit);
+
+    /**
+     * Removes the row of a soft-deleted user in its own transaction.
+     *
+     * @return 1 if the row was removed, 0 if it is gone or was never deleted
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = "delete from users where id = :id and deleted_at is not null", nativeQuery = true)
+    int purgeDeleted(Long id);
 }
@@ -0,0 +1,70 @@
+package com.finalproject.library_management_system_backend.repositories;
+
+import com.finalproject.library_management_system_backend.model.WaitlistEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    interface Waiter {
+        Long getId();
+        Long getBookId();
+        Long getUserId();
+    }
+
+    @Query("select w.id as id, w.book.id as bookId, w.user.id as userId from WaitlistEntry w "
+            + "where w.id > :afterId order by w.id")
+    List<Waiter> findWaiters(Long afterId, Limit limit);
+
+    /**
+     * Reads the oldest entries for a book and locks them until the caller's
+     * transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w.id as id, w.book.id as bookId, w.user.id as userId from WaitlistEntry w "
+            + "where w.book.id = :bookId order by w.id")
+    List<Waiter> lockHead(Long bookId, Limit limit);
+
+    /**
+     * Removes entries, joining the caller's transaction.
+     *
+     * @return the number of entries removed
+     */
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.id in :ids")
+    int deleteEntries(Collection<Long> ids);
+
+    /**
+     * Removes every entry of a user, joining the caller's transaction.
+     *
+     * @return the number of entries removed
+     */
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.user.id = :userId")
+    int deleteByUserId(Long userId);
+
+    /**
+     * Removes every entry for a book, joining the caller's transaction.
+     *
+     * @return the number of entries removed
+     */
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.book.id = :bookId")
+    int deleteByBookId(Long bookId);
+
+    /**
+     * @return 1 if the user was waiting for the book, 0 otherwise
+     */
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.book.id = :bookId and w.user.id = :userId")
+    int deleteByBookIdAndUserId(Long bookId, Long userId);
+}
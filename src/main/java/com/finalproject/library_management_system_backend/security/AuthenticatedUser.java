@@ -0,0 +1,46 @@
+package com.finalproject.library_management_system_backend.security;
+
+import com.finalproject.library_management_system_backend.model.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * The caller of a request authenticated with an access token, built from
+ * the token's claims alone.
+ *
+ * @param id    the user's ID
+ * @param email the user's email, returned by {@link #getName()} like the
+ *              username of a {@link User}
+ * @param role  the user type name in upper case, e.g. {@code USER} or {@code ADMIN}
+ * @param name  the user's first and last name
+ */
+public record AuthenticatedUser(Long id, String email, String role, String name) implements AuthenticatedPrincipal {
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getEmail(),
+                user.getUserType().getTypeName().toUpperCase(),
+                user.getFirstName() + " " + user.getLastName());
+    }
+
+    public static AuthenticatedUser from(UserAccount account) {
+        return new AuthenticatedUser(
+                account.id(),
+                account.email(),
+                account.userType().toUpperCase(),
+                account.firstName() + " " + account.lastName());
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,50 @@
+package com.finalproject.library_management_system_backend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks a BCrypt strength for the machine the application runs on.
+ */
+@Slf4j
+public final class BCryptWorkFactor {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private BCryptWorkFactor() {
+    }
+
+    /**
+     * Returns the highest strength whose hash still takes no longer than
+     * {@code target} on this machine, within the given bounds. Each step
+     * up doubles the work, so the strength is raised while twice the last
+     * measured time still fits the target.
+     *
+     * @param target      the longest one hash should take
+     * @param minStrength the strength to use even if it is slower than the target
+     * @param maxStrength the strength never to exceed
+     */
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        new BCryptPasswordEncoder(4).encode(SAMPLE_PASSWORD);
+
+        int strength = minStrength;
+        long nanos = time(strength);
+        while (strength < maxStrength && nanos * 2 <= target.toNanos()) {
+            strength++;
+            nanos = time(strength);
+        }
+
+        log.info("Calibrated BCrypt strength {} ({} ms per hash, target {} ms)",
+                strength, nanos / 1_000_000, target.toMillis());
+        return strength;
+    }
+
+    private static long time(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return System.nanoTime() - start;
+    }
+}
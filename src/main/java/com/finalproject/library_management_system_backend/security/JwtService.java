@@ -0,0 +1,154 @@
+package com.finalproject.library_management_system_backend.security;
+
+import com.finalproject.library_management_system_backend.dtos.AuthenticationResponse;
+import com.finalproject.library_management_system_backend.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Issues and verifies the signed (HS256) tokens used instead of HTTP
+ * sessions.
+ * <p>
+ * An access token carries everything a request needs to be authorized:
+ * the user's ID, email, role and name. It is short-lived, because a
+ * deleted user or a changed role only takes effect once it expires. A
+ * refresh token carries only the user ID and is exchanged for a new pair
+ * after the user has been looked up again.
+ * <p>
+ * Every node must be configured with the same {@code library.jwt.secret}
+ * (a Base64 key of at least 256 bits). Without one, a random key is
+ * generated at startup, so tokens only work on this node until it restarts.
+ */
+@Slf4j
+@Service
+public class JwtService {
+
+    public static final String TOKEN_TYPE = "Bearer";
+
+    private static final String USER_ID = "uid";
+    private static final String ROLE = "role";
+    private static final String NAME = "name";
+    private static final String TYPE = "typ";
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
+
+    private final Key key;
+    private final Duration accessTokenTtl;
+    private final Duration refreshTokenTtl;
+    private final Clock clock;
+
+    @Autowired
+    public JwtService(@Value("${library.jwt.secret:}") String secret,
+                      @Value("${library.jwt.access-token-ttl:15m}") Duration accessTokenTtl,
+                      @Value("${library.jwt.refresh-token-ttl:7d}") Duration refreshTokenTtl) {
+        this(secret, accessTokenTtl, refreshTokenTtl, Clock.systemUTC());
+    }
+
+    JwtService(String secret, Duration accessTokenTtl, Duration refreshTokenTtl, Clock clock) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("library.jwt.secret is not set; using a random key, tokens will not survive a restart");
+            this.key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        } else {
+            this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        }
+        this.accessTokenTtl = accessTokenTtl;
+        this.refreshTokenTtl = refreshTokenTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * @return a new access and refresh token for {@code user}
+     */
+    public AuthenticationResponse issueTokens(User user) {
+        return issueTokens(AuthenticatedUser.from(user));
+    }
+
+    /**
+     * @return a new access and refresh token for the user {@code principal} describes
+     */
+    public AuthenticationResponse issueTokens(AuthenticatedUser principal) {
+        Instant now = clock.instant();
+
+        String accessToken = Jwts.builder()
+                .setSubject(principal.email())
+                .claim(TYPE, ACCESS)
+                .claim(USER_ID, principal.id())
+                .claim(ROLE, principal.role())
+                .claim(NAME, principal.name())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(accessTokenTtl)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+
+        String refreshToken = Jwts.builder()
+                .setSubject(principal.email())
+                .claim(TYPE, REFRESH)
+                .claim(USER_ID, principal.id())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(refreshTokenTtl)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+
+        return AuthenticationResponse.builder()
+                .accessToken(accessToken)
+                .refreshToken(refreshToken)
+                .tokenType(TOKEN_TYPE)
+                .expiresIn(accessTokenTtl.toSeconds())
+                .build();
+    }
+
+    /**
+     * @return the caller described by a valid access token
+     * @throws JwtException if the token is malformed, tampered with,
+     *                      expired or not an access token
+     */
+    public AuthenticatedUser parseAccessToken(String token) {
+        Claims claims = parse(token, ACCESS);
+        return new AuthenticatedUser(
+                claims.get(USER_ID, Long.class),
+                claims.getSubject(),
+                claims.get(ROLE, String.class),
+                claims.get(NAME, String.class));
+    }
+
+    /**
+     * @return the ID of the user a valid refresh token was issued to
+     * @throws JwtException if the token is malformed, tampered with,
+     *                      expired or not a refresh token
+     */
+    public Long parseRefreshToken(String token) {
+        return parse(token, REFRESH).get(USER_ID, Long.class);
+    }
+
+    private Claims parse(String token, String expectedType) {
+        Claims claims;
+        try {
+            claims = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .setClock(() -> Date.from(clock.instant()))
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+        } catch (IllegalArgumentException e) {
+            throw new JwtException("Token is empty", e);
+        }
+        if (!expectedType.equals(claims.get(TYPE, String.class))) {
+            throw new JwtException("Expected a " + expectedType + " token");
+        }
+        return claims;
+    }
+}
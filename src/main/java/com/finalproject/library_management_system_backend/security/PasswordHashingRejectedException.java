@@ -0,0 +1,18 @@
+package com.finalproject.library_management_system_backend.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the password hashing pool and its queue are full. It is an
+ * authentication exception so the login filter hands it to its failure
+ * handler, and it maps to 503 when it escapes a controller.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Too many logins in progress, try again shortly")
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,55 @@
+package com.finalproject.library_management_system_backend.security;
+
+import com.finalproject.library_management_system_backend.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+/**
+ * An immutable copy of a user's login details, safe to cache and to share
+ * between requests, unlike the managed {@link User} it was taken from.
+ *
+ * @param id        the user's ID
+ * @param email     the user's email, also their username
+ * @param password  the stored password hash
+ * @param userType  the user type name, e.g. {@code User} or {@code Admin}
+ * @param firstName the user's first name
+ * @param lastName  the user's last name
+ */
+public record UserAccount(Long id, String email, String password, String userType,
+                          String firstName, String lastName) implements UserDetails {
+
+    public static UserAccount from(User user) {
+        return new UserAccount(
+                user.getId(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getUserType().getTypeName(),
+                user.getFirstName(),
+                user.getLastName());
+    }
+
+    /**
+     * @return a copy holding a new password hash
+     */
+    public UserAccount withPassword(String password) {
+        return new UserAccount(id, email, password, userType, firstName, lastName);
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + userType.toUpperCase()));
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -1,24 +1,41 @@
 package com.finalproject.library_management_system_backend.services;
 
+import com.finalproject.library_management_system_backend.dtos.AuthenticationResponse;
+import com.finalproject.library_management_system_backend.dtos.LoginRequest;
 import com.finalproject.library_management_system_backend.dtos.RegisterUserRequest;
 import com.finalproject.library_management_system_backend.dtos.UserDto;
+import com.finalproject.library_management_system_backend.events.UserChangedEvent;
 import com.finalproject.library_management_system_backend.mappers.UserMapper;
 import com.finalproject.library_management_system_backend.model.User;
 import com.finalproject.library_management_system_backend.model.UserType;
 import com.finalproject.library_management_system_backend.repositories.UserRepository;
 import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import com.finalproject.library_management_system_backend.security.JwtService;
+import com.finalproject.library_management_system_backend.security.PasswordHashingRejectedException;
+import com.finalproject.library_management_system_backend.security.UserAccount;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
- * Handles authentication-related logic, such as registering new users.
+ * Handles authentication-related logic, such as registering new users
+ * and issuing access and refresh tokens.
  * <p>
  * Performs validation checks, assigns user types, encodes passwords,
  * and persists new accounts to the database.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthenticationService {
@@ -27,6 +44,11 @@ public class AuthenticationService {
     private final UserTypeRepository userTypeRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final LibraryStatsService libraryStatsService;
+    private final AuthenticationProvider authenticationProvider;
+    private final JwtService jwtService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
         /**
      * Registers a new user in the system.
@@ -44,20 +66,20 @@ public class AuthenticationService {
      *                and user type ID
      * @return a {@link UserDto} describing the created user
      * @throws ResponseStatusException if an account already exists
-     *                                 with the provided email
+     *                                 with the provided email, including a
+     *                                 deleted one that is not purged yet
      */
 
     public UserDto register(RegisterUserRequest request) {
 
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            System.out.println("--- DUPLICATE USER FOUND! ---");
+            log.debug("Registration rejected: {} is already registered", request.getEmail());
 
             throw new ResponseStatusException(
                     HttpStatus.CONFLICT, "An account with this email already exists."
             );
         }
 
-        System.out.println("--- NO DUPLICATE. CREATING NEW USER... ---");
         UserType userType = userTypeRepository.findById(request.getUserTypeId())
                 .orElseThrow(() -> new RuntimeException("User type not found"));
 
@@ -69,7 +91,64 @@ public class AuthenticationService {
                 .userType(userType)
                 .build();
 
-        User savedUser = userRepository.save(user);
+        // Hashing is slow, so the transaction only opens once it is done.
+        User savedUser;
+        try {
+            savedUser = transactionTemplate.execute(status -> {
+                User saved = userRepository.saveAndFlush(user);
+                libraryStatsService.recordUserCreated();
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A soft-deleted account keeps its email until it is purged.
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT, "An account with this email already exists or was recently deleted."
+            );
+        }
+        eventPublisher.publishEvent(UserChangedEvent.created(savedUser.getId(), savedUser.getEmail()));
         return userMapper.toDto(savedUser);
     }
+
+        /**
+     * Checks a user's email and password and issues a token pair.
+     *
+     * @param request the user's email and password
+     * @return a short-lived access token and a longer-lived refresh token
+     * @throws ResponseStatusException if the credentials are wrong
+     * @throws PasswordHashingRejectedException if too many logins are in progress
+     */
+    public AuthenticationResponse login(LoginRequest request) {
+        try {
+            var authentication = authenticationProvider.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+            return jwtService.issueTokens(AuthenticatedUser.from((UserAccount) authentication.getPrincipal()));
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
+        } catch (AuthenticationException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid email or password");
+        }
+    }
+
+        /**
+     * Exchanges a refresh token for a new token pair.
+     * <p>
+     * The user is read again so the new access token reflects their
+     * current role, and so deleted accounts cannot refresh.
+     *
+     * @param refreshToken a refresh token from {@link #login}
+     * @return a new access and refresh token
+     * @throws ResponseStatusException if the token is invalid or the user no longer exists
+     */
+    public AuthenticationResponse refresh(String refreshToken) {
+        Long userId;
+        try {
+            userId = jwtService.parseRefreshToken(refreshToken);
+        } catch (JwtException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+        return jwtService.issueTokens(user);
+    }
 }
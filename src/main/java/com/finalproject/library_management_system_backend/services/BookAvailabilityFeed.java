@@ -0,0 +1,283 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.BookAvailability;
+import com.finalproject.library_management_system_backend.events.BookChangedEvent;
+import com.finalproject.library_management_system_backend.events.ReservationStatusChangedEvent;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Pushes book availability to Server-Sent Events subscribers whenever a
+ * reservation or an edit changes a book's copies.
+ * <p>
+ * Changes only mark the book as dirty. Every coalescing interval the dirty
+ * books are read back with one query and each subscriber is sent the
+ * latest figures for the books it follows, so a burst of checkouts on a
+ * hot title costs one event per subscriber rather than one per checkout,
+ * and nothing is read when nobody follows the changed books. Streams are
+ * async servlet responses and hold no thread while idle; each subscriber
+ * is written to from a virtual thread, so a slow client delays only
+ * itself. A comment is sent on every stream at the heartbeat interval to
+ * keep proxies from closing it and to drop clients that went away.
+ * <p>
+ * Only changes made by this instance are seen.
+ */
+@Slf4j
+@Service
+public class BookAvailabilityFeed {
+
+    public static final String EVENT_NAME = "availability";
+
+    private static final int LOOKUP_BATCH_SIZE = 1_000;
+
+    private static final Set<ReservationStatus> RELEASING_STATUSES = Set.of(
+            ReservationStatus.CANCELED,
+            ReservationStatus.RETURNED,
+            ReservationStatus.LATE_RETURNED
+    );
+
+    /**
+     * An open stream and the books it follows; no books means every book.
+     * Figures not yet written are kept per book, so a client that falls
+     * behind only ever receives the latest, and in order.
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> bookIds;
+        private final Map<Long, BookAvailability> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Set<Long> bookIds) {
+            this.emitter = emitter;
+            this.bookIds = bookIds;
+        }
+    }
+
+    private final BookRepository bookRepository;
+    private final long timeoutMillis;
+    private final int maxBookIds;
+
+    private final Set<Subscriber> everyBook = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> byBook = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventsSent = new AtomicLong();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BookAvailabilityFeed(BookRepository bookRepository,
+                                @Value("${library.availability.timeout-ms:1800000}") long timeoutMillis,
+                                @Value("${library.availability.max-book-ids:100}") int maxBookIds) {
+        this.bookRepository = bookRepository;
+        this.timeoutMillis = timeoutMillis;
+        this.maxBookIds = maxBookIds;
+    }
+
+    /**
+     * Opens a stream. When specific books are requested, their current
+     * availability is sent first.
+     *
+     * @param bookIds the books to follow, or empty for every book
+     * @return the stream, completed by the client or after the timeout
+     */
+    public SseEmitter subscribe(Collection<Long> bookIds) {
+        if (bookIds.size() > maxBookIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxBookIds + " book IDs per stream");
+        }
+
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), Set.copyOf(bookIds));
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(e -> unsubscribe(subscriber));
+
+        if (subscriber.bookIds.isEmpty()) {
+            everyBook.add(subscriber);
+        } else {
+            for (Long bookId : subscriber.bookIds) {
+                byBook.compute(bookId, (id, subscribers) -> {
+                    Set<Subscriber> following = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+                    following.add(subscriber);
+                    return following;
+                });
+            }
+            enqueue(subscriber, lookup(subscriber.bookIds));
+        }
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        if (event.isNewReservation() || RELEASING_STATUSES.contains(event.to())) {
+            dirty.add(event.bookId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        dirty.add(event.bookId());
+    }
+
+    /**
+     * Sends the latest availability of every book changed since the last
+     * flush to the subscribers following it.
+     */
+    @Scheduled(fixedDelayString = "${library.availability.coalesce-ms:250}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> changed = new ArrayList<>(dirty);
+        dirty.removeAll(changed);
+
+        if (everyBook.isEmpty()) {
+            changed.removeIf(bookId -> !byBook.containsKey(bookId));
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        List<BookAvailability> availability = lookup(changed);
+        Map<Subscriber, List<BookAvailability>> outbox = new HashMap<>();
+        for (BookAvailability book : availability) {
+            for (Subscriber subscriber : byBook.getOrDefault(book.getBookId(), Set.of())) {
+                outbox.computeIfAbsent(subscriber, s -> new ArrayList<>()).add(book);
+            }
+        }
+        for (Subscriber subscriber : everyBook) {
+            outbox.put(subscriber, availability);
+        }
+
+        outbox.forEach(this::enqueue);
+    }
+
+    /**
+     * Keeps idle streams open and finds the ones whose client is gone.
+     */
+    @Scheduled(fixedDelayString = "${library.availability.heartbeat-ms:30000}")
+    public void heartbeat() {
+        forEachSubscriber(subscriber -> senders.execute(() -> {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(subscriber);
+            }
+        }));
+    }
+
+    /**
+     * @return the number of open streams
+     */
+    public int getSubscriberCount() {
+        Set<Subscriber> all = ConcurrentHashMap.newKeySet();
+        forEachSubscriber(all::add);
+        return all.size();
+    }
+
+    /**
+     * @return the number of availability events sent since startup
+     */
+    public long getEventsSent() {
+        return eventsSent.get();
+    }
+
+    @PreDestroy
+    void close() {
+        forEachSubscriber(subscriber -> subscriber.emitter.complete());
+        senders.shutdown();
+    }
+
+    private List<BookAvailability> lookup(Collection<Long> bookIds) {
+        Map<Long, BookAvailability> found = new HashMap<>();
+        List<Long> ids = new ArrayList<>(bookIds);
+        for (int from = 0; from < ids.size(); from += LOOKUP_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, ids.size()));
+            bookRepository.findAvailabilityByIdIn(batch).forEach(book -> found.put(book.getBookId(), book));
+        }
+
+        List<BookAvailability> availability = new ArrayList<>(ids.size());
+        for (Long bookId : ids) {
+            availability.add(found.getOrDefault(bookId, new BookAvailability(bookId, 0, 0)));
+        }
+        return availability;
+    }
+
+    /**
+     * Queues figures for a subscriber and starts a virtual thread to write
+     * them unless one is already doing so.
+     */
+    private void enqueue(Subscriber subscriber, List<BookAvailability> batch) {
+        batch.forEach(book -> subscriber.pending.put(book.getBookId(), book));
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            try {
+                for (Long bookId : List.copyOf(subscriber.pending.keySet())) {
+                    BookAvailability book = subscriber.pending.remove(bookId);
+                    if (book != null) {
+                        subscriber.emitter.send(SseEmitter.event()
+                                .name(EVENT_NAME)
+                                .data(book, MediaType.APPLICATION_JSON));
+                        eventsSent.incrementAndGet();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping availability subscriber", e);
+                unsubscribe(subscriber);
+                subscriber.pending.clear();
+            } finally {
+                subscriber.draining.set(false);
+            }
+            // Picks up figures queued after the last pass but before the flag was cleared.
+        } while (!subscriber.pending.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscriber.bookIds.isEmpty()) {
+            everyBook.remove(subscriber);
+            return;
+        }
+        for (Long bookId : subscriber.bookIds) {
+            byBook.computeIfPresent(bookId, (id, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+    }
+
+    private void forEachSubscriber(Consumer<Subscriber> action) {
+        everyBook.forEach(action);
+        Set<Subscriber> seen = new HashSet<>();
+        byBook.values().forEach(subscribers -> subscribers.forEach(subscriber -> {
+            if (seen.add(subscriber)) {
+                action.accept(subscriber);
+            }
+        }));
+    }
+}
@@ -0,0 +1,61 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.config.CacheConfig;
+import com.finalproject.library_management_system_backend.events.BookChangedEvent;
+import com.finalproject.library_management_system_backend.events.ReservationStatusChangedEvent;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+
+/**
+ * Evicts cached book details whenever a book or its availability changes.
+ * <p>
+ * Evictions run after the change commits. A lookup that read the old row
+ * before the commit cannot leave it behind: the cache blocks the eviction
+ * until that in-flight load has finished and then removes its result.
+ * <p>
+ * Evictions are local: the cache lives in this instance's memory and only
+ * changes made through this instance reach it. With several instances
+ * behind a load balancer, a change made elsewhere is picked up only when
+ * the entry expires, so {@code library.cache.books.ttl} (30 seconds by
+ * default) is the bound on how stale a book's details and available
+ * copies can be. Running more than one instance with a long TTL needs a
+ * shared cache or a broadcast of these evictions.
+ */
+@Component
+public class BookCacheInvalidator {
+
+    /**
+     * Transitions that give a copy back to the shelf; new reservations
+     * take one.
+     */
+    static final Set<ReservationStatus> RELEASING_STATUSES = Set.of(
+            ReservationStatus.CANCELED,
+            ReservationStatus.RETURNED,
+            ReservationStatus.LATE_RETURNED
+    );
+
+    private final Cache books;
+
+    public BookCacheInvalidator(CacheManager cacheManager) {
+        this.books = cacheManager.getCache(CacheConfig.BOOKS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.type() != BookChangedEvent.Type.CREATED) {
+            books.evict(event.bookId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        if (event.isNewReservation() || RELEASING_STATUSES.contains(event.to())) {
+            books.evict(event.bookId());
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finalproject.library_management_system_backend.dtos.BookDto;
+import com.finalproject.library_management_system_backend.dtos.BookImportReport;
+import com.finalproject.library_management_system_backend.dtos.CreateBookRequest;
+import com.finalproject.library_management_system_backend.events.BookChangedEvent;
+import com.finalproject.library_management_system_backend.mappers.BookMapper;
+import com.finalproject.library_management_system_backend.model.Book;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports books in bulk from a CSV or NDJSON stream.
+ * <p>
+ * The upload is read line by line and never held in memory as a whole.
+ * Each row is validated on its own; valid rows are inserted in batches,
+ * one transaction per batch, using JDBC batching (book IDs come from a
+ * pooled table generator, so Hibernate does not need a round trip per
+ * row to learn them). Invalid rows are skipped and listed in the report
+ * with their line number. If the database rejects a batch, its rows are
+ * retried one transaction each, so only the rows it refuses are reported.
+ */
+@Slf4j
+@Service
+public class BookImportService {
+
+    /**
+     * The report lists at most this many failed rows; the rest are only counted.
+     */
+    static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private record PendingRow(long line, CreateBookRequest request) {
+    }
+
+    private interface RowParser {
+        CreateBookRequest parse(String line) throws JsonProcessingException;
+    }
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final BookMapper bookMapper;
+    private final ObjectMapper objectMapper;
+    private final LibraryStatsService libraryStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public BookImportService(EntityManager entityManager,
+                             TransactionTemplate transactionTemplate,
+                             BookMapper bookMapper,
+                             ObjectMapper objectMapper,
+                             LibraryStatsService libraryStatsService,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${library.import.batch-size:1000}") int batchSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.bookMapper = bookMapper;
+        this.objectMapper = objectMapper;
+        this.libraryStatsService = libraryStatsService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads books from {@code input} and inserts every valid row.
+     * <p>
+     * CSV input needs a header row naming the columns {@code title},
+     * {@code author}, {@code publicationYear}, {@code totalCopies} and
+     * optionally {@code pictureUrl}, in any order. NDJSON input has one
+     * {@link CreateBookRequest} object per line. As with single creation,
+     * every imported book starts with all its copies available.
+     *
+     * @param input  the upload; read to the end but not closed
+     * @param format how each line is encoded
+     * @return counts of read, imported and failed rows, and the failures
+     * @throws ResponseStatusException if the CSV header is missing a required column
+     */
+    public BookImportReport importBooks(InputStream input, ImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        BookImportReport report = new BookImportReport();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        long lineNumber = 0;
+        RowParser parser;
+        if (format == ImportFormat.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                return finish(report, start);
+            }
+            parser = csvParser(header);
+        } else {
+            parser = line -> objectMapper.readValue(line, CreateBookRequest.class);
+        }
+
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            report.setRowsRead(report.getRowsRead() + 1);
+
+            try {
+                CreateBookRequest request = parser.parse(line);
+                validate(request);
+                batch.add(new PendingRow(lineNumber, request));
+            } catch (IllegalArgumentException e) {
+                fail(report, lineNumber, e.getMessage());
+            } catch (JsonProcessingException e) {
+                fail(report, lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            }
+
+            if (batch.size() == batchSize) {
+                insert(batch, report);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(batch, report);
+        }
+
+        return finish(report, start);
+    }
+
+    private void insert(List<PendingRow> batch, BookImportReport report) {
+        ImportRows.insert(batch,
+                rows -> report.setImported(report.getImported() + insertAll(rows)),
+                (row, reason) -> fail(report, row.line(), reason));
+    }
+
+    private int insertAll(List<PendingRow> batch) {
+        return transactionTemplate.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.setJdbcBatchSize(batchSize);
+            session.setCacheMode(CacheMode.IGNORE);
+
+            List<Book> books = new ArrayList<>(batch.size());
+            for (PendingRow row : batch) {
+                Book book = bookMapper.toEntity(row.request());
+                book.setAvailableCopies(book.getTotalCopies());
+                entityManager.persist(book);
+                books.add(book);
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            libraryStatsService.recordBooksCreated(books.size());
+            for (Book book : books) {
+                BookDto dto = bookMapper.toBookDto(book);
+                eventPublisher.publishEvent(BookChangedEvent.created(dto));
+            }
+            return books.size();
+        });
+    }
+
+    private BookImportReport finish(BookImportReport report, long start) {
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Imported {} of {} books in {} ms ({} failed)",
+                report.getImported(), report.getRowsRead(), report.getElapsedMillis(), report.getFailed());
+        return report;
+    }
+
+    private static void fail(BookImportReport report, long line, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new BookImportReport.RowError(line, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private static void validate(CreateBookRequest request) {
+        requireText("title", request.getTitle());
+        requireText("author", request.getAuthor());
+        if (request.getPublicationYear() == null) {
+            throw new IllegalArgumentException("publicationYear is required");
+        }
+        if (request.getTotalCopies() == null || request.getTotalCopies() < 0) {
+            throw new IllegalArgumentException("totalCopies must be zero or more");
+        }
+        if (request.getPictureUrl() != null && request.getPictureUrl().length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("pictureUrl is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+    }
+
+    private static void requireText(String field, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        if (value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(field + " is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * Builds a parser for the data rows from the header row.
+     */
+    private static RowParser csvParser(String header) {
+        ImportRows.CsvColumns columns = ImportRows.csvColumns(header,
+                List.of("title", "author", "publicationYear", "totalCopies"));
+
+        return line -> {
+            List<String> fields = columns.split(line);
+            CreateBookRequest request = new CreateBookRequest();
+            request.setTitle(columns.text(fields, "title"));
+            request.setAuthor(columns.text(fields, "author"));
+            request.setPublicationYear(number(columns.text(fields, "publicationYear"), "publicationYear"));
+            request.setTotalCopies(number(columns.text(fields, "totalCopies"), "totalCopies"));
+            request.setPictureUrl(columns.text(fields, "pictureUrl"));
+            return request;
+        };
+    }
+
+    private static Integer number(String value, String name) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number");
+        }
+    }
+}
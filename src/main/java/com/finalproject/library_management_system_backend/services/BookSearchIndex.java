@@ -0,0 +1,239 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.BookDto;
+import com.finalproject.library_management_system_backend.dtos.BookSearchHit;
+import com.finalproject.library_management_system_backend.dtos.SearchPage;
+import com.finalproject.library_management_system_backend.events.BookChangedEvent;
+import com.finalproject.library_management_system_backend.mappers.BookMapper;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over book titles and authors.
+ * <p>
+ * Terms are kept in sorted maps so every query term also matches as a
+ * prefix ("tolk" finds "Tolkien"). A book must match every query term;
+ * hits are ranked by where and how each term matched, with exact title
+ * matches scoring highest. The index is loaded once at startup and then
+ * kept current from {@link BookChangedEvent}s, so searches never reach
+ * the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndex {
+
+    static final int TITLE_EXACT = 4;
+    static final int TITLE_PREFIX = 2;
+    static final int AUTHOR_EXACT = 3;
+    static final int AUTHOR_PREFIX = 1;
+
+    private static final int LOAD_BATCH_SIZE = 1_000;
+
+    private static final Comparator<BookSearchHit> RANKING = Comparator.comparingInt(BookSearchHit::getScore).reversed()
+            .thenComparing(BookSearchHit::getTitle, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(BookSearchHit::getId);
+
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, BookDto> documents = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> titleTerms = new TreeMap<>();
+    private final NavigableMap<String, Set<Long>> authorTerms = new TreeMap<>();
+
+    /**
+     * Loads every book into the index, reading the table in ID order in
+     * bounded batches.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        ScrollPosition position = ScrollPosition.keyset();
+        int loaded = 0;
+
+        Window<Book> window;
+        do {
+            window = bookRepository.findAllBy(position, Sort.by("id"), Limit.of(LOAD_BATCH_SIZE));
+            window.forEach(book -> index(bookMapper.toBookDto(book)));
+            loaded += window.size();
+            if (!window.isEmpty()) {
+                position = window.positionAt(window.size() - 1);
+            }
+        } while (window.hasNext());
+
+        log.info("Indexed {} books for search in {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.type() == BookChangedEvent.Type.DELETED) {
+            remove(event.bookId());
+        } else {
+            index(event.book());
+        }
+    }
+
+    /**
+     * Adds a book, replacing any earlier version of it.
+     */
+    public void index(BookDto book) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(book.getId());
+            documents.put(book.getId(), book);
+            addTerms(titleTerms, book.getTitle(), book.getId());
+            addTerms(authorTerms, book.getAuthor(), book.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds books whose title or author matches every term of the query.
+     *
+     * @param query free text; each word matches whole words and prefixes
+     * @param page  zero-based page number
+     * @param size  number of hits per page
+     * @return the requested page of ranked hits and the total hit count
+     */
+    public SearchPage<BookSearchHit> search(String query, int page, int size) {
+        List<String> terms = TextTokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return new SearchPage<>(List.of(), page, size, 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String term : terms) {
+                Map<Long, Integer> termScores = new HashMap<>();
+                score(titleTerms, term, TITLE_EXACT, TITLE_PREFIX, termScores);
+                score(authorTerms, term, AUTHOR_EXACT, AUTHOR_PREFIX, termScores);
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, total) -> total + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            List<BookSearchHit> ranked = top(scores, (long) page * size + size);
+            List<BookSearchHit> items = ranked.subList((int) Math.min((long) page * size, ranked.size()), ranked.size());
+
+            return new SearchPage<>(items, page, size, scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks only the best {@code limit} matches, keeping them in a heap
+     * whose head is the weakest, so a page costs one pass over the matches
+     * rather than a sort of all of them.
+     */
+    private List<BookSearchHit> top(Map<Long, Integer> scores, long limit) {
+        int k = (int) Math.min(limit, scores.size());
+        if (k == 0) {
+            return List.of();
+        }
+        PriorityQueue<BookSearchHit> top = new PriorityQueue<>(k, RANKING.reversed());
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            BookSearchHit weakest = top.peek();
+            if (top.size() == k && entry.getValue() < weakest.getScore()) {
+                continue;
+            }
+            BookSearchHit hit = toHit(documents.get(entry.getKey()), entry.getValue());
+            if (top.size() < k) {
+                top.add(hit);
+            } else if (RANKING.compare(hit, weakest) < 0) {
+                top.poll();
+                top.add(hit);
+            }
+        }
+        List<BookSearchHit> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return ranked;
+    }
+
+    private void score(NavigableMap<String, Set<Long>> terms, String term, int exact, int prefix,
+                       Map<Long, Integer> scores) {
+        terms.subMap(term, true, term + Character.MAX_VALUE, false).forEach((indexed, ids) -> {
+            int points = indexed.equals(term) ? exact : prefix;
+            ids.forEach(id -> scores.merge(id, points, Math::max));
+        });
+    }
+
+    private void removeLocked(Long bookId) {
+        BookDto existing = documents.remove(bookId);
+        if (existing != null) {
+            removeTerms(titleTerms, existing.getTitle(), bookId);
+            removeTerms(authorTerms, existing.getAuthor(), bookId);
+        }
+    }
+
+    private static void addTerms(Map<String, Set<Long>> terms, String text, Long bookId) {
+        for (String token : TextTokenizer.tokenize(text)) {
+            terms.computeIfAbsent(token, key -> new HashSet<>()).add(bookId);
+        }
+    }
+
+    private static void removeTerms(Map<String, Set<Long>> terms, String text, Long bookId) {
+        for (String token : TextTokenizer.tokenize(text)) {
+            Set<Long> ids = terms.get(token);
+            if (ids != null && ids.remove(bookId) && ids.isEmpty()) {
+                terms.remove(token);
+            }
+        }
+    }
+
+    private static BookSearchHit toHit(BookDto book, int score) {
+        return new BookSearchHit(book.getId(), book.getTitle(), book.getAuthor(),
+                book.getPublicationYear(), book.getPictureUrl(), score);
+    }
+}
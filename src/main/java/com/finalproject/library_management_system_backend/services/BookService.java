@@ -1,14 +1,23 @@
 package com.finalproject.library_management_system_backend.services;
 
 
+import com.finalproject.library_management_system_backend.config.CacheConfig;
 import com.finalproject.library_management_system_backend.dtos.BookDto;
+import com.finalproject.library_management_system_backend.dtos.BookSearchHit;
 import com.finalproject.library_management_system_backend.dtos.CreateBookRequest;
+import com.finalproject.library_management_system_backend.dtos.CursorPage;
+import com.finalproject.library_management_system_backend.dtos.SearchPage;
+import com.finalproject.library_management_system_backend.dtos.Suggestion;
+import com.finalproject.library_management_system_backend.events.BookChangedEvent;
 import com.finalproject.library_management_system_backend.mappers.BookMapper;
 import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.pagination.KeysetPaginator;
 import com.finalproject.library_management_system_backend.repositories.BookRepository;
-import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -16,22 +25,40 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Handles business logic for creating, retrieving, updating,
  * and deleting books in the library system.
  * <p>
- * Validates copy counts, manages availability updates, and ensures
- * reservations linked to a book are removed before deletion.
+ * Validates copy counts, manages availability updates, and hands
+ * deleted books to {@link DeletedRecordPurger} so their reservations
+ * are removed in the background.
  */
 
 @Service
 @AllArgsConstructor
 public class BookService {
 
+    private static final Map<String, Class<?>> SORT_KEYS = Map.of(
+            "id", Long.class,
+            "title", String.class,
+            "author", String.class,
+            "publicationYear", Integer.class
+    );
+
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
-    private final ReservationRepository reservationRepository;
     private final EntityManager entityManager;
+    private final KeysetPaginator keysetPaginator;
+    private final LibraryStatsService libraryStatsService;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookSuggester bookSuggester;
+    private final BookWaitlist bookWaitlist;
+    private final ReservationService reservationService;
+    private final ApplicationEventPublisher eventPublisher;
     /**
      * Creates a new book in the system.
      * <p>
@@ -47,17 +74,78 @@ public class BookService {
         var bookEntity = bookMapper.toEntity(request);
         bookEntity.setAvailableCopies(bookEntity.getTotalCopies());
         Book savedBook = bookRepository.save(bookEntity);
-        return bookMapper.toBookDto(savedBook);
+        libraryStatsService.recordBookCreated();
+
+        BookDto dto = bookMapper.toBookDto(savedBook);
+        eventPublisher.publishEvent(BookChangedEvent.created(dto));
+        return dto;
+    }
+
+        /**
+     * Retrieves one page of books ordered by an indexed sort key.
+     *
+     * @param sort   the field to sort by: id, title, author or publicationYear
+     * @param size   the maximum number of books to return
+     * @param cursor the cursor from the previous page, or {@code null} for the first page
+     * @return the page of books and the cursor for the next one
+     * @throws ResponseStatusException if the sort key or cursor is invalid
+     */
+
+    @Transactional(readOnly = true)
+    public CursorPage<BookDto> getBooks(String sort, Integer size, String cursor) {
+        Sort order = keysetPaginator.resolveSort(sort, SORT_KEYS);
+        var window = bookRepository.findAllBy(
+                keysetPaginator.decode(cursor, order, SORT_KEYS), order, keysetPaginator.resolveLimit(size));
+        return keysetPaginator.toPage(window, bookMapper::toBookDto);
+    }
+
+        /**
+     * Searches titles and authors using the in-memory index.
+     *
+     * @param query free text; every word must match a title or author word or prefix
+     * @param page  zero-based page number
+     * @param size  the maximum number of hits to return
+     * @return ranked hits for the requested page
+     * @throws ResponseStatusException if the page or size is invalid
+     */
+    public SearchPage<BookSearchHit> searchBooks(String query, Integer page, Integer size) {
+        int pageNumber = page == null ? 0 : page;
+        if (pageNumber < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page must not be negative");
+        }
+        return bookSearchIndex.search(query, pageNumber, keysetPaginator.resolveLimit(size).max());
+    }
+
+        /**
+     * Suggests titles and authors for a typeahead box from the in-memory
+     * suggestion trie, most borrowed first.
+     *
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of suggestions; defaults to 10
+     * @return matching titles and authors
+     * @throws ResponseStatusException if the limit is not positive
+     */
+    public List<Suggestion> suggestBooks(String prefix, Integer limit) {
+        int max = limit == null ? 10 : limit;
+        if (max <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be positive");
+        }
+        return bookSuggester.suggest(prefix, max);
     }
 
         /**
      * Retrieves a book by its ID.
+     * <p>
+     * Served from the {@link CacheConfig#BOOKS} cache when possible;
+     * {@link BookCacheInvalidator} evicts entries when a book or its
+     * available copies change.
      *
      * @param id the ID of the book to look up
      * @return the book as a DTO
      * @throws ResponseStatusException if the book does not exist
      */
 
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#id", sync = true)
     @Transactional(readOnly = true)
     public BookDto getBookById(Long id) {
         Book book = bookRepository.findById(id)
@@ -69,7 +157,10 @@ public class BookService {
      * Updates an existing book and recalculates available copies.
      * <p>
      * Prevents reducing the total number of copies below the number
-     * currently borrowed.
+     * currently borrowed. Added copies go to readers on the book's
+     * waitlist as new holds before any reach the shelf. The book's row
+     * stays locked until the update commits, so checkouts and returns wait
+     * rather than being overwritten.
      *
      * @param id      the ID of the book to update
      * @param request the updated book data
@@ -80,7 +171,7 @@ public class BookService {
 
     @Transactional
     public BookDto updateBook(Long id, CreateBookRequest request) {
-        Book book = bookRepository.findById(id)
+        Book book = bookRepository.findForUpdateById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Book not found"));
 
         int oldTotal = book.getTotalCopies();
@@ -93,6 +184,9 @@ public class BookService {
             throw new RuntimeException("Cannot reduce total copies. " + Math.abs(newAvailable) + " copies are currently borrowed and would be unaccounted for.");
         }
 
+        if (difference > 0) {
+            newAvailable -= reservationService.handOutAddedCopies(id, difference);
+        }
 
         book.setTitle(request.getTitle());
         book.setAuthor(request.getAuthor());
@@ -102,14 +196,18 @@ public class BookService {
         book.setAvailableCopies(newAvailable);
 
         Book savedBook = bookRepository.save(book);
-        return bookMapper.toBookDto(savedBook);
+
+        BookDto dto = bookMapper.toBookDto(savedBook);
+        eventPublisher.publishEvent(BookChangedEvent.updated(dto));
+        return dto;
     }
 
         /**
      * Deletes a book from the system.
      * <p>
-     * Any reservations for this book are deleted first to avoid
-     * orphaned records.
+     * The book is only flagged as deleted here, which hides it from every
+     * lookup at once, and its waitlist is emptied; {@link DeletedRecordPurger}
+     * removes the row and its reservations in the background.
      *
      * @param id the ID of the book to delete
      * @throws ResponseStatusException if the book does not exist
@@ -117,18 +215,12 @@ public class BookService {
 
     @Transactional
     public void deleteBook(Long id) {
-        if (!bookRepository.existsById(id)) {
+        if (bookRepository.markDeleted(id, LocalDateTime.now()) == 0) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found");
         }
 
-        var reservations = reservationRepository.findAll().stream()
-                .filter(r -> r.getBook().getId().equals(id))
-                .toList();
-
-        if (!reservations.isEmpty()) {
-            reservationRepository.deleteAll(reservations);
-        }
-
-        bookRepository.deleteById(id);
+        bookWaitlist.dropBook(id);
+        libraryStatsService.recordBookDeleted();
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id));
     }
 }
@@ -0,0 +1,290 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.BookDto;
+import com.finalproject.library_management_system_backend.dtos.Suggestion;
+import com.finalproject.library_management_system_backend.events.BookChangedEvent;
+import com.finalproject.library_management_system_backend.events.ReservationStatusChangedEvent;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationArchiveRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead suggestions for book titles and authors, ranked by how often
+ * the books have been borrowed.
+ * <p>
+ * Each distinct title and author is one entry in a {@link SuggestionTrie},
+ * stored under its full text and under every later word, so "hob" finds
+ * "The Hobbit" and "tolk" finds "J.R.R. Tolkien". Books sharing a title or
+ * author add their borrow counts to the same entry. The trie is loaded at
+ * startup and then kept current from {@link BookChangedEvent}s and
+ * {@link ReservationStatusChangedEvent}s, so lookups never reach the database.
+ */
+@Slf4j
+@Component
+public class BookSuggester {
+
+    /**
+     * Statuses a reservation can only reach after the book was collected.
+     */
+    static final Set<ReservationStatus> BORROWED_STATUSES = Set.of(
+            ReservationStatus.BORROWED,
+            ReservationStatus.OVERDUE,
+            ReservationStatus.RETURNED,
+            ReservationStatus.LATE_RETURNED
+    );
+
+    private static final int LOAD_BATCH_SIZE = 1_000;
+
+    private record Key(Suggestion.Type type, String text) {
+    }
+
+    private static final class Shared {
+        final SuggestionTrie.Entry entry;
+        final List<String> keys;
+        int books;
+
+        Shared(SuggestionTrie.Entry entry, List<String> keys) {
+            this.entry = entry;
+            this.keys = keys;
+        }
+    }
+
+    private record IndexedBook(Key title, Key author, long borrowCount) {
+    }
+
+    private final BookRepository bookRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationArchiveRepository reservationArchiveRepository;
+    private final int maxSuggestions;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SuggestionTrie trie;
+    private final Map<Key, Shared> entries = new HashMap<>();
+    private final Map<Long, IndexedBook> books = new HashMap<>();
+
+    public BookSuggester(BookRepository bookRepository,
+                         ReservationRepository reservationRepository,
+                         ReservationArchiveRepository reservationArchiveRepository,
+                         @Value("${library.suggest.max-results:10}") int maxSuggestions) {
+        this.bookRepository = bookRepository;
+        this.reservationRepository = reservationRepository;
+        this.reservationArchiveRepository = reservationArchiveRepository;
+        this.maxSuggestions = maxSuggestions;
+        this.trie = new SuggestionTrie(maxSuggestions);
+    }
+
+    /**
+     * Loads every book and its borrow count, reading the book table in ID
+     * order in bounded batches.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        Map<Long, Long> borrowCounts = new HashMap<>();
+        reservationRepository.countByBookAndStatusIn(BORROWED_STATUSES)
+                .forEach(row -> borrowCounts.merge(row.getBookId(), row.getCount(), Long::sum));
+        reservationArchiveRepository.countByBookAndStatusIn(BORROWED_STATUSES)
+                .forEach(row -> borrowCounts.merge(row.getBookId(), row.getCount(), Long::sum));
+
+        ScrollPosition position = ScrollPosition.keyset();
+        int loaded = 0;
+
+        Window<Book> window;
+        do {
+            window = bookRepository.findAllBy(position, Sort.by("id"), Limit.of(LOAD_BATCH_SIZE));
+            for (Book book : window) {
+                put(book.getId(), book.getTitle(), book.getAuthor(), borrowCounts.getOrDefault(book.getId(), 0L));
+            }
+            loaded += window.size();
+            if (!window.isEmpty()) {
+                position = window.positionAt(window.size() - 1);
+            }
+        } while (window.hasNext());
+
+        log.info("Loaded {} books for suggestions in {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.type() == BookChangedEvent.Type.DELETED) {
+            remove(event.bookId());
+        } else {
+            BookDto book = event.book();
+            put(book.getId(), book.getTitle(), book.getAuthor(), null);
+        }
+    }
+
+    /**
+     * Counts a borrow when a reserved book is collected.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        if (event.from() == ReservationStatus.RESERVED && event.to() == ReservationStatus.BORROWED) {
+            recordBorrow(event.bookId());
+        }
+    }
+
+    /**
+     * Adds or replaces a book.
+     *
+     * @param borrowCount the book's borrow count, or {@code null} to keep the current one
+     */
+    public void put(Long bookId, String title, String author, Long borrowCount) {
+        lock.writeLock().lock();
+        try {
+            IndexedBook previous = removeLocked(bookId);
+            long count = borrowCount != null ? borrowCount : previous != null ? previous.borrowCount() : 0;
+
+            IndexedBook book = new IndexedBook(
+                    attach(Suggestion.Type.TITLE, title, count),
+                    attach(Suggestion.Type.AUTHOR, author, count),
+                    count);
+            books.put(bookId, book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void recordBorrow(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            IndexedBook book = books.get(bookId);
+            if (book == null) {
+                return;
+            }
+            books.put(bookId, new IndexedBook(book.title(), book.author(), book.borrowCount() + 1));
+            reweigh(book.title(), 1);
+            reweigh(book.author(), 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of suggestions, capped at the configured maximum
+     * @return titles and authors starting with the prefix (or with a word
+     *         starting with it), most borrowed first
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = toKey(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return trie.complete(key).stream()
+                    .limit(Math.min(limit, maxSuggestions))
+                    .map(entry -> new Suggestion(entry.getText(), entry.getType(), entry.getWeight()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Key attach(Suggestion.Type type, String text, long borrowCount) {
+        String normalized = toKey(text);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+
+        Key key = new Key(type, normalized);
+        Shared shared = entries.get(key);
+        if (shared == null) {
+            shared = new Shared(new SuggestionTrie.Entry(text.trim(), type, borrowCount), wordStarts(normalized));
+            entries.put(key, shared);
+            for (String word : shared.keys) {
+                trie.add(word, shared.entry);
+            }
+        } else {
+            reweigh(key, borrowCount);
+        }
+        shared.books++;
+        return key;
+    }
+
+    private IndexedBook removeLocked(Long bookId) {
+        IndexedBook book = books.remove(bookId);
+        if (book != null) {
+            detach(book.title(), book.borrowCount());
+            detach(book.author(), book.borrowCount());
+        }
+        return book;
+    }
+
+    private void detach(Key key, long borrowCount) {
+        if (key == null) {
+            return;
+        }
+        Shared shared = entries.get(key);
+        if (--shared.books == 0) {
+            entries.remove(key);
+            for (String word : shared.keys) {
+                trie.remove(word, shared.entry);
+            }
+        } else {
+            reweigh(key, -borrowCount);
+        }
+    }
+
+    private void reweigh(Key key, long delta) {
+        if (key == null || delta == 0) {
+            return;
+        }
+        Shared shared = entries.get(key);
+        shared.entry.setWeight(shared.entry.getWeight() + delta);
+        for (String word : shared.keys) {
+            if (delta > 0) {
+                trie.raise(word, shared.entry);
+            } else {
+                trie.refresh(word);
+            }
+        }
+    }
+
+    private static String toKey(String text) {
+        return String.join(" ", TextTokenizer.tokenize(text));
+    }
+
+    /**
+     * @return the text itself and every suffix of it that starts at a word boundary
+     */
+    private static List<String> wordStarts(String key) {
+        Set<String> starts = new HashSet<>();
+        starts.add(key);
+        for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+            starts.add(key.substring(i + 1));
+        }
+        return List.copyOf(starts);
+    }
+}
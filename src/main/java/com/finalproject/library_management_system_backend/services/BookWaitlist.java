@@ -0,0 +1,314 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.WaitlistPosition;
+import com.finalproject.library_management_system_backend.model.WaitlistEntry;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.WaitlistRepository;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * First come, first served waitlist per book, for readers who found no
+ * copy left.
+ * <p>
+ * The {@code book_waitlist} table is the record. Joining a waitlist and
+ * releasing a copy both lock the book's row first, so a reader can never
+ * join after a return has looked for waiters but before the copy is back
+ * on the shelf, and a freed copy always goes to the oldest entry in the
+ * table.
+ * <p>
+ * Positions are answered from queues kept in memory, loaded at startup
+ * and changed only once the surrounding transaction commits. They follow
+ * the changes made by this instance only: with several instances, a
+ * reader's position may lag joins, departures and claims made elsewhere
+ * until the next restart.
+ * <p>
+ * Deleting a book or a reader removes their entries in the same
+ * transaction, so a freed copy is never held for a deleted account.
+ */
+@Slf4j
+@Service
+public class BookWaitlist {
+
+    /**
+     * A reader waiting for a book.
+     *
+     * @param entryId the {@code book_waitlist} row
+     * @param userId  the reader
+     */
+    public record Waiter(Long entryId, Long userId) {
+    }
+
+    private static final int LOAD_BATCH_SIZE = 1_000;
+
+    private final WaitlistRepository waitlistRepository;
+    private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Per book, waiters by user ID in arrival order.
+    private final Map<Long, LinkedHashMap<Long, Waiter>> queues = new HashMap<>();
+
+    public BookWaitlist(WaitlistRepository waitlistRepository,
+                        BookRepository bookRepository,
+                        UserRepository userRepository) {
+        this.waitlistRepository = waitlistRepository;
+        this.bookRepository = bookRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Loads every waiting reader, walking the table in ID order.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        int loaded = 0;
+        while (true) {
+            List<WaitlistRepository.Waiter> waiters = waitlistRepository.findWaiters(afterId, Limit.of(LOAD_BATCH_SIZE));
+            for (WaitlistRepository.Waiter waiter : waiters) {
+                add(waiter.getBookId(), new Waiter(waiter.getId(), waiter.getUserId()));
+            }
+            loaded += waiters.size();
+            if (waiters.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+            afterId = waiters.get(waiters.size() - 1).getId();
+        }
+        log.info("Loaded {} waitlist entries", loaded);
+    }
+
+    /**
+     * Puts a reader at the end of a book's waitlist. Only books with no
+     * copy left can be waited for.
+     *
+     * @param bookId the book to wait for
+     * @param reader the authenticated reader
+     * @return the reader's place in the queue
+     */
+    @Transactional
+    public WaitlistPosition join(Long bookId, AuthenticatedUser reader) {
+        int availableCopies = bookRepository.lockAvailableCopies(bookId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found"));
+        if (availableCopies > 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Copies are available; reserve one instead");
+        }
+
+        WaitlistEntry entry;
+        try {
+            entry = waitlistRepository.save(WaitlistEntry.builder()
+                    .book(bookRepository.getReferenceById(bookId))
+                    .user(userRepository.getReferenceById(reader.id()))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Already on the waitlist for this book");
+        }
+
+        Waiter waiter = new Waiter(entry.getId(), reader.id());
+        afterCommit(() -> add(bookId, waiter));
+
+        int waiting = waiting(bookId) + 1;
+        return WaitlistPosition.builder()
+                .bookId(bookId)
+                .position(waiting)
+                .waiting(waiting)
+                .build();
+    }
+
+    /**
+     * Takes a reader off a book's waitlist.
+     *
+     * @param bookId the book they were waiting for
+     * @param userId the reader
+     */
+    @Transactional
+    public void leave(Long bookId, Long userId) {
+        if (waitlistRepository.deleteByBookIdAndUserId(bookId, userId) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not on the waitlist for this book");
+        }
+        afterCommit(() -> remove(bookId, userId, null));
+    }
+
+    /**
+     * Takes a deleted reader off every waitlist, as part of the caller's
+     * transaction.
+     *
+     * @param userId the reader
+     */
+    public void dropUser(Long userId) {
+        if (waitlistRepository.deleteByUserId(userId) > 0) {
+            afterCommit(() -> removeUser(userId));
+        }
+    }
+
+    /**
+     * Empties a deleted book's waitlist, as part of the caller's transaction.
+     *
+     * @param bookId the book
+     */
+    public void dropBook(Long bookId) {
+        if (waitlistRepository.deleteByBookId(bookId) > 0) {
+            afterCommit(() -> removeQueue(bookId));
+        }
+    }
+
+    /**
+     * Answered from memory.
+     *
+     * @return the reader's place in the book's queue
+     */
+    public WaitlistPosition getPosition(Long bookId, Long userId) {
+        lock.readLock().lock();
+        try {
+            LinkedHashMap<Long, Waiter> queue = queues.get(bookId);
+            int position = 0;
+            if (queue != null) {
+                for (Long waiting : queue.keySet()) {
+                    position++;
+                    if (waiting.equals(userId)) {
+                        return WaitlistPosition.builder()
+                                .bookId(bookId)
+                                .position(position)
+                                .waiting(queue.size())
+                                .build();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not on the waitlist for this book");
+    }
+
+    /**
+     * Removes the longest-waiting reader of a book from the waitlist, as
+     * part of the caller's transaction, which must then give them the
+     * freed copy or put it back on the shelf. The book's row stays locked
+     * until that transaction ends.
+     *
+     * @return the reader, or {@code null} if nobody is waiting
+     */
+    public Waiter claimNext(Long bookId) {
+        List<Waiter> claimed = claimNext(bookId, 1);
+        return claimed.isEmpty() ? null : claimed.get(0);
+    }
+
+    /**
+     * Removes up to {@code copies} of a book's longest-waiting readers from
+     * the waitlist, in order, as {@link #claimNext(Long)} does for one.
+     *
+     * @return the readers, possibly fewer than {@code copies} or none
+     */
+    public List<Waiter> claimNext(Long bookId, int copies) {
+        bookRepository.lockAvailableCopies(bookId);
+        List<Waiter> claimed = waitlistRepository.lockHead(bookId, Limit.of(copies)).stream()
+                .map(waiter -> new Waiter(waiter.getId(), waiter.getUserId()))
+                .toList();
+        if (claimed.isEmpty()) {
+            return claimed;
+        }
+        waitlistRepository.deleteEntries(claimed.stream().map(Waiter::entryId).toList());
+        afterCommit(() -> claimed.forEach(waiter -> remove(bookId, waiter.userId(), waiter.entryId())));
+        return claimed;
+    }
+
+    private int waiting(Long bookId) {
+        lock.readLock().lock();
+        try {
+            LinkedHashMap<Long, Waiter> queue = queues.get(bookId);
+            return queue == null ? 0 : queue.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long bookId, Waiter waiter) {
+        lock.writeLock().lock();
+        try {
+            LinkedHashMap<Long, Waiter> queue = queues.computeIfAbsent(bookId, id -> new LinkedHashMap<>());
+            Waiter known = queue.get(waiter.userId());
+            if (known == null || !known.entryId().equals(waiter.entryId())) {
+                // A rejoin after a departure this instance did not see goes to the back.
+                queue.remove(waiter.userId());
+                queue.put(waiter.userId(), waiter);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a reader's entry; if {@code entryId} is given, only that
+     * entry, so a reader who has since rejoined keeps their new place.
+     */
+    private void remove(Long bookId, Long userId, Long entryId) {
+        lock.writeLock().lock();
+        try {
+            LinkedHashMap<Long, Waiter> queue = queues.get(bookId);
+            if (queue == null) {
+                return;
+            }
+            Waiter waiter = queue.get(userId);
+            if (waiter != null && (entryId == null || waiter.entryId().equals(entryId))) {
+                queue.remove(userId);
+            }
+            if (queue.isEmpty()) {
+                queues.remove(bookId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeUser(Long userId) {
+        lock.writeLock().lock();
+        try {
+            queues.values().forEach(queue -> queue.remove(userId));
+            queues.values().removeIf(Map::isEmpty);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeQueue(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            queues.remove(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
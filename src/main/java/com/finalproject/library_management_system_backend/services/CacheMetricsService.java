@@ -0,0 +1,46 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.CacheStatistics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reports size and hit/miss figures for the application caches.
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheMetricsService {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * @return one entry per cache, in name order
+     */
+    public List<CacheStatistics> getCacheStatistics() {
+        return cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .filter(cache -> cache.getNativeCache() instanceof Cache<?, ?>)
+                .map(cache -> toStatistics(cache.getName(), (Cache<?, ?>) cache.getNativeCache()))
+                .toList();
+    }
+
+    private static CacheStatistics toStatistics(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return CacheStatistics.builder()
+                .name(name)
+                .size(cache.estimatedSize())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictions(stats.evictionCount())
+                .build();
+    }
+}
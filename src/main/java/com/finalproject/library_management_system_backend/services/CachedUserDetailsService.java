@@ -0,0 +1,71 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.config.CacheConfig;
+import com.finalproject.library_management_system_backend.events.UserChangedEvent;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.security.UserAccount;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Looks users up by email for authentication and "who am I" requests,
+ * keeping recently seen users in the bounded, TTL-limited
+ * {@link CacheConfig#USERS} cache. Entries are immutable
+ * {@link UserAccount} copies, never managed entities, so a cached user
+ * cannot change under a request that is reading it.
+ * <p>
+ * Entries are evicted after a user is created or deleted commits; the
+ * TTL bounds how long any other change can go unnoticed. Unknown emails
+ * are never cached.
+ * <p>
+ * Also stores the new hash when a login upgrades a user's password to
+ * the current BCrypt strength.
+ * <p>
+ * Not a {@code UserDetailsService} bean on purpose; the authentication
+ * provider in {@code ApplicationConfig} is handed these methods directly.
+ */
+@Service
+public class CachedUserDetailsService {
+
+    private final UserRepository userRepository;
+    private final Cache users;
+
+    public CachedUserDetailsService(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.users = cacheManager.getCache(CacheConfig.USERS);
+    }
+
+    /**
+     * @param email the user's email
+     * @return a copy of the user's login details
+     * @throws UsernameNotFoundException if no user has this email
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#email", sync = true)
+    public UserAccount loadUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .map(UserAccount::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+
+    /**
+     * Saves a rehashed password and drops the cached copy of the user.
+     *
+     * @return a copy of the user with the new hash
+     */
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        UserAccount account = (UserAccount) userDetails;
+        userRepository.updatePassword(account.id(), newPassword);
+        users.evict(account.email());
+        return account.withPassword(newPassword);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        users.evict(event.email());
+    }
+}
@@ -0,0 +1,171 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.PurgeStatus;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationArchiveRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Removes books and users that were soft-deleted, together with their
+ * reservations, archived ones included.
+ * <p>
+ * Deleting a book or user only stamps {@code deleted_at}, which hides the
+ * row from every entity query straight away. This purger then walks the
+ * dependent reservation IDs in bounded chunks and removes each chunk with
+ * one bulk DELETE in its own short transaction, and finally deletes the
+ * row itself, so no single transaction locks a large part of the
+ * reservation table. A row that cannot be removed yet (for example a
+ * reservation slipped in while the purge was running) keeps its flag and
+ * is retried on the next run.
+ */
+@Slf4j
+@Service
+public class DeletedRecordPurger {
+
+    private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationArchiveRepository reservationArchiveRepository;
+    private final LibraryStatsService libraryStatsService;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile PurgeStatus lastStatus = new PurgeStatus();
+
+    public DeletedRecordPurger(BookRepository bookRepository,
+                               UserRepository userRepository,
+                               ReservationRepository reservationRepository,
+                               ReservationArchiveRepository reservationArchiveRepository,
+                               LibraryStatsService libraryStatsService,
+                               @Value("${library.purge.chunk-size:500}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        this.userRepository = userRepository;
+        this.reservationRepository = reservationRepository;
+        this.reservationArchiveRepository = reservationArchiveRepository;
+        this.libraryStatsService = libraryStatsService;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Runs shortly after startup, which also finishes any purge that was
+     * interrupted, and then at a fixed delay.
+     */
+    @Scheduled(initialDelayString = "${library.purge.initial-delay-ms:30000}",
+            fixedDelayString = "${library.purge.interval-ms:60000}")
+    public void purgeDeletedRecords() {
+        purge();
+    }
+
+    /**
+     * Purges every soft-deleted book and user. Does nothing if another
+     * purge is already running in this process.
+     *
+     * @return the progress of this run
+     */
+    public PurgeStatus purge() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Purge already running, skipping");
+            return lastStatus;
+        }
+
+        lastStatus = PurgeStatus.builder()
+                .running(true)
+                .startedAt(LocalDateTime.now())
+                .build();
+
+        try {
+            long books = purgeAll(bookRepository::findDeletedIds, reservationRepository::findIdsByBookId,
+                    reservationArchiveRepository::findIdsByBookId, bookRepository::purgeDeleted, "book");
+            lastStatus = lastStatus.toBuilder().booksPurged(books).build();
+
+            long users = purgeAll(userRepository::findDeletedIds, reservationRepository::findIdsByUserId,
+                    reservationArchiveRepository::findIdsByUserId, userRepository::purgeDeleted, "user");
+            lastStatus = lastStatus.toBuilder().usersPurged(users).build();
+        } finally {
+            lastStatus = lastStatus.toBuilder()
+                    .running(false)
+                    .finishedAt(LocalDateTime.now())
+                    .build();
+            running.set(false);
+        }
+
+        PurgeStatus status = lastStatus;
+        if (status.getBooksPurged() + status.getUsersPurged() + status.getReservationsDeleted() > 0) {
+            libraryStatsService.reconcile();
+            log.info("Purged {} books, {} users and {} reservations in {} chunks", status.getBooksPurged(),
+                    status.getUsersPurged(), status.getReservationsDeleted(), status.getChunks());
+        }
+        return status;
+    }
+
+    /**
+     * @return the progress of the current run, or the result of the last one
+     */
+    public PurgeStatus getStatus() {
+        return lastStatus;
+    }
+
+    /**
+     * Walks the soft-deleted IDs of one table in ID order and purges each.
+     *
+     * @return the number of rows removed
+     */
+    private long purgeAll(BiFunction<Long, Integer, List<Long>> findDeletedIds,
+                          BiFunction<Long, Limit, List<Long>> findReservationIds,
+                          BiFunction<Long, Limit, List<Long>> findArchivedIds,
+                          Function<Long, Integer> purgeRow,
+                          String kind) {
+        long purged = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = findDeletedIds.apply(afterId, chunkSize);
+            for (Long id : ids) {
+                deleteReservations(id, findReservationIds, reservationRepository::deleteByIdIn);
+                deleteReservations(id, findArchivedIds, reservationArchiveRepository::deleteByIdIn);
+                try {
+                    purged += purgeRow.apply(id);
+                } catch (DataIntegrityViolationException e) {
+                    log.warn("Could not purge {} {} yet, will retry on the next run", kind, id, e);
+                }
+            }
+            if (ids.size() < chunkSize) {
+                return purged;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private void deleteReservations(Long ownerId,
+                                    BiFunction<Long, Limit, List<Long>> findReservationIds,
+                                    Function<List<Long>, Integer> deleteByIds) {
+        while (true) {
+            List<Long> ids = findReservationIds.apply(ownerId, Limit.of(chunkSize));
+            if (ids.isEmpty()) {
+                return;
+            }
+
+            int deleted = deleteByIds.apply(ids);
+            lastStatus = lastStatus.toBuilder()
+                    .chunks(lastStatus.getChunks() + 1)
+                    .reservationsDeleted(lastStatus.getReservationsDeleted() + deleted)
+                    .build();
+
+            if (ids.size() < chunkSize) {
+                return;
+            }
+        }
+    }
+}
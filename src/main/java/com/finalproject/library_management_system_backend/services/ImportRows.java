@@ -0,0 +1,123 @@
+package com.finalproject.library_management_system_backend.services;
+
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Row handling shared by the bulk imports: reading CSV records by column
+ * name, and inserting batches so that one bad row does not sink the rest.
+ */
+@Slf4j
+final class ImportRows {
+
+    /**
+     * The columns of a CSV upload, located from its header row. Names
+     * match case-insensitively, with or without underscores.
+     */
+    static final class CsvColumns {
+        private final int width;
+        private final Map<String, Integer> positions;
+
+        private CsvColumns(int width, Map<String, Integer> positions) {
+            this.width = width;
+            this.positions = positions;
+        }
+
+        /**
+         * Splits a data row.
+         *
+         * @throws IllegalArgumentException if the row is malformed or has the wrong number of fields
+         */
+        List<String> split(String line) {
+            List<String> fields = ImportFormat.splitCsv(line);
+            if (fields.size() != width) {
+                throw new IllegalArgumentException("Expected " + width + " fields but found " + fields.size());
+            }
+            return fields;
+        }
+
+        /**
+         * @return the trimmed field, or {@code null} if it is blank or the column is absent
+         */
+        String text(List<String> fields, String column) {
+            String value = raw(fields, column);
+            if (value == null) {
+                return null;
+            }
+            value = value.trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        /**
+         * @return the field as uploaded, or {@code null} if the column is absent
+         */
+        String raw(List<String> fields, String column) {
+            Integer position = positions.get(key(column));
+            return position == null ? null : fields.get(position);
+        }
+    }
+
+    private ImportRows() {
+    }
+
+    /**
+     * Reads the header row of a CSV upload.
+     *
+     * @param header   the first line, possibly starting with a byte order mark
+     * @param required the columns every upload must have
+     * @throws ResponseStatusException if a required column is missing
+     */
+    static CsvColumns csvColumns(String header, List<String> required) {
+        List<String> names = ImportFormat.splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            positions.put(key(names.get(i)), i);
+        }
+        for (String column : required) {
+            if (!positions.containsKey(key(column))) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header is missing the " + column + " column");
+            }
+        }
+        return new CsvColumns(names.size(), positions);
+    }
+
+    /**
+     * Inserts a batch in one call. If the database rejects it, each row is
+     * retried in a call of its own, so that only the rows it refuses are
+     * passed to {@code rejected}, with the reason.
+     *
+     * @param batch    the rows to insert
+     * @param insert   inserts rows in one transaction
+     * @param rejected records a row the database refused
+     */
+    static <T> void insert(List<T> batch, Consumer<List<T>> insert, BiConsumer<T, String> rejected) {
+        try {
+            insert.accept(batch);
+            return;
+        } catch (PersistenceException | DataAccessException e) {
+            if (batch.size() == 1) {
+                rejected.accept(batch.get(0), "Insert failed: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            log.warn("Import batch of {} rows failed; retrying row by row", batch.size(), e);
+        }
+        for (T row : batch) {
+            insert(List.of(row), insert, rejected);
+        }
+    }
+
+    private static String key(String column) {
+        return column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,260 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.DashboardStats;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationArchiveRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the dashboard statistics as in-memory counters so that
+ * {@code /admin/stats} never has to scan the reservation table.
+ * <p>
+ * Counters are adjusted on every reservation state transition and on
+ * book and user creation, once the surrounding transaction commits.
+ * A periodic reconciliation recounts from the database and repairs any
+ * drift, such as changes made by another node or directly in SQL.
+ * <p>
+ * A transaction that records a change holds a shared lock from just
+ * before it commits until its counters are updated. Reconciliation runs
+ * its COUNT queries without the lock, and takes it exclusively only for
+ * a moment before and after them, so commits are never held up by the
+ * recount. A counter is repaired only if no change was applied to it in
+ * between; otherwise the recount may or may not have seen that change,
+ * and the counter is left for the next run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LibraryStatsService {
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationArchiveRepository reservationArchiveRepository;
+    private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+
+    private final Map<ReservationStatus, Counter> reservationsByStatus = newStatusCounters();
+    private final Counter books = new Counter();
+    private final Counter users = new Counter();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Records a reservation moving between statuses.
+     *
+     * @param from the previous status, or {@code null} for a new reservation
+     * @param to   the new status
+     */
+    public void recordTransition(ReservationStatus from, ReservationStatus to) {
+        recordTransitions(from, to, 1);
+    }
+
+    /**
+     * Records a bulk move of {@code count} reservations between statuses.
+     *
+     * @param from  the previous status, or {@code null} for new reservations
+     * @param to    the new status
+     * @param count number of reservations moved
+     */
+    public void recordTransitions(ReservationStatus from, ReservationStatus to, long count) {
+        afterCommit(() -> {
+            if (from != null) {
+                reservationsByStatus.get(from).add(-count);
+            }
+            reservationsByStatus.get(to).add(count);
+        });
+    }
+
+    public void recordBookCreated() {
+        recordBooksCreated(1);
+    }
+
+    public void recordBooksCreated(long count) {
+        afterCommit(() -> books.add(count));
+    }
+
+    public void recordUserCreated() {
+        recordUsersCreated(1);
+    }
+
+    public void recordUsersCreated(long count) {
+        afterCommit(() -> users.add(count));
+    }
+
+    /**
+     * Records a book flagged as deleted. Its reservations stay counted
+     * until {@link DeletedRecordPurger} removes them and asks for a recount.
+     */
+    public void recordBookDeleted() {
+        afterCommit(() -> books.add(-1));
+    }
+
+    /**
+     * Records a user flagged as deleted; see {@link #recordBookDeleted()}.
+     */
+    public void recordUserDeleted() {
+        afterCommit(() -> users.add(-1));
+    }
+
+    /**
+     * @return the current dashboard figures, read from the counters
+     */
+    public DashboardStats getDashboardStats() {
+        long active = count(ReservationStatus.RESERVED)
+                + count(ReservationStatus.BORROWED)
+                + count(ReservationStatus.OVERDUE);
+
+        long total = reservationsByStatus.values().stream().mapToLong(Counter::sum).sum();
+
+        return DashboardStats.builder()
+                .totalBooks(books.sum())
+                .totalUsers(users.sum())
+                .activeLoans(active)
+                .overdueBooks(count(ReservationStatus.OVERDUE))
+                .totalReservations(total)
+                .build();
+    }
+
+    /**
+     * Recounts every figure from the database and repairs counters that
+     * have drifted. Runs at startup and then every five minutes by default,
+     * and after bulk deletions whose per-status effect is not known to the
+     * caller. Must not be called inside a transaction that records stats.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${library.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Map<Counter, Long> changesBefore = new HashMap<>();
+        lock.writeLock().lock();
+        try {
+            reservationsByStatus.values().forEach(counter -> changesBefore.put(counter, counter.changes()));
+            changesBefore.put(books, books.changes());
+            changesBefore.put(users, users.changes());
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<ReservationStatus, Long> actual = new EnumMap<>(ReservationStatus.class);
+        for (ReservationStatus status : ReservationStatus.values()) {
+            actual.put(status, 0L);
+        }
+        reservationRepository.countByStatus().forEach(row -> actual.merge(row.getStatus(), row.getCount(), Long::sum));
+        reservationArchiveRepository.countByStatus().forEach(row -> actual.merge(row.getStatus(), row.getCount(), Long::sum));
+        long actualBooks = bookRepository.count();
+        long actualUsers = userRepository.count();
+
+        List<String> busy = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            actual.forEach((status, count) ->
+                    repair(status.name(), reservationsByStatus.get(status), count, changesBefore, busy));
+            repair("books", books, actualBooks, changesBefore, busy);
+            repair("users", users, actualUsers, changesBefore, busy);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!busy.isEmpty()) {
+            log.debug("Stats counters {} changed during the recount, left for the next run", busy);
+        }
+    }
+
+    private void repair(String name, Counter counter, long actual, Map<Counter, Long> changesBefore, List<String> busy) {
+        if (counter.changes() != changesBefore.get(counter)) {
+            busy.add(name);
+            return;
+        }
+        long drift = actual - counter.sum();
+        if (drift != 0) {
+            counter.add(drift);
+            log.info("Stats counter {} drifted by {}, repaired to {}", name, drift, actual);
+        }
+    }
+
+    private long count(ReservationStatus status) {
+        return reservationsByStatus.get(status).sum();
+    }
+
+    /**
+     * Runs {@code action} once the surrounding transaction commits, holding
+     * the shared lock from before the commit until the action has run.
+     * Without a transaction the change is already committed and the action
+     * runs at once.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.readLock().lock();
+            try {
+                action.run();
+            } finally {
+                lock.readLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                lock.readLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (locked) {
+                    locked = false;
+                    lock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private static Map<ReservationStatus, Counter> newStatusCounters() {
+        Map<ReservationStatus, Counter> counters = new EnumMap<>(ReservationStatus.class);
+        for (ReservationStatus status : ReservationStatus.values()) {
+            counters.put(status, new Counter());
+        }
+        return counters;
+    }
+
+    /**
+     * A figure together with the number of changes applied to it, which
+     * tells reconciliation whether it moved while the recount ran.
+     */
+    private static final class Counter {
+        private final LongAdder value = new LongAdder();
+        private final LongAdder changes = new LongAdder();
+
+        void add(long delta) {
+            value.add(delta);
+            changes.increment();
+        }
+
+        long sum() {
+            return value.sum();
+        }
+
+        long changes() {
+            return changes.sum();
+        }
+    }
+}
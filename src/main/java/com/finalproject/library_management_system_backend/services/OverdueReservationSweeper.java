@@ -0,0 +1,139 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.OverdueSweepStatus;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Marks BORROWED reservations whose expected return date has passed
+ * as OVERDUE.
+ * <p>
+ * Overdue IDs are walked in bounded chunks in ID order, and each chunk is
+ * flipped with one bulk UPDATE in its own short transaction, so a large
+ * backlog never loads entities or holds the table for the whole run.
+ * Every committed chunk stays committed: if the process dies mid-run,
+ * the next run (including the catch-up run at startup) only sees the
+ * reservations that are still BORROWED.
+ */
+@Slf4j
+@Service
+public class OverdueReservationSweeper {
+
+    private final ReservationRepository reservationRepository;
+    private final LibraryStatsService libraryStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final boolean runOnStartup;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile OverdueSweepStatus lastStatus = new OverdueSweepStatus();
+
+    public OverdueReservationSweeper(ReservationRepository reservationRepository,
+                                     LibraryStatsService libraryStatsService,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${library.overdue-sweep.chunk-size:500}") int chunkSize,
+                                     @Value("${library.overdue-sweep.run-on-startup:true}") boolean runOnStartup) {
+        this.reservationRepository = reservationRepository;
+        this.libraryStatsService = libraryStatsService;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.runOnStartup = runOnStartup;
+    }
+
+    /**
+     * Runs every day at midnight.
+     */
+    @Scheduled(cron = "${library.overdue-sweep.cron:0 0 0 * * ?}")
+    public void checkOverdueReservations() {
+        sweep(LocalDateTime.now());
+    }
+
+    /**
+     * Finishes any sweep that was interrupted by a shutdown or crash.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        if (runOnStartup) {
+            sweep(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Marks every reservation BORROWED before {@code cutoff} as OVERDUE.
+     * Does nothing if another sweep is already running in this process.
+     *
+     * @param cutoff reservations expected back before this time are overdue
+     * @return the progress of this run
+     */
+    public OverdueSweepStatus sweep(LocalDateTime cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Overdue sweep already running, skipping");
+            return lastStatus;
+        }
+
+        OverdueSweepStatus status = OverdueSweepStatus.builder()
+                .running(true)
+                .cutoff(cutoff)
+                .startedAt(LocalDateTime.now())
+                .build();
+        lastStatus = status;
+
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Long> ids = reservationRepository.findIdsByStatusAndExpectedReturnDateBefore(
+                        ReservationStatus.BORROWED, cutoff, afterId, Limit.of(chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                int updated = transactionTemplate.execute(tx -> {
+                    int marked = reservationRepository.updateStatus(ids, ReservationStatus.BORROWED, ReservationStatus.OVERDUE);
+                    libraryStatsService.recordTransitions(ReservationStatus.BORROWED, ReservationStatus.OVERDUE, marked);
+                    return marked;
+                });
+                afterId = ids.get(ids.size() - 1);
+
+                status = status.toBuilder()
+                        .chunks(status.getChunks() + 1)
+                        .reservationsMarked(status.getReservationsMarked() + updated)
+                        .lastReservationId(afterId)
+                        .build();
+                lastStatus = status;
+
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+            }
+        } finally {
+            status = status.toBuilder()
+                    .running(false)
+                    .finishedAt(LocalDateTime.now())
+                    .build();
+            lastStatus = status;
+            running.set(false);
+        }
+
+        log.info("Marked {} reservations as OVERDUE in {} chunks", status.getReservationsMarked(), status.getChunks());
+        return status;
+    }
+
+    /**
+     * @return the progress of the current run, or the result of the last one
+     */
+    public OverdueSweepStatus getStatus() {
+        return lastStatus;
+    }
+}
@@ -0,0 +1,131 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.PerfSummary;
+import com.finalproject.library_management_system_backend.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.search.Search;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Condenses the application's meters into one admin-friendly summary:
+ * latency percentiles per endpoint and per reservation operation,
+ * connection pool saturation, Hibernate statistics and the password
+ * hashing queue.
+ * <p>
+ * Everything is read from the {@link MeterRegistry} and the Hibernate
+ * {@link Statistics}, which Actuator exposes in full under
+ * {@code /actuator/metrics}; this is the short version.
+ */
+@Service
+@RequiredArgsConstructor
+public class PerformanceSummaryService {
+
+    static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+
+    private final MeterRegistry meterRegistry;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BoundedPasswordEncoder passwordEncoder;
+
+    /**
+     * @return the current summary; timers are listed busiest first
+     */
+    public PerfSummary getSummary() {
+        return PerfSummary.builder()
+                .endpoints(timers(HTTP_SERVER_REQUESTS, timer -> timer.getId().getTag("method")
+                        + " " + timer.getId().getTag("uri")
+                        + " " + timer.getId().getTag("status")))
+                .reservationOperations(timers(ReservationMetrics.OPERATION_TIMER, timer -> {
+                    String exception = timer.getId().getTag("exception");
+                    String operation = timer.getId().getTag("operation");
+                    return exception == null || exception.equals("none") ? operation : operation + " " + exception;
+                }))
+                .connectionPools(connectionPools())
+                .hibernate(hibernate())
+                .passwordHashing(PerfSummary.PasswordHashing.builder()
+                        .active(passwordEncoder.getActiveCount())
+                        .queued(passwordEncoder.getQueuedCount())
+                        .rejected(passwordEncoder.getRejectedCount())
+                        .build())
+                .build();
+    }
+
+    private List<PerfSummary.TimerSummary> timers(String name, Function<Timer, String> label) {
+        return Search.in(meterRegistry).name(name).timers().stream()
+                .map(timer -> toSummary(label.apply(timer), timer))
+                .sorted(Comparator.comparingLong(PerfSummary.TimerSummary::getCount).reversed())
+                .toList();
+    }
+
+    private static PerfSummary.TimerSummary toSummary(String name, Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        PerfSummary.TimerSummary.TimerSummaryBuilder summary = PerfSummary.TimerSummary.builder()
+                .name(name)
+                .count(snapshot.count())
+                .meanMs(snapshot.mean(TimeUnit.MILLISECONDS))
+                .maxMs(snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            double value = percentile.value(TimeUnit.MILLISECONDS);
+            if (percentile.percentile() == 0.5) {
+                summary.p50Ms(value);
+            } else if (percentile.percentile() == 0.95) {
+                summary.p95Ms(value);
+            } else if (percentile.percentile() == 0.99) {
+                summary.p99Ms(value);
+            }
+        }
+        return summary.build();
+    }
+
+    private List<PerfSummary.ConnectionPool> connectionPools() {
+        return Search.in(meterRegistry).name("hikaricp.connections.max").gauges().stream()
+                .map(max -> {
+                    String pool = max.getId().getTag("pool");
+                    return PerfSummary.ConnectionPool.builder()
+                            .name(pool)
+                            .active((int) poolGauge("hikaricp.connections.active", pool))
+                            .idle((int) poolGauge("hikaricp.connections.idle", pool))
+                            .pending((int) poolGauge("hikaricp.connections.pending", pool))
+                            .max((int) max.value())
+                            .timeouts((long) Search.in(meterRegistry).name("hikaricp.connections.timeout")
+                                    .tag("pool", pool).counters().stream()
+                                    .mapToDouble(Counter::count)
+                                    .sum())
+                            .build();
+                })
+                .toList();
+    }
+
+    private double poolGauge(String name, String pool) {
+        Gauge gauge = Search.in(meterRegistry).name(name).tag("pool", pool).gauge();
+        return gauge == null ? 0 : gauge.value();
+    }
+
+    private PerfSummary.Hibernate hibernate() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return PerfSummary.Hibernate.builder()
+                .statisticsEnabled(statistics.isStatisticsEnabled())
+                .statements(statistics.getPrepareStatementCount())
+                .queries(statistics.getQueryExecutionCount())
+                .slowestQueryMs(statistics.getQueryExecutionMaxTime())
+                .slowestQuery(statistics.getQueryExecutionMaxTimeQueryString())
+                .entityLoads(statistics.getEntityLoadCount())
+                .secondLevelCacheHits(statistics.getSecondLevelCacheHitCount())
+                .secondLevelCacheMisses(statistics.getSecondLevelCacheMissCount())
+                .transactions(statistics.getTransactionCount())
+                .build();
+    }
+}
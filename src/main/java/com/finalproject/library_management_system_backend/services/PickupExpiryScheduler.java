@@ -0,0 +1,154 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.events.ReservationStatusChangedEvent;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cancels holds that are not collected within the pickup window and puts
+ * their copy back on the shelf.
+ * <p>
+ * Every RESERVED reservation is kept in a {@link TimingWheel} under its
+ * pickup deadline (reservation date plus the window), so each tick only
+ * touches the holds that are due and the reservation table is never
+ * scanned for them. Holds enter the wheel when they are created and, at
+ * startup, from one keyset walk over the RESERVED rows; since the deadline
+ * is derived from the stored reservation date, a restart loses nothing and
+ * holds that fell due while the application was down expire straight away.
+ * Collecting or canceling a hold does not remove it from the wheel;
+ * {@link ReservationService#expireHold} simply skips it when it comes up.
+ */
+@Slf4j
+@Service
+public class PickupExpiryScheduler {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int LOAD_BATCH_SIZE = 1_000;
+    private static final long RETRY_DELAY_MILLIS = 60_000;
+
+    private final ReservationService reservationService;
+    private final ReservationRepository reservationRepository;
+    private final Duration pickupWindow;
+    private final TimingWheel<Long> wheel;
+
+    public PickupExpiryScheduler(ReservationService reservationService,
+                                 ReservationRepository reservationRepository,
+                                 @Value("${library.pickup.window:48h}") Duration pickupWindow,
+                                 @Value("${library.pickup.tick-ms:1000}") long tickMillis) {
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        this.pickupWindow = pickupWindow;
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_SIZE, System.currentTimeMillis());
+    }
+
+    /**
+     * Schedules every hold that is still waiting to be collected, and
+     * expires those already past their deadline.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Long> due = new ArrayList<>();
+        long afterId = 0;
+        int loaded = 0;
+        while (true) {
+            List<ReservationRepository.Hold> holds = reservationRepository.findHoldsByStatus(
+                    ReservationStatus.RESERVED, afterId, Limit.of(LOAD_BATCH_SIZE));
+            for (ReservationRepository.Hold hold : holds) {
+                if (!schedule(hold.getId(), hold.getReservationDate())) {
+                    due.add(hold.getId());
+                }
+            }
+            loaded += holds.size();
+            if (holds.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+            afterId = holds.get(holds.size() - 1).getId();
+        }
+
+        log.info("Loaded {} holds awaiting pickup, {} already past their deadline", loaded, due.size());
+        expire(due, System.currentTimeMillis());
+    }
+
+    /**
+     * Schedules a hold once the reservation that placed it is committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        if (event.from() == null && event.to() == ReservationStatus.RESERVED
+                && !schedule(event.reservationId(), LocalDateTime.now())) {
+            expire(List.of(event.reservationId()), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Advances the wheel to the current time.
+     */
+    @Scheduled(fixedDelayString = "${library.pickup.tick-ms:1000}")
+    public void tick() {
+        expireDue(System.currentTimeMillis());
+    }
+
+    /**
+     * Expires every hold whose deadline is at or before {@code nowMillis}.
+     *
+     * @return the number of holds canceled
+     */
+    public int expireDue(long nowMillis) {
+        List<Long> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advanceTo(nowMillis, due::add);
+        }
+        return expire(due, nowMillis);
+    }
+
+    /**
+     * @return the number of holds waiting in the wheel, including ones
+     * collected or canceled since they were scheduled
+     */
+    public int getPendingHolds() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private boolean schedule(Long reservationId, LocalDateTime reservedAt) {
+        long deadline = reservedAt.plus(pickupWindow).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (wheel) {
+            return wheel.add(reservationId, deadline);
+        }
+    }
+
+    private int expire(List<Long> reservationIds, long nowMillis) {
+        int expired = 0;
+        for (Long id : reservationIds) {
+            try {
+                if (reservationService.expireHold(id)) {
+                    expired++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not expire hold {}, retrying in {} ms", id, RETRY_DELAY_MILLIS, e);
+                synchronized (wheel) {
+                    wheel.add(id, nowMillis + RETRY_DELAY_MILLIS);
+                }
+            }
+        }
+        if (expired > 0) {
+            log.info("Canceled {} holds not collected within {}", expired, pickupWindow);
+        }
+        return expired;
+    }
+}
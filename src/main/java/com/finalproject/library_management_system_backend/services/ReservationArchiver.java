@@ -0,0 +1,139 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.ArchiveStatus;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.repositories.ReservationArchiveRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves finished reservations out of the {@code reservation} table into
+ * {@code reservation_archive}, so the table every checkout, return and
+ * overdue sweep works on holds little more than the active loans.
+ * <p>
+ * A reservation is archived once it is RETURNED, LATE_RETURNED or
+ * CANCELED and was due back more than the retention period ago. Those
+ * statuses are final, so a row cannot change between being picked and
+ * being moved. IDs are walked in bounded chunks in ID order; each chunk is
+ * copied and deleted with two bulk statements in one short transaction,
+ * so a run that dies halfway leaves every row in exactly one of the two
+ * tables and the next run carries on.
+ */
+@Slf4j
+@Service
+public class ReservationArchiver {
+
+    static final Set<ReservationStatus> FINISHED_STATUSES = Set.of(
+            ReservationStatus.RETURNED,
+            ReservationStatus.LATE_RETURNED,
+            ReservationStatus.CANCELED
+    );
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationArchiveRepository reservationArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int retentionDays;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ArchiveStatus lastStatus = new ArchiveStatus();
+
+    public ReservationArchiver(ReservationRepository reservationRepository,
+                               ReservationArchiveRepository reservationArchiveRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${library.archive.chunk-size:500}") int chunkSize,
+                               @Value("${library.archive.retention-days:90}") int retentionDays) {
+        this.reservationRepository = reservationRepository;
+        this.reservationArchiveRepository = reservationArchiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Runs every night, after the overdue sweep.
+     */
+    @Scheduled(cron = "${library.archive.cron:0 30 0 * * ?}")
+    public void archiveFinishedReservations() {
+        archive(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    /**
+     * Archives every finished reservation that was due back before
+     * {@code cutoff}. Does nothing if another run is already in progress
+     * in this process.
+     *
+     * @param cutoff reservations due back before this time are archived
+     * @return the progress of this run
+     */
+    public ArchiveStatus archive(LocalDateTime cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Reservation archiving already running, skipping");
+            return lastStatus;
+        }
+
+        ArchiveStatus status = ArchiveStatus.builder()
+                .running(true)
+                .cutoff(cutoff)
+                .startedAt(LocalDateTime.now())
+                .build();
+        lastStatus = status;
+
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Long> ids = reservationRepository.findIdsByStatusInAndExpectedReturnDateBefore(
+                        FINISHED_STATUSES, cutoff, afterId, Limit.of(chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                LocalDateTime archivedAt = LocalDateTime.now();
+                Integer moved = transactionTemplate.execute(tx -> {
+                    int copied = reservationArchiveRepository.copyFromReservations(ids, archivedAt);
+                    reservationRepository.deleteByIdIn(ids);
+                    return copied;
+                });
+                afterId = ids.get(ids.size() - 1);
+
+                status = status.toBuilder()
+                        .chunks(status.getChunks() + 1)
+                        .reservationsArchived(status.getReservationsArchived() + (moved == null ? 0 : moved))
+                        .lastReservationId(afterId)
+                        .build();
+                lastStatus = status;
+
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+            }
+        } finally {
+            status = status.toBuilder()
+                    .running(false)
+                    .finishedAt(LocalDateTime.now())
+                    .build();
+            lastStatus = status;
+            running.set(false);
+        }
+
+        log.info("Archived {} reservations in {} chunks", status.getReservationsArchived(), status.getChunks());
+        return status;
+    }
+
+    /**
+     * @return the progress of the current run, or the result of the last one
+     */
+    public ArchiveStatus getStatus() {
+        return lastStatus;
+    }
+}
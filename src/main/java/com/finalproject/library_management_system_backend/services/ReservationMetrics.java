@@ -0,0 +1,35 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.events.ReservationStatusChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Counts committed reservation status changes by source and target
+ * status. The time each operation takes is recorded on
+ * {@link ReservationService} itself under {@link #OPERATION_TIMER}. The
+ * overdue sweep changes statuses in bulk without events; its progress
+ * is reported by {@link OverdueReservationSweeper#getStatus()}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationMetrics {
+
+    public static final String OPERATION_TIMER = "library.reservation.operation";
+    public static final String TRANSITION_COUNTER = "library.reservation.transitions";
+
+    private final MeterRegistry meterRegistry;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        Counter.builder(TRANSITION_COUNTER)
+                .description("Reservation status changes")
+                .tag("from", event.from() == null ? "NONE" : event.from().name())
+                .tag("to", event.to().name())
+                .register(meterRegistry)
+                .increment();
+    }
+}
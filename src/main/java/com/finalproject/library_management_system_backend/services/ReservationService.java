@@ -1,76 +1,109 @@
 package com.finalproject.library_management_system_backend.services;
 
 import com.finalproject.library_management_system_backend.dtos.CreateReservationRequest;
+import com.finalproject.library_management_system_backend.dtos.CursorPage;
 import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.dtos.ReservationFilter;
+import com.finalproject.library_management_system_backend.events.ReservationStatusChangedEvent;
 import com.finalproject.library_management_system_backend.mappers.ReservationMapper;
 import com.finalproject.library_management_system_backend.model.Book;
 import com.finalproject.library_management_system_backend.model.Reservation;
 import com.finalproject.library_management_system_backend.model.ReservationStatus;
 import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.pagination.KeysetPaginator;
 import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationArchiveRepository;
 import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
 import com.finalproject.library_management_system_backend.repositories.UserRepository;
-import org.springframework.scheduling.annotation.Scheduled;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Handles the full lifecycle of book reservations in the library system.
  * <p>
  * Supports creating reservations, collecting books, canceling,
- * returning, and automatically marking overdue reservations.
+ * and returning. Overdue reservations are marked by
+ * {@link OverdueReservationSweeper}, holds not collected in time are
+ * canceled by {@link PickupExpiryScheduler}, and finished reservations
+ * are moved to the archive by {@link ReservationArchiver}; a user's
+ * history reads both tables. Each state transition is timed
+ * under {@link ReservationMetrics#OPERATION_TIMER}, tagged with the
+ * operation and, on failure, the exception.
  */
 
 @Service
 @RequiredArgsConstructor
 public class ReservationService {
 
+    private static final Map<String, Class<?>> SORT_KEYS = Map.of(
+            "id", Long.class,
+            "reservationDate", LocalDateTime.class
+    );
+
+    private static final Comparator<ReservationDto> NEWEST_FIRST = Comparator
+            .comparing(ReservationDto::getReservationDate)
+            .thenComparing(ReservationDto::getId)
+            .reversed();
+
     private final ReservationRepository reservationRepository;
+    private final ReservationArchiveRepository reservationArchiveRepository;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
     private final ReservationMapper reservationMapper;
+    private final KeysetPaginator keysetPaginator;
+    private final LibraryStatsService libraryStatsService;
+    private final BookWaitlist bookWaitlist;
+    private final ApplicationEventPublisher eventPublisher;
 
         /**
      * Creates a reservation for a user.
      * <p>
      * Steps performed:
      * <ul>
-     *     <li>Validates the user and book</li>
-     *     <li>Ensures the book has available copies</li>
-     *     <li>Reserves a copy and reduces availability</li>
+     *     <li>Refers to the user by the ID from their access token, without
+     *         loading them; a user purged since the token was issued fails
+     *         the foreign key check</li>
+     *     <li>Takes a copy with a single guarded UPDATE, so concurrent
+     *         checkouts of the same title can never oversell it</li>
      *     <li>Sets an expected return date (default: 7 days)</li>
      * </ul>
      *
      * @param request   contains book ID and optional number of days to keep
-     * @param userEmail email of the user making the reservation
+     * @param reader    the authenticated user making the reservation
      * @return the created reservation
      */
 
     @Transactional
-    public ReservationDto createReservation(CreateReservationRequest request, String userEmail) {
+    @Timed(value = ReservationMetrics.OPERATION_TIMER, extraTags = {"operation", "create"})
+    public ReservationDto createReservation(CreateReservationRequest request, AuthenticatedUser reader) {
 
         int days = (request.getDaysToKeep() == null || request.getDaysToKeep() <= 0) ? 7 : request.getDaysToKeep();
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime expectedReturn = now.plusDays(days);
 
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Book book = bookRepository.findById(request.getBookId())
-                .orElseThrow(() -> new RuntimeException("Book not found"));
+        User user = userRepository.getReferenceById(reader.id());
 
-        if (book.getAvailableCopies() <= 0) {
+        if (bookRepository.decrementAvailableCopies(request.getBookId()) == 0) {
+            if (!bookRepository.existsById(request.getBookId())) {
+                throw new RuntimeException("Book not found");
+            }
             throw new RuntimeException("No available copies for this book");
         }
 
-        book.setAvailableCopies(book.getAvailableCopies()-1);
-        bookRepository.save(book);
+        Book book = bookRepository.getReferenceById(request.getBookId());
 
         Reservation reservation = Reservation.builder()
                 .user(user)
@@ -80,27 +113,42 @@ public class ReservationService {
                 .status(ReservationStatus.RESERVED)
                 .build();
 
-        Reservation savedReservation = reservationRepository.save(reservation);
+        Reservation savedReservation;
+        try {
+            savedReservation = reservationRepository.save(reservation);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("User not found");
+        }
+        libraryStatsService.recordTransition(null, ReservationStatus.RESERVED);
+        publishTransition(savedReservation.getId(), request.getBookId(), null, ReservationStatus.RESERVED);
 
-        return reservationMapper.toDto(savedReservation);
+        return reservationMapper.toDto(savedReservation, reader);
     }
 
         /**
-     * Retrieves every reservation in the system.
+     * Retrieves one page of reservations across the whole system.
+     * <p>
+     * Rows are projected straight into DTOs by a single joined query,
+     * so the cost per page does not grow with the page size.
      *
-     * @return all reservations as DTOs
+     * @param filter optional status, book and reservation date range restrictions
+     * @param sort   the field to sort by: id or reservationDate
+     * @param size   the maximum number of reservations to return
+     * @param cursor the cursor from the previous page, or {@code null} for the first page
+     * @return the page of reservations and the cursor for the next one
      */
 
     @Transactional(readOnly = true)
-    public List<ReservationDto> getAllReservations() {
-        return reservationRepository.findAll()
-                .stream()
-                .map(reservationMapper::toDto)
-                .collect(Collectors.toList());
+    public CursorPage<ReservationDto> getAllReservations(ReservationFilter filter, String sort, Integer size, String cursor) {
+        Sort order = keysetPaginator.resolveSort(sort, SORT_KEYS);
+        var window = reservationRepository.findDtos(
+                filter, keysetPaginator.decode(cursor, order, SORT_KEYS), order, keysetPaginator.resolveLimit(size));
+        return keysetPaginator.toPage(window, dto -> dto);
     }
 
         /**
-     * Retrieves reservations belonging to a user identified by email.
+     * Retrieves reservations belonging to a user identified by email,
+     * archived ones included, newest first.
      *
      * @param userEmail user email
      * @return list of matching reservations
@@ -108,14 +156,13 @@ public class ReservationService {
 
     @Transactional(readOnly = true)
     public List<ReservationDto> getReservationsByUser(String userEmail) {
-        return reservationRepository.findByUserEmail(userEmail)
-                .stream()
-                .map(reservationMapper::toDto)
-                .collect(Collectors.toList());
+        return newestFirst(reservationRepository.findDtosByUserEmail(userEmail),
+                reservationArchiveRepository.findDtosByUserEmail(userEmail));
     }
 
         /**
-     * Retrieves reservations belonging to a user identified by ID.
+     * Retrieves reservations belonging to a user identified by ID,
+     * archived ones included, newest first.
      *
      * @param userId the user’s ID
      * @return list of reservations
@@ -123,10 +170,8 @@ public class ReservationService {
 
     @Transactional(readOnly = true)
     public List<ReservationDto> getReservationsByUserId(Long userId) {
-        return reservationRepository.findByUserId(userId)
-                .stream()
-                .map(reservationMapper::toDto)
-                .collect(Collectors.toList());
+        return newestFirst(reservationRepository.findDtosByUserId(userId),
+                reservationArchiveRepository.findDtosByUserId(userId));
     }
 
         /**
@@ -137,8 +182,9 @@ public class ReservationService {
      */
 
     @Transactional
+    @Timed(value = ReservationMetrics.OPERATION_TIMER, extraTags = {"operation", "collect"})
     public void collectBook(Long reservationId) {
-        Reservation reservation = reservationRepository.findById(reservationId)
+        Reservation reservation = reservationRepository.findForUpdateById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
 
         if (reservation.getStatus() != ReservationStatus.RESERVED) {
@@ -147,71 +193,66 @@ public class ReservationService {
 
         reservation.setStatus(ReservationStatus.BORROWED);
         reservationRepository.save(reservation);
-
+        libraryStatsService.recordTransition(ReservationStatus.RESERVED, ReservationStatus.BORROWED);
+        publishTransition(reservation, ReservationStatus.RESERVED);
     }
 
         /**
-     * Cancels a reservation and restores the book’s available copies.
+     * Cancels a reservation and gives the copy to the next reader on the
+     * book’s waitlist, or restores the book’s available copies.
      *
      * @param reservationId reservation ID
      */
 
     @Transactional
+    @Timed(value = ReservationMetrics.OPERATION_TIMER, extraTags = {"operation", "cancel"})
     public void cancelReservation(Long reservationId) {
-        Reservation reservation = reservationRepository.findById(reservationId)
+        Reservation reservation = reservationRepository.findForUpdateById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
 
         if (reservation.getStatus() != ReservationStatus.RESERVED) {
             throw new RuntimeException("Cannot cancel. Status is not RESERVED.");
         }
 
-        reservation.setStatus(ReservationStatus.CANCELED);
-        reservationRepository.save(reservation);
-
-        Book book = reservation.getBook();
-        book.setAvailableCopies(book.getAvailableCopies() + 1);
-        bookRepository.save(book);
+        releaseHold(reservation);
     }
 
         /**
-     * Runs every day at midnight.
-     * <p>
-     * Finds all BORROWED reservations whose expected return
-     * dates have passed and marks them as OVERDUE.
+     * Cancels a hold that was not collected within the pickup window and
+     * passes the copy on like a cancellation. Called by
+     * {@link PickupExpiryScheduler}; a hold that was collected or canceled
+     * in the meantime is left alone.
+     *
+     * @param reservationId reservation ID
+     * @return whether the hold was canceled
      */
 
-    @Scheduled(cron = "0 0 0 * * ?")
     @Transactional
-    public void checkOverdueReservations() {
-        LocalDateTime now = LocalDateTime.now();
-
-        // Find books that are still 'BORROWED' but past their due date
-        List<Reservation> overdueList = reservationRepository.findByStatusAndExpectedReturnDateBefore(
-                ReservationStatus.BORROWED, now
-        );
-
-        for (Reservation r : overdueList) {
-            r.setStatus(ReservationStatus.OVERDUE);
+    @Timed(value = ReservationMetrics.OPERATION_TIMER, extraTags = {"operation", "expire"})
+    public boolean expireHold(Long reservationId) {
+        Reservation reservation = reservationRepository.findForUpdateById(reservationId).orElse(null);
+        if (reservation == null || reservation.getStatus() != ReservationStatus.RESERVED) {
+            return false;
         }
 
-        if (!overdueList.isEmpty()) {
-            reservationRepository.saveAll(overdueList);
-            System.out.println("Marked " + overdueList.size() + " books as OVERDUE.");
-        }
+        releaseHold(reservation);
+        return true;
     }
 
         /**
      * Returns a borrowed or overdue book.
      * <p>
-     * Updates status to either RETURNED or LATE_RETURNED,
-     * restores available copies, and records the return timestamp.
+     * Updates status to either RETURNED or LATE_RETURNED, hands the copy
+     * to the next reader on the book’s waitlist or restores available
+     * copies, and records the return timestamp.
      *
      * @param reservationId the reservation being completed
      */
 
     @Transactional
+    @Timed(value = ReservationMetrics.OPERATION_TIMER, extraTags = {"operation", "return"})
     public void returnBook(Long reservationId) {
-        Reservation reservation = reservationRepository.findById(reservationId)
+        Reservation reservation = reservationRepository.findForUpdateById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
 
         if (reservation.getStatus() != ReservationStatus.BORROWED &&
@@ -219,6 +260,8 @@ public class ReservationService {
             throw new RuntimeException("Cannot return. Book is not currently active.");
         }
 
+        ReservationStatus previousStatus = reservation.getStatus();
+
         if (reservation.getExpectedReturnDate() == null) {
             LocalDateTime baseDate = (reservation.getReservationDate() != null)
                     ? reservation.getReservationDate()
@@ -236,15 +279,16 @@ public class ReservationService {
 
         reservation.setReturnDate(now);
         reservationRepository.save(reservation);
+        libraryStatsService.recordTransition(previousStatus, reservation.getStatus());
+        publishTransition(reservation, previousStatus);
 
-        Book book = reservation.getBook();
-        book.setAvailableCopies(book.getAvailableCopies() + 1);
-        bookRepository.save(book);
+        releaseCopy(reservation.getBook().getId());
     }
 
     @Transactional
+    @Timed(value = ReservationMetrics.OPERATION_TIMER, extraTags = {"operation", "extend"})
     public void extendReservation(Long reservationId) {
-        Reservation reservation = reservationRepository.findById(reservationId)
+        Reservation reservation = reservationRepository.findForUpdateById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
 
         if (reservation.getStatus() != ReservationStatus.BORROWED &&
@@ -258,8 +302,81 @@ public class ReservationService {
         if (reservation.getStatus() == ReservationStatus.OVERDUE &&
                 reservation.getExpectedReturnDate().isAfter(LocalDateTime.now())) {
             reservation.setStatus(ReservationStatus.BORROWED);
+            libraryStatsService.recordTransition(ReservationStatus.OVERDUE, ReservationStatus.BORROWED);
+            publishTransition(reservation, ReservationStatus.OVERDUE);
         }
 
         reservationRepository.save(reservation);
     }
+
+    private void releaseHold(Reservation reservation) {
+        reservation.setStatus(ReservationStatus.CANCELED);
+        reservationRepository.save(reservation);
+        libraryStatsService.recordTransition(ReservationStatus.RESERVED, ReservationStatus.CANCELED);
+        publishTransition(reservation, ReservationStatus.RESERVED);
+
+        releaseCopy(reservation.getBook().getId());
+    }
+
+    /**
+     * Hands a freed copy to the next reader on the book's waitlist as a new
+     * hold, or puts it back on the shelf if nobody is waiting. Looking for
+     * a waiter locks the book's row, so nobody can join the waitlist until
+     * the copy is accounted for.
+     */
+    private void releaseCopy(Long bookId) {
+        BookWaitlist.Waiter next = bookWaitlist.claimNext(bookId);
+        if (next == null) {
+            bookRepository.incrementAvailableCopies(bookId);
+            return;
+        }
+        hold(bookId, next);
+    }
+
+    /**
+     * Hands copies just added to a book to the readers who have waited
+     * longest, one new hold each, as part of the caller's transaction.
+     * The caller puts the copies nobody was waiting for on the shelf.
+     *
+     * @param bookId the book
+     * @param copies the number of copies added
+     * @return the number of copies handed to waiting readers
+     */
+    public int handOutAddedCopies(Long bookId, int copies) {
+        List<BookWaitlist.Waiter> waiters = bookWaitlist.claimNext(bookId, copies);
+        waiters.forEach(waiter -> hold(bookId, waiter));
+        return waiters.size();
+    }
+
+    private void hold(Long bookId, BookWaitlist.Waiter waiter) {
+        LocalDateTime now = LocalDateTime.now();
+        Reservation hold = reservationRepository.save(Reservation.builder()
+                .user(userRepository.getReferenceById(waiter.userId()))
+                .book(bookRepository.getReferenceById(bookId))
+                .reservationDate(now)
+                .expectedReturnDate(now.plusDays(7))
+                .status(ReservationStatus.RESERVED)
+                .build());
+        libraryStatsService.recordTransition(null, ReservationStatus.RESERVED);
+        publishTransition(hold.getId(), bookId, null, ReservationStatus.RESERVED);
+    }
+
+    private static List<ReservationDto> newestFirst(List<ReservationDto> active, List<ReservationDto> archived) {
+        if (archived.isEmpty()) {
+            return active;
+        }
+        List<ReservationDto> all = new ArrayList<>(active.size() + archived.size());
+        all.addAll(active);
+        all.addAll(archived);
+        all.sort(NEWEST_FIRST);
+        return all;
+    }
+
+    private void publishTransition(Reservation reservation, ReservationStatus from) {
+        publishTransition(reservation.getId(), reservation.getBook().getId(), from, reservation.getStatus());
+    }
+
+    private void publishTransition(Long reservationId, Long bookId, ReservationStatus from, ReservationStatus to) {
+        eventPublisher.publishEvent(new ReservationStatusChangedEvent(reservationId, bookId, from, to));
+    }
 }
@@ -0,0 +1,358 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.Suggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Path-compressed (radix) trie that answers "best K completions of this
+ * prefix" without walking the subtree.
+ * <p>
+ * Every node caches the top {@code k} entries of its subtree, ordered by
+ * weight, so a lookup costs one descent of at most prefix-length steps.
+ * Mutations recompute the caches along the changed path only. An entry
+ * may be stored under several keys and is still listed once. Children
+ * are kept in sorted parallel arrays rather than maps to keep nodes small.
+ * <p>
+ * Not thread-safe; callers guard it with a read/write lock.
+ */
+public class SuggestionTrie {
+
+    /**
+     * A completion stored at the end of a key. Weight is mutable; call
+     * {@link #refresh} after changing it.
+     */
+    public static final class Entry {
+        private final String text;
+        private final Suggestion.Type type;
+        private long weight;
+
+        public Entry(String text, Suggestion.Type type, long weight) {
+            this.text = text;
+            this.type = type;
+            this.weight = weight;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public Suggestion.Type getType() {
+            return type;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        public void setWeight(long weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final Entry[] NONE = new Entry[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final Comparator<Entry> BEST_FIRST = Comparator.comparingLong(Entry::getWeight).reversed()
+            .thenComparing(Entry::getText)
+            .thenComparing(Entry::getType);
+
+    private static final class Node {
+        String label;
+        char[] keys = new char[0];
+        Node[] children = NO_CHILDREN;
+        Entry[] entries = NONE;
+        Entry[] top = NONE;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int indexOf(char c) {
+            return Arrays.binarySearch(keys, c);
+        }
+
+        void addChild(Node child) {
+            int at = -indexOf(child.label.charAt(0)) - 1;
+            keys = insert(keys, at, child.label.charAt(0));
+            children = insert(children, at, child);
+        }
+
+        void removeChild(int at) {
+            char[] newKeys = new char[keys.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(keys, at + 1, newKeys, at, keys.length - at - 1);
+            keys = newKeys;
+
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(children, at + 1, newChildren, at, children.length - at - 1);
+            children = newChildren;
+        }
+    }
+
+    private final int k;
+    private final Node root = new Node("");
+
+    public SuggestionTrie(int k) {
+        this.k = k;
+    }
+
+    /**
+     * Stores an entry under {@code key}, creating the path if needed.
+     */
+    public void add(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        String rest = key;
+        path.add(node);
+
+        while (!rest.isEmpty()) {
+            int at = node.indexOf(rest.charAt(0));
+            if (at < 0) {
+                Node leaf = new Node(rest);
+                node.addChild(leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+
+            Node child = node.children[at];
+            int common = commonPrefix(child.label, rest);
+            if (common < child.label.length()) {
+                split(node, at, common);
+                child = node.children[at];
+            }
+
+            node = child;
+            path.add(node);
+            rest = rest.substring(common);
+        }
+
+        node.entries = append(node.entries, entry);
+        promote(path, entry);
+    }
+
+    /**
+     * Removes an entry stored under {@code key}, pruning empty nodes.
+     */
+    public void remove(String key, Entry entry) {
+        List<Node> path = find(key);
+        if (path == null) {
+            return;
+        }
+
+        Node node = path.get(path.size() - 1);
+        node.entries = without(node.entries, entry);
+
+        if (node != root && node.entries.length == 0 && node.children.length == 0) {
+            Node parent = path.get(path.size() - 2);
+            parent.removeChild(parent.indexOf(node.label.charAt(0)));
+            path.remove(path.size() - 1);
+            node = parent;
+        }
+        if (node != root && node.entries.length == 0 && node.children.length == 1) {
+            Node only = node.children[0];
+            node.label = node.label + only.label;
+            node.keys = only.keys;
+            node.children = only.children;
+            node.entries = only.entries;
+            node.top = only.top;
+        }
+        recompute(path);
+    }
+
+    /**
+     * Re-ranks the caches on the path to {@code key} after an entry's
+     * weight went up. Cheaper than {@link #refresh}, since no other entry
+     * can enter a cache.
+     */
+    public void raise(String key, Entry entry) {
+        List<Node> path = find(key);
+        if (path != null) {
+            promote(path, entry);
+        }
+    }
+
+    /**
+     * Re-ranks the caches on the path to {@code key} after an entry's weight changed.
+     */
+    public void refresh(String key) {
+        List<Node> path = find(key);
+        if (path != null) {
+            recompute(path);
+        }
+    }
+
+    /**
+     * @return up to {@code k} entries whose key starts with {@code prefix}, best first
+     */
+    public List<Entry> complete(String prefix) {
+        Node node = root;
+        String rest = prefix;
+
+        while (!rest.isEmpty()) {
+            int at = node.indexOf(rest.charAt(0));
+            if (at < 0) {
+                return List.of();
+            }
+            Node child = node.children[at];
+            if (rest.startsWith(child.label)) {
+                rest = rest.substring(child.label.length());
+            } else if (child.label.startsWith(rest)) {
+                rest = "";
+            } else {
+                return List.of();
+            }
+            node = child;
+        }
+        return List.of(node.top);
+    }
+
+    private List<Node> find(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        String rest = key;
+        path.add(node);
+
+        while (!rest.isEmpty()) {
+            int at = node.indexOf(rest.charAt(0));
+            if (at < 0 || !rest.startsWith(node.children[at].label)) {
+                return null;
+            }
+            node = node.children[at];
+            rest = rest.substring(node.label.length());
+            path.add(node);
+        }
+        return path;
+    }
+
+    private void split(Node parent, int at, int common) {
+        Node child = parent.children[at];
+        Node middle = new Node(child.label.substring(0, common));
+        child.label = child.label.substring(common);
+        middle.keys = new char[]{child.label.charAt(0)};
+        middle.children = new Node[]{child};
+        middle.top = child.top;
+        parent.children[at] = middle;
+    }
+
+    /**
+     * Moves {@code entry} to its place in every cache on the path, for an
+     * entry that was added or whose weight went up.
+     */
+    private void promote(List<Node> path, Entry entry) {
+        Entry[] single = {entry};
+        for (Node node : path) {
+            node.top = merge(new Entry[][]{without(node.top, entry), single});
+        }
+    }
+
+    /**
+     * Rebuilds each node's cache bottom-up by merging its best own entries
+     * with the already sorted caches of its children.
+     */
+    private void recompute(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            Entry[][] sources = new Entry[node.children.length + 1][];
+            sources[0] = best(node.entries);
+            for (int c = 0; c < node.children.length; c++) {
+                sources[c + 1] = node.children[c].top;
+            }
+            node.top = merge(sources);
+        }
+    }
+
+    private Entry[] merge(Entry[][] sources) {
+        int[] heads = new int[sources.length];
+        Entry[] top = new Entry[k];
+        int size = 0;
+
+        while (size < k) {
+            int best = -1;
+            for (int s = 0; s < sources.length; s++) {
+                if (heads[s] < sources[s].length
+                        && (best < 0 || BEST_FIRST.compare(sources[s][heads[s]], sources[best][heads[best]]) < 0)) {
+                    best = s;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+
+            Entry candidate = sources[best][heads[best]++];
+            if (!contains(top, size, candidate)) {
+                top[size++] = candidate;
+            }
+        }
+        return size == k ? top : Arrays.copyOf(top, size);
+    }
+
+    private Entry[] best(Entry[] entries) {
+        if (entries.length <= k) {
+            Entry[] sorted = entries.clone();
+            Arrays.sort(sorted, BEST_FIRST);
+            return sorted;
+        }
+
+        PriorityQueue<Entry> worstFirst = new PriorityQueue<>(k + 1, BEST_FIRST.reversed());
+        for (Entry entry : entries) {
+            worstFirst.add(entry);
+            if (worstFirst.size() > k) {
+                worstFirst.poll();
+            }
+        }
+        Entry[] sorted = worstFirst.toArray(NONE);
+        Arrays.sort(sorted, BEST_FIRST);
+        return sorted;
+    }
+
+    private static boolean contains(Entry[] entries, int size, Entry entry) {
+        for (int i = 0; i < size; i++) {
+            if (entries[i] == entry) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static char[] insert(char[] array, int at, char value) {
+        char[] result = new char[array.length + 1];
+        System.arraycopy(array, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(array, at, result, at + 1, array.length - at);
+        return result;
+    }
+
+    private static Node[] insert(Node[] array, int at, Node value) {
+        Node[] result = new Node[array.length + 1];
+        System.arraycopy(array, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(array, at, result, at + 1, array.length - at);
+        return result;
+    }
+
+    private static Entry[] append(Entry[] array, Entry value) {
+        Entry[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = value;
+        return result;
+    }
+
+    private static Entry[] without(Entry[] array, Entry value) {
+        return Arrays.stream(array).filter(entry -> entry != value).toArray(Entry[]::new);
+    }
+}
@@ -0,0 +1,143 @@
+package com.finalproject.library_management_system_backend.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: schedules items for a deadline and hands
+ * them back once the clock has reached it, at O(1) cost per insert and
+ * per tick regardless of how many items are pending.
+ * <p>
+ * Time is counted in ticks. Level 0 has one slot per tick for the current
+ * {@code wheelSize} ticks; each higher level has slots {@code wheelSize}
+ * times wider than the one below. An item sits at the lowest level whose
+ * current window contains its deadline, and when the clock enters one of
+ * its slots the items there are cascaded down a level, until they reach
+ * level 0 and fire on the tick their deadline falls in. Deadlines are
+ * rounded up to a whole tick, so an item never fires early. Levels are
+ * added as far-off deadlines need them.
+ * <p>
+ * Not thread-safe; callers guard it with a lock.
+ *
+ * @param <T> the scheduled item
+ */
+public class TimingWheel<T> {
+
+    private record Entry<T>(T item, long deadlineTick) {
+    }
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<List<Entry<T>>[]> levels = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis the resolution of the wheel
+     * @param wheelSize  slots per level
+     * @param nowMillis  the current time; earlier deadlines are already due
+     */
+    public TimingWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /**
+     * Schedules an item.
+     *
+     * @return {@code false} if the deadline has already passed, in which
+     * case the item is not kept and the caller should handle it now
+     */
+    public boolean add(T item, long deadlineMillis) {
+        return place(new Entry<>(item, Math.ceilDiv(deadlineMillis, tickMillis)));
+    }
+
+    /**
+     * Moves the clock forward, tick by tick, and hands every item whose
+     * deadline has been reached to {@code expired}, earlier ticks first.
+     * Moving backwards does nothing.
+     */
+    public void advanceTo(long nowMillis, Consumer<T> expired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels.size() - 1; level > 0; level--) {
+                long span = span(level);
+                if (currentTick % span == 0) {
+                    for (Entry<T> entry : drain(level, slot(currentTick / span))) {
+                        if (!place(entry)) {
+                            expired.accept(entry.item());
+                        }
+                    }
+                }
+            }
+            if (!levels.isEmpty()) {
+                for (Entry<T> entry : drain(0, slot(currentTick))) {
+                    expired.accept(entry.item());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of items waiting for their deadline
+     */
+    public int size() {
+        return size;
+    }
+
+    private boolean place(Entry<T> entry) {
+        if (entry.deadlineTick() <= currentTick) {
+            return false;
+        }
+        int level = 0;
+        long span = 1;
+        while (entry.deadlineTick() / span / wheelSize != currentTick / span / wheelSize) {
+            level++;
+            span *= wheelSize;
+        }
+        bucket(level, slot(entry.deadlineTick() / span)).add(entry);
+        size++;
+        return true;
+    }
+
+    private List<Entry<T>> drain(int level, int slot) {
+        List<Entry<T>>[] buckets = levels.get(level);
+        List<Entry<T>> entries = buckets[slot];
+        if (entries == null) {
+            return List.of();
+        }
+        buckets[slot] = null;
+        size -= entries.size();
+        return entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry<T>> bucket(int level, int slot) {
+        while (levels.size() <= level) {
+            levels.add(new List[wheelSize]);
+        }
+        List<Entry<T>>[] buckets = levels.get(level);
+        if (buckets[slot] == null) {
+            buckets[slot] = new ArrayList<>();
+        }
+        return buckets[slot];
+    }
+
+    private long span(int level) {
+        long span = 1;
+        for (int i = 0; i < level; i++) {
+            span *= wheelSize;
+        }
+        return span;
+    }
+
+    private int slot(long ticks) {
+        return (int) Math.floorMod(ticks, (long) wheelSize);
+    }
+}
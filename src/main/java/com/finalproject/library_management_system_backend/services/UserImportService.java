@@ -0,0 +1,337 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finalproject.library_management_system_backend.dtos.RegisterUserRequest;
+import com.finalproject.library_management_system_backend.dtos.UserImportReport;
+import com.finalproject.library_management_system_backend.events.UserChangedEvent;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.model.UserType;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import com.finalproject.library_management_system_backend.security.BoundedPasswordEncoder;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+/**
+ * Creates users in bulk from a CSV or NDJSON stream.
+ * <p>
+ * Rows are read line by line and collected into batches. For each batch
+ * the emails already taken are found with a single {@code IN} query, the
+ * passwords of the remaining rows are hashed in parallel on a fork-join
+ * pool, and the users are inserted in one transaction with JDBC batching
+ * (user IDs come from a pooled table generator, as for books). A batch
+ * the database rejects is retried row by row. Every row gets an entry in
+ * the report, in upload order.
+ * <p>
+ * Hashing bypasses the bounded pool that serves logins on purpose: an
+ * import is an admin operation that should use every core it is given,
+ * and it must not fill the login queue so that members get 503s.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    private static final int MAX_NAME_LENGTH = 50;
+    private static final int MAX_EMAIL_LENGTH = 100;
+    private static final String DEFAULT_USER_TYPE = "User";
+
+    private record PendingRow(UserImportReport.RowResult result, RegisterUserRequest request) {
+    }
+
+    private record HashedRow(PendingRow row, String passwordHash) {
+    }
+
+    private interface RowParser {
+        RegisterUserRequest parse(String line) throws JsonProcessingException;
+    }
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final UserTypeRepository userTypeRepository;
+    private final PasswordEncoder hasher;
+    private final ObjectMapper objectMapper;
+    private final LibraryStatsService libraryStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int hashParallelism;
+
+    public UserImportService(EntityManager entityManager,
+                             TransactionTemplate transactionTemplate,
+                             UserRepository userRepository,
+                             UserTypeRepository userTypeRepository,
+                             BoundedPasswordEncoder passwordEncoder,
+                             ObjectMapper objectMapper,
+                             LibraryStatsService libraryStatsService,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${library.import.batch-size:1000}") int batchSize,
+                             @Value("${library.import.hash-parallelism:0}") int hashParallelism) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.userTypeRepository = userTypeRepository;
+        this.hasher = passwordEncoder.getDelegate();
+        this.objectMapper = objectMapper;
+        this.libraryStatsService = libraryStatsService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.hashParallelism = hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Reads users from {@code input} and creates every valid, new one.
+     * <p>
+     * CSV input needs a header row naming the columns {@code firstName},
+     * {@code lastName}, {@code email}, {@code password} and optionally
+     * {@code userTypeId}, in any order. NDJSON input has one
+     * {@link RegisterUserRequest} object per line. Rows without a user
+     * type get the regular member type.
+     *
+     * @param input  the upload; read to the end but not closed
+     * @param format how each line is encoded
+     * @return the outcome of every row
+     * @throws ResponseStatusException if the CSV header is missing a required column
+     */
+    public UserImportReport importUsers(InputStream input, ImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        UserImportReport report = new UserImportReport();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        Map<Long, UserType> userTypes = userTypeRepository.findAll().stream()
+                .collect(Collectors.toMap(UserType::getId, type -> type));
+        Long defaultType = userTypes.values().stream()
+                .filter(type -> DEFAULT_USER_TYPE.equals(type.getTypeName()))
+                .map(UserType::getId)
+                .findFirst()
+                .orElse(null);
+
+        long lineNumber = 0;
+        RowParser parser;
+        if (format == ImportFormat.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                return finish(report, start);
+            }
+            parser = csvParser(header);
+        } else {
+            parser = line -> objectMapper.readValue(line, RegisterUserRequest.class);
+        }
+
+        ForkJoinPool hashingPool = new ForkJoinPool(hashParallelism);
+        try {
+            Map<String, Long> seenEmails = new HashMap<>();
+            List<PendingRow> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                report.setRowsRead(report.getRowsRead() + 1);
+
+                UserImportReport.RowResult result = new UserImportReport.RowResult();
+                result.setLine(lineNumber);
+                report.getRows().add(result);
+
+                try {
+                    RegisterUserRequest request = parser.parse(line);
+                    result.setEmail(request.getEmail());
+                    validate(request);
+                    if (request.getUserTypeId() == null) {
+                        request.setUserTypeId(defaultType);
+                    }
+                    if (!userTypes.containsKey(request.getUserTypeId())) {
+                        throw new IllegalArgumentException("userTypeId " + request.getUserTypeId() + " does not exist");
+                    }
+
+                    Long firstLine = seenEmails.putIfAbsent(normalize(request.getEmail()), lineNumber);
+                    if (firstLine != null) {
+                        mark(report, result, UserImportReport.Outcome.DUPLICATE, "Same email as line " + firstLine);
+                    } else {
+                        batch.add(new PendingRow(result, request));
+                    }
+                } catch (IllegalArgumentException e) {
+                    mark(report, result, UserImportReport.Outcome.INVALID, e.getMessage());
+                } catch (JsonProcessingException e) {
+                    mark(report, result, UserImportReport.Outcome.INVALID, "Malformed JSON: " + e.getOriginalMessage());
+                }
+
+                if (batch.size() == batchSize) {
+                    process(batch, report, hashingPool);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                process(batch, report, hashingPool);
+            }
+        } finally {
+            hashingPool.shutdown();
+        }
+
+        return finish(report, start);
+    }
+
+    private void process(List<PendingRow> batch, UserImportReport report, ForkJoinPool hashingPool) {
+        Set<String> taken = userRepository.findExistingEmails(batch.stream().map(row -> row.request().getEmail()).toList())
+                .stream()
+                .map(UserImportService::normalize)
+                .collect(Collectors.toSet());
+
+        List<PendingRow> fresh = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            if (taken.contains(normalize(row.request().getEmail()))) {
+                mark(report, row.result(), UserImportReport.Outcome.DUPLICATE, "Email is already registered");
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<HashedRow> hashed = hashingPool.invoke(ForkJoinTask.adapt(() -> fresh.parallelStream()
+                .map(row -> new HashedRow(row, hasher.encode(row.request().getPassword())))
+                .toList()));
+        ImportRows.insert(hashed,
+                rows -> created(rows, insertAll(rows), report),
+                (row, reason) -> mark(report, row.row().result(), UserImportReport.Outcome.FAILED, reason));
+    }
+
+    private List<User> insertAll(List<HashedRow> rows) {
+        return transactionTemplate.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.setJdbcBatchSize(batchSize);
+            session.setCacheMode(CacheMode.IGNORE);
+
+            List<User> created = new ArrayList<>(rows.size());
+            for (HashedRow row : rows) {
+                RegisterUserRequest request = row.row().request();
+                User user = User.builder()
+                        .firstName(request.getFirstName())
+                        .lastName(request.getLastName())
+                        .email(request.getEmail())
+                        .password(row.passwordHash())
+                        .userType(entityManager.getReference(UserType.class, request.getUserTypeId()))
+                        .build();
+                entityManager.persist(user);
+                created.add(user);
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            libraryStatsService.recordUsersCreated(created.size());
+            for (User user : created) {
+                eventPublisher.publishEvent(UserChangedEvent.created(user.getId(), user.getEmail()));
+            }
+            return created;
+        });
+    }
+
+    private static void created(List<HashedRow> rows, List<User> users, UserImportReport report) {
+        for (int i = 0; i < rows.size(); i++) {
+            UserImportReport.RowResult result = rows.get(i).row().result();
+            result.setUserId(users.get(i).getId());
+            mark(report, result, UserImportReport.Outcome.CREATED, null);
+        }
+    }
+
+    private UserImportReport finish(UserImportReport report, long start) {
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Imported {} of {} users in {} ms ({} duplicate, {} invalid, {} failed)",
+                report.getCreated(), report.getRowsRead(), report.getElapsedMillis(),
+                report.getDuplicates(), report.getInvalid(), report.getFailed());
+        return report;
+    }
+
+    private static void mark(UserImportReport report, UserImportReport.RowResult result,
+                             UserImportReport.Outcome outcome, String message) {
+        result.setOutcome(outcome);
+        result.setMessage(message);
+        switch (outcome) {
+            case CREATED -> report.setCreated(report.getCreated() + 1);
+            case DUPLICATE -> report.setDuplicates(report.getDuplicates() + 1);
+            case INVALID -> report.setInvalid(report.getInvalid() + 1);
+            case FAILED -> report.setFailed(report.getFailed() + 1);
+        }
+    }
+
+    private static void validate(RegisterUserRequest request) {
+        requireText("firstName", request.getFirstName(), MAX_NAME_LENGTH);
+        requireText("lastName", request.getLastName(), MAX_NAME_LENGTH);
+        requireText("email", request.getEmail(), MAX_EMAIL_LENGTH);
+        if (request.getEmail().indexOf('@') < 1) {
+            throw new IllegalArgumentException("email is not a valid address");
+        }
+        if (request.getPassword() == null || request.getPassword().isEmpty()) {
+            throw new IllegalArgumentException("password is required");
+        }
+    }
+
+    private static void requireText(String field, String value, int maxLength) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(field + " is longer than " + maxLength + " characters");
+        }
+    }
+
+    /**
+     * Emails are compared case-insensitively, as the default MySQL collation does.
+     */
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Builds a parser for the data rows from the header row.
+     */
+    private static RowParser csvParser(String header) {
+        ImportRows.CsvColumns columns = ImportRows.csvColumns(header,
+                List.of("firstName", "lastName", "email", "password"));
+
+        return line -> {
+            List<String> fields = columns.split(line);
+            RegisterUserRequest request = new RegisterUserRequest();
+            request.setFirstName(columns.text(fields, "firstName"));
+            request.setLastName(columns.text(fields, "lastName"));
+            request.setEmail(columns.text(fields, "email"));
+            request.setPassword(columns.raw(fields, "password"));
+            String userTypeId = columns.text(fields, "userTypeId");
+            if (userTypeId != null) {
+                try {
+                    request.setUserTypeId(Long.valueOf(userTypeId));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("userTypeId must be a whole number");
+                }
+            }
+            return request;
+        };
+    }
+}
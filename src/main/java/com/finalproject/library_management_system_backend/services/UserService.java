@@ -1,47 +1,79 @@
 package com.finalproject.library_management_system_backend.services;
 
 
+import com.finalproject.library_management_system_backend.dtos.CursorPage;
 import com.finalproject.library_management_system_backend.dtos.RegisterUserRequest;
 import com.finalproject.library_management_system_backend.dtos.UserDto;
+import com.finalproject.library_management_system_backend.events.UserChangedEvent;
 import com.finalproject.library_management_system_backend.mappers.UserMapper;
 import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.pagination.KeysetPaginator;
 import com.finalproject.library_management_system_backend.repositories.UserRepository;
-import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.RequestBody;
-import com.finalproject.library_management_system_backend.model.Reservation;
-import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 /**
  * Handles operations related to user accounts, including creation,
- * retrieval, and deletion. Ensures related reservations are handled
- * consistently when accounts are removed.
+ * retrieval, and deletion. Deleted accounts are purged together with
+ * their reservations by {@link DeletedRecordPurger}.
  */
 
 @Service
 @AllArgsConstructor
 public class UserService {
 
+    private static final Map<String, Class<?>> SORT_KEYS = Map.of(
+            "id", Long.class,
+            "firstName", String.class,
+            "lastName", String.class,
+            "email", String.class
+    );
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private final ReservationRepository reservationRepository;
-    private final EntityManager entityManager;
+    private final KeysetPaginator keysetPaginator;
+    private final LibraryStatsService libraryStatsService;
+    private final CachedUserDetailsService userDetailsService;
+    private final BookWaitlist bookWaitlist;
+    private final ApplicationEventPublisher eventPublisher;
 
+        /**
+     * Retrieves one page of users ordered by an indexed sort key.
+     *
+     * @param sort   the field to sort by: id, firstName, lastName or email
+     * @param size   the maximum number of users to return
+     * @param cursor the cursor from the previous page, or {@code null} for the first page
+     * @return the page of users and the cursor for the next one
+     * @throws org.springframework.web.server.ResponseStatusException if the sort key or cursor is invalid
+     */
+    public CursorPage<UserDto> getUsers(String sort, Integer size, String cursor) {
+        Sort order = keysetPaginator.resolveSort(sort, SORT_KEYS);
+        var window = userRepository.findAllBy(
+                keysetPaginator.decode(cursor, order, SORT_KEYS), order, keysetPaginator.resolveLimit(size));
+        return keysetPaginator.toPage(window, userMapper::toDto);
+    }
 
         /**
      * Retrieves user details based on the provided email address.
+     * Served from the user cache shared with authentication.
      *
      * @param email the user’s email
      * @return a {@link UserDto} containing the user’s information
-     * @throws java.util.NoSuchElementException if no user is found
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException if no user is found
      */
     public UserDto getUserDetailsByEmail(String email){
-        var userEntity = userRepository.findByEmail(email).orElseThrow();
-        return userMapper.toDto(userEntity);
+        var account = userDetailsService.loadUserByEmail(email);
+        return userMapper.toDto(account);
     }
 
 
@@ -51,11 +83,21 @@ public class UserService {
      * @param request contains registration details such as
      *                first name, last name, email, and user type
      * @return the created user as a DTO
+     * @throws ResponseStatusException if the email is taken, including by
+     *                                 a deleted user that is not purged yet
      */
     @Transactional
     public UserDto createUser(@RequestBody RegisterUserRequest request){
         var userEntity = userMapper.toEntity(request);
-        entityManager.persist(userEntity);
+        try {
+            userEntity = userRepository.saveAndFlush(userEntity);
+        } catch (DataIntegrityViolationException e) {
+            // A soft-deleted account keeps its email until it is purged.
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT, "An account with this email already exists or was recently deleted.");
+        }
+        libraryStatsService.recordUserCreated();
+        eventPublisher.publishEvent(UserChangedEvent.created(userEntity.getId(), userEntity.getEmail()));
         return userMapper.toDto(userEntity);
  }
 
@@ -66,7 +108,10 @@ public class UserService {
      * Additional rules:
      * <ul>
      *     <li>Administrator accounts cannot be deleted</li>
-     *     <li>All of the user’s reservations are removed before deleting the account</li>
+     *     <li>The account is flagged as deleted at once, so it can no longer
+     *     log in, and is taken off every waitlist; the row and the user’s
+     *     reservations are removed in the background by
+     *     {@link DeletedRecordPurger}</li>
      * </ul>
      *
      * @param userId the ID of the user to delete
@@ -81,12 +126,10 @@ public class UserService {
             throw new RuntimeException("Cannot delete an Administrator account.");
         }
 
-        List<Reservation> userReservations = reservationRepository.findByUserId(userId);
-        if (!userReservations.isEmpty()) {
-            reservationRepository.deleteAll(userReservations);
-        }
-
-        userRepository.deleteById(userId);
+        userRepository.markDeleted(userId, LocalDateTime.now());
+        bookWaitlist.dropUser(userId);
+        libraryStatsService.recordUserDeleted();
+        eventPublisher.publishEvent(UserChangedEvent.deleted(userId, user.getEmail()));
     }
 
 }
@@ -0,0 +1,9 @@
+-- One index per way the application reads reservations:
+--   (status, expected_return_date)  overdue sweep, per-status dashboard counts
+--   (user_id, status)               a user's reservations, purge by user
+--   (book_id, status)               borrow counts per book, purge and existence checks by book
+-- The last two also serve the foreign keys, so MySQL drops the single-column
+-- indexes it created for them.
+CREATE INDEX idx_reservation_status_expected_return ON reservation (status, expected_return_date);
+CREATE INDEX idx_reservation_user_status ON reservation (user_id, status);
+CREATE INDEX idx_reservation_book_status ON reservation (book_id, status);
@@ -0,0 +1,18 @@
+-- Finished reservations (RETURNED, LATE_RETURNED, CANCELED) are moved here by
+-- ReservationArchiver once they are old enough, keeping the reservation
+-- table down to the active working set. Rows keep their original IDs.
+CREATE TABLE reservation_archive (
+                             id BIGINT PRIMARY KEY,
+                             user_id BIGINT NOT NULL,
+                             book_id BIGINT NOT NULL,
+                             status ENUM('RESERVED','BORROWED','LATE','RETURNED','CANCELED','OVERDUE','LATE_RETURNED') NOT NULL,
+                             reservation_date DATETIME NOT NULL,
+                             expected_return_date DATETIME NOT NULL,
+                             return_date DATETIME,
+                             archived_at DATETIME NOT NULL,
+                             FOREIGN KEY (user_id) REFERENCES users(id),
+                             FOREIGN KEY (book_id) REFERENCES books(id)
+);
+
+CREATE INDEX idx_reservation_archive_user_date ON reservation_archive (user_id, reservation_date);
+CREATE INDEX idx_reservation_archive_book_status ON reservation_archive (book_id, status);
@@ -0,0 +1,15 @@
+-- Readers waiting for a book with no copy left, served first come, first
+-- served in id order. A copy freed by a return or cancellation goes straight
+-- to the oldest entry, which is deleted as its hold is created. Entries go
+-- with their book or user when the purger removes those.
+CREATE TABLE book_waitlist (
+                               id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                               book_id BIGINT NOT NULL,
+                               user_id BIGINT NOT NULL,
+                               created_at DATETIME NOT NULL,
+                               CONSTRAINT uk_book_waitlist_book_user UNIQUE (book_id, user_id),
+                               FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE,
+                               FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_book_waitlist_user ON book_waitlist (user_id);
@@ -0,0 +1,4 @@
+-- The status column predates ReservationStatus gaining OVERDUE, CANCELED and
+-- LATE_RETURNED. Allow every value the application writes or queries for.
+ALTER TABLE reservation MODIFY status
+    ENUM('RESERVED', 'BORROWED', 'LATE', 'RETURNED', 'CANCELED', 'OVERDUE', 'LATE_RETURNED') NOT NULL;
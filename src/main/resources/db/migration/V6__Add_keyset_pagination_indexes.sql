@@ -0,0 +1,8 @@
+CREATE INDEX idx_books_title_id ON books (title, id);
+CREATE INDEX idx_books_author_id ON books (author, id);
+CREATE INDEX idx_books_publication_year_id ON books (publication_year, id);
+
+CREATE INDEX idx_users_first_name_id ON users (first_name, id);
+CREATE INDEX idx_users_last_name_id ON users (last_name, id);
+
+CREATE INDEX idx_reservation_reservation_date_id ON reservation (reservation_date, id);
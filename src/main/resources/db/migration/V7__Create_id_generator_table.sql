@@ -0,0 +1,11 @@
+-- Hands out primary keys in blocks so Hibernate can batch inserts, which
+-- AUTO_INCREMENT prevents. next_val is the last ID of the next block, so
+-- each row must start at least one allocation (1000) past the table's
+-- current maximum ID.
+CREATE TABLE id_generator (
+    sequence_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'books', COALESCE(MAX(id), 0) + 1000 FROM books;
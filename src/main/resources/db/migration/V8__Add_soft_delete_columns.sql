@@ -0,0 +1,7 @@
+-- Deleting a book or user only stamps deleted_at; DeletedRecordPurger
+-- removes the row and its reservations later, in small chunks.
+ALTER TABLE books ADD COLUMN deleted_at DATETIME NULL;
+ALTER TABLE users ADD COLUMN deleted_at DATETIME NULL;
+
+CREATE INDEX idx_books_deleted_at ON books (deleted_at);
+CREATE INDEX idx_users_deleted_at ON users (deleted_at);
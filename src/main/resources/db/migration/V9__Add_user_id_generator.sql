@@ -0,0 +1,4 @@
+-- User IDs come from id_generator like book IDs, so bulk imports can
+-- batch their inserts. See V7 for why next_val starts one block past MAX(id).
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'users', COALESCE(MAX(id), 0) + 1000 FROM users;
@@ -0,0 +1,163 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.CreateReservationRequest;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Opens availability streams, reserves a title several times between two
+ * flushes and checks that its followers get a single event with the final
+ * figures while followers of other titles get nothing.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookAvailabilityFeedTest {
+
+    private static final String MARKER = "AvailabilityFeed";
+    private static final Pattern EVENT = Pattern.compile("event:availability");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookAvailabilityFeed feed;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Book hot;
+    private Book quiet;
+
+    @BeforeEach
+    void setUp() {
+        hot = book("Hot Title", 5);
+        quiet = book("Quiet Title", 2);
+        // Drops changes left behind by other tests sharing the context.
+        feed.flush();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from reservation where book_id in (select id from books where author = ?)", MARKER);
+        jdbcTemplate.update("delete from books where author = ?", MARKER);
+        jdbcTemplate.update("delete from users where last_name = ?", MARKER);
+    }
+
+    @Test
+    void flush_coalescesBurstIntoOneEventPerFollower() throws Exception {
+        MockHttpServletResponse hotStream = open(hot.getId());
+        MockHttpServletResponse quietStream = open(quiet.getId());
+        MockHttpServletResponse everyStream = open(null);
+
+        awaitEvents(hotStream, 1);
+        awaitEvents(quietStream, 1);
+        assertTrue(hotStream.getContentAsString().contains("\"availableCopies\":5"));
+
+        for (String reader : List.of("first", "second", "third")) {
+            reserve(hot, user(reader));
+        }
+        feed.flush();
+
+        awaitEvents(hotStream, 2);
+        awaitEvents(everyStream, 1);
+        assertTrue(hotStream.getContentAsString().endsWith("{\"bookId\":" + hot.getId()
+                + ",\"availableCopies\":2,\"totalCopies\":5}\n\n"));
+        assertTrue(everyStream.getContentAsString().contains("\"availableCopies\":2"));
+
+        feed.flush();
+        Thread.sleep(200);
+        assertEquals(2, events(hotStream));
+        assertEquals(1, events(everyStream));
+        assertEquals(1, events(quietStream));
+    }
+
+    @Test
+    void subscribe_rejectsTooManyBooks() throws Exception {
+        var stream = get("/books/availability/stream");
+        for (long id = 1; id <= 101; id++) {
+            stream.param("bookId", Long.toString(id));
+        }
+        assertEquals(400, mockMvc.perform(stream).andReturn().getResponse().getStatus());
+    }
+
+    private MockHttpServletResponse open(Long bookId) throws Exception {
+        var stream = get("/books/availability/stream");
+        if (bookId != null) {
+            stream.param("bookId", bookId.toString());
+        }
+        return mockMvc.perform(stream)
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private void awaitEvents(MockHttpServletResponse stream, int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (events(stream) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, events(stream));
+    }
+
+    private int events(MockHttpServletResponse stream) throws Exception {
+        return (int) EVENT.matcher(stream.getContentAsString()).results().count();
+    }
+
+    private void reserve(Book book, User user) {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setBookId(book.getId());
+        reservationService.createReservation(request, AuthenticatedUser.from(user));
+    }
+
+    private Book book(String title, int copies) {
+        return bookRepository.save(Book.builder()
+                .title(title)
+                .author(MARKER)
+                .publicationYear(2020)
+                .totalCopies(copies)
+                .availableCopies(copies)
+                .build());
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder()
+                .firstName(name)
+                .lastName(MARKER)
+                .email(name + "@availability.example.com")
+                .password("hash")
+                .userType(userTypeRepository.findByTypeName("User").orElseThrow())
+                .build());
+    }
+}
@@ -0,0 +1,164 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.config.CacheConfig;
+import com.finalproject.library_management_system_backend.dtos.CacheStatistics;
+import com.finalproject.library_management_system_backend.dtos.CreateBookRequest;
+import com.finalproject.library_management_system_backend.dtos.CreateReservationRequest;
+import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that repeated book lookups skip the database and that every
+ * mutation of a book or its availability is visible on the next lookup.
+ */
+@SpringBootTest
+class BookCacheTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CacheMetricsService cacheMetricsService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Book book;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cacheManager.getCache(CacheConfig.BOOKS).clear();
+
+        book = bookRepository.save(Book.builder()
+                .title("Cached Title")
+                .author("Author")
+                .publicationYear(2020)
+                .totalCopies(2)
+                .availableCopies(2)
+                .build());
+        user = userRepository.save(User.builder()
+                .firstName("Cache")
+                .lastName("Tester")
+                .email("cache@example.com")
+                .password("hash")
+                .userType(userTypeRepository.findByTypeName("User").orElseThrow())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAllById(reservationRepository.findIdsByUserId(user.getId(), Limit.unlimited()));
+        userRepository.deleteById(user.getId());
+        jdbcTemplate.update("delete from books where id = ?", book.getId());
+    }
+
+    @Test
+    void repeatedLookups_hitTheCache() {
+        assertEquals(1, statementsFor(() -> bookService.getBookById(book.getId())));
+        assertEquals(0, statementsFor(() -> bookService.getBookById(book.getId())));
+
+        CacheStatistics books = cacheMetricsService.getCacheStatistics().stream()
+                .filter(stats -> stats.getName().equals(CacheConfig.BOOKS))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(books.getHits() >= 1);
+        assertTrue(books.getMisses() >= 1);
+    }
+
+    @Test
+    void updateAndDelete_evictTheEntry() {
+        bookService.getBookById(book.getId());
+
+        CreateBookRequest request = new CreateBookRequest();
+        request.setTitle("Renamed Title");
+        request.setAuthor("Author");
+        request.setPublicationYear(2021);
+        request.setTotalCopies(3);
+        bookService.updateBook(book.getId(), request);
+
+        assertEquals("Renamed Title", bookService.getBookById(book.getId()).getTitle());
+        assertEquals(3, bookService.getBookById(book.getId()).getAvailableCopies());
+
+        bookService.deleteBook(book.getId());
+        assertThrows(ResponseStatusException.class, () -> bookService.getBookById(book.getId()));
+    }
+
+    @Test
+    void reservationTransitions_evictAvailability() {
+        assertEquals(2, bookService.getBookById(book.getId()).getAvailableCopies());
+
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setBookId(book.getId());
+        ReservationDto reservation = reservationService.createReservation(request, AuthenticatedUser.from(user));
+        assertEquals(1, bookService.getBookById(book.getId()).getAvailableCopies());
+
+        reservationService.collectBook(reservation.getId());
+        assertEquals(1, bookService.getBookById(book.getId()).getAvailableCopies());
+
+        reservationService.returnBook(reservation.getId());
+        assertEquals(2, bookService.getBookById(book.getId()).getAvailableCopies());
+    }
+
+    @Test
+    void changesMadeByOtherInstances_areBoundedByAShortTtl() {
+        // Only evictions made here reach this cache; expiry covers the rest.
+        CaffeineCache books = (CaffeineCache) cacheManager.getCache(CacheConfig.BOOKS);
+        Duration ttl = books.getNativeCache().policy().expireAfterWrite().orElseThrow().getExpiresAfter();
+
+        assertTrue(ttl.compareTo(Duration.ofSeconds(30)) <= 0);
+    }
+
+    private long statementsFor(Runnable action) {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,139 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.BookImportReport;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports CSV and NDJSON uploads into the embedded database and checks
+ * the per-row report.
+ */
+@Slf4j
+@SpringBootTest
+class BookImportServiceTest {
+
+    private static final String AUTHOR = "Import Test Author";
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from books where author = ?", AUTHOR);
+    }
+
+    @Test
+    void csv_importsValidRowsAndReportsInvalidOnes() throws Exception {
+        String csv = String.join("\n",
+                "totalCopies,title,author,publicationYear",
+                "3,\"Dune, Part One\"," + AUTHOR + ",1965",
+                "2,Missing Author,,2001",
+                "",
+                "x,Bad Copies," + AUTHOR + ",2001",
+                "1,Too Few Fields",
+                "5,\"He said \"\"hi\"\"\"," + AUTHOR + ",1999");
+
+        BookImportReport report = bookImportService.importBooks(stream(csv), ImportFormat.CSV);
+
+        assertEquals(5, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of(3L, 5L, 6L), report.getErrors().stream().map(BookImportReport.RowError::getLine).toList());
+        assertEquals("author is required", report.getErrors().get(0).getMessage());
+
+        List<Book> books = importedBooks();
+        assertEquals(List.of("Dune, Part One", "He said \"hi\""), books.stream().map(Book::getTitle).sorted().toList());
+        assertTrue(books.stream().allMatch(book -> book.getAvailableCopies().equals(book.getTotalCopies())));
+    }
+
+    @Test
+    void ndjson_importsValidRowsAndReportsMalformedOnes() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"title\":\"First\",\"author\":\"" + AUTHOR + "\",\"publicationYear\":2020,\"totalCopies\":1}",
+                "{\"title\":\"Broken\",",
+                "{\"title\":\"No Copies\",\"author\":\"" + AUTHOR + "\",\"publicationYear\":2020}");
+
+        BookImportReport report = bookImportService.importBooks(stream(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getErrors().get(0).getLine());
+        assertEquals("totalCopies must be zero or more", report.getErrors().get(1).getMessage());
+        assertEquals(1, importedBooks().size());
+    }
+
+    @Test
+    void csv_batchRejectedByDatabase_retriesRowByRowAndReportsOnlyTheRejectedRow() throws Exception {
+        jdbcTemplate.execute("alter table books add constraint chk_import_test check (title <> 'Rejected')");
+        try {
+            String csv = String.join("\n",
+                    "title,author,publicationYear,totalCopies",
+                    "First," + AUTHOR + ",2001,1",
+                    "Rejected," + AUTHOR + ",2002,1",
+                    "Third," + AUTHOR + ",2003,1");
+
+            BookImportReport report = bookImportService.importBooks(stream(csv), ImportFormat.CSV);
+
+            assertEquals(3, report.getRowsRead());
+            assertEquals(2, report.getImported());
+            assertEquals(1, report.getFailed());
+            assertEquals(3, report.getErrors().get(0).getLine());
+            assertTrue(report.getErrors().get(0).getMessage().startsWith("Insert failed: "));
+            assertEquals(List.of("First", "Third"), importedBooks().stream().map(Book::getTitle).sorted().toList());
+        } finally {
+            jdbcTemplate.execute("alter table books drop constraint chk_import_test");
+        }
+    }
+
+    @Test
+    void csv_withoutRequiredColumn_isRejected() {
+        assertThrows(ResponseStatusException.class, () -> bookImportService.importBooks(
+                stream("title,author\nA,B"), ImportFormat.CSV));
+    }
+
+    @Test
+    void csv_largeUpload_reportThroughput() throws Exception {
+        int rows = 50_000;
+        StringBuilder csv = new StringBuilder("title,author,publicationYear,totalCopies\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("Title ").append(i).append(',').append(AUTHOR).append(",2000,1\n");
+        }
+
+        BookImportReport report = bookImportService.importBooks(stream(csv.toString()), ImportFormat.CSV);
+
+        assertEquals(rows, report.getImported());
+        assertEquals(rows, jdbcTemplate.queryForObject("select count(*) from books where author = ?", Long.class, AUTHOR));
+        log.info("Book import: {} rows in {} ms ({} rows/sec)",
+                rows, report.getElapsedMillis(), rows * 1000L / Math.max(1, report.getElapsedMillis()));
+    }
+
+    private List<Book> importedBooks() {
+        return bookRepository.findAll().stream()
+                .filter(book -> AUTHOR.equals(book.getAuthor()))
+                .toList();
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
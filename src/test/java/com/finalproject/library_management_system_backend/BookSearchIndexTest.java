@@ -0,0 +1,90 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.BookDto;
+import com.finalproject.library_management_system_backend.dtos.BookSearchHit;
+import com.finalproject.library_management_system_backend.dtos.SearchPage;
+import com.finalproject.library_management_system_backend.events.BookChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex(null, null);
+        index.index(book(1L, "The Hobbit", "J. R. R. Tolkien"));
+        index.index(book(2L, "The Lord of the Rings", "J. R. R. Tolkien"));
+        index.index(book(3L, "Jane Eyre", "Charlotte Brontë"));
+        index.index(book(4L, "Tolkien: A Biography", "Humphrey Carpenter"));
+    }
+
+    @Test
+    void search_matchesPrefixesAndRanksTitleMatchesFirst() {
+        SearchPage<BookSearchHit> result = index.search("tolk", 0, 10);
+
+        assertEquals(3, result.getTotalHits());
+        assertEquals(4L, result.getItems().get(0).getId());
+    }
+
+    @Test
+    void search_requiresEveryTermAndIgnoresCaseAndAccents() {
+        assertEquals(List.of(3L), ids(index.search("BRONTE jane", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("lord tolkien", 0, 10)));
+        assertTrue(index.search("hobbit bronte", 0, 10).getItems().isEmpty());
+    }
+
+    @Test
+    void search_paginatesRankedHits() {
+        SearchPage<BookSearchHit> second = index.search("tolkien", 1, 2);
+
+        assertEquals(3, second.getTotalHits());
+        assertEquals(1, second.getItems().size());
+    }
+
+    @Test
+    void search_pagesMatchTheFullRanking() {
+        for (long id = 10; id < 60; id++) {
+            index.index(book(id, "Volume " + (id % 7) + " of Tolkien Letters", id % 3 == 0 ? "Tolkien" : "Editor"));
+        }
+        List<Long> all = ids(index.search("tolkien", 0, 100));
+
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; page < 8; page++) {
+            paged.addAll(ids(index.search("tolkien", page, 7)));
+        }
+
+        assertEquals(53, all.size());
+        assertEquals(all, paged);
+        assertTrue(index.search("tolkien", 8, 7).getItems().isEmpty());
+    }
+
+    @Test
+    void onBookChanged_updatesAndRemovesDocuments() {
+        index.onBookChanged(BookChangedEvent.updated(book(1L, "There and Back Again", "J. R. R. Tolkien")));
+        assertTrue(index.search("hobbit", 0, 10).getItems().isEmpty());
+        assertEquals(List.of(1L), ids(index.search("there back", 0, 10)));
+
+        index.onBookChanged(BookChangedEvent.deleted(1L));
+        assertTrue(index.search("there", 0, 10).getItems().isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    private static List<Long> ids(SearchPage<BookSearchHit> page) {
+        return page.getItems().stream().map(BookSearchHit::getId).toList();
+    }
+
+    private static BookDto book(Long id, String title, String author) {
+        BookDto dto = new BookDto();
+        dto.setId(id);
+        dto.setTitle(title);
+        dto.setAuthor(author);
+        return dto;
+    }
+}
@@ -2,11 +2,10 @@ package com.finalproject.library_management_system_backend.services;
 
 import com.finalproject.library_management_system_backend.dtos.BookDto;
 import com.finalproject.library_management_system_backend.dtos.CreateBookRequest;
+import com.finalproject.library_management_system_backend.events.BookChangedEvent;
 import com.finalproject.library_management_system_backend.mappers.BookMapper;
 import com.finalproject.library_management_system_backend.model.Book;
-import com.finalproject.library_management_system_backend.model.Reservation;
 import com.finalproject.library_management_system_backend.repositories.BookRepository;
-import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
@@ -14,11 +13,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Collections;
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,10 +33,25 @@ class BookServiceTest {
     private BookMapper bookMapper;
 
     @Mock
-    private ReservationRepository reservationRepository;
+    private EntityManager entityManager;
 
     @Mock
-    private EntityManager entityManager;
+    private LibraryStatsService libraryStatsService;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private BookSuggester bookSuggester;
+
+    @Mock
+    private BookWaitlist bookWaitlist;
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private BookService bookService;
@@ -77,6 +91,7 @@ class BookServiceTest {
         verify(bookRepository).save(bookEntity);
         verify(bookMapper).toEntity(request);
         verify(bookMapper).toBookDto(savedBook);
+        verify(eventPublisher).publishEvent(BookChangedEvent.created(dto));
     }
 
     @Test
@@ -130,7 +145,7 @@ class BookServiceTest {
         existing.setTotalCopies(5);
         existing.setAvailableCopies(3);
 
-        when(bookRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(bookRepository.findForUpdateById(id)).thenReturn(Optional.of(existing));
 
         CreateBookRequest request = new CreateBookRequest();
         request.setTitle("New Title");
@@ -159,6 +174,33 @@ class BookServiceTest {
 
         verify(bookRepository).save(existing);
         verify(bookMapper).toBookDto(savedBook);
+        verify(eventPublisher).publishEvent(BookChangedEvent.updated(dto));
+    }
+
+    @Test
+    void updateBook_withReadersWaiting_handsAddedCopiesToThemFirst() {
+        // arrange
+        Long id = 1L;
+
+        Book existing = new Book();
+        existing.setId(id);
+        existing.setTotalCopies(2);
+        existing.setAvailableCopies(0);
+
+        when(bookRepository.findForUpdateById(id)).thenReturn(Optional.of(existing));
+        when(reservationService.handOutAddedCopies(id, 3)).thenReturn(1);
+        when(bookRepository.save(existing)).thenReturn(existing);
+        when(bookMapper.toBookDto(existing)).thenReturn(new BookDto());
+
+        CreateBookRequest request = new CreateBookRequest();
+        request.setTotalCopies(5); // +3, one of them to the waiting reader
+
+        // act
+        bookService.updateBook(id, request);
+
+        // assert
+        assertEquals(5, existing.getTotalCopies());
+        assertEquals(2, existing.getAvailableCopies());
     }
 
     @Test
@@ -171,7 +213,7 @@ class BookServiceTest {
         existing.setTotalCopies(5);
         existing.setAvailableCopies(0); // everything borrowed
 
-        when(bookRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(bookRepository.findForUpdateById(id)).thenReturn(Optional.of(existing));
 
         CreateBookRequest request = new CreateBookRequest();
         request.setTotalCopies(3); // reduce by 2 -> newAvailable = -2
@@ -184,13 +226,14 @@ class BookServiceTest {
 
         assertTrue(ex.getMessage().startsWith("Cannot reduce total copies."));
         verify(bookRepository, never()).save(any(Book.class));
+        verifyNoInteractions(reservationService);
     }
 
     @Test
     void updateBook_whenBookNotFound_throwsEntityNotFoundException() {
         // arrange
         Long id = 1L;
-        when(bookRepository.findById(id)).thenReturn(Optional.empty());
+        when(bookRepository.findForUpdateById(id)).thenReturn(Optional.empty());
 
         CreateBookRequest request = new CreateBookRequest();
         request.setTotalCopies(5);
@@ -204,7 +247,7 @@ class BookServiceTest {
     void deleteBook_whenBookDoesNotExist_throwsResponseStatusException() {
         // arrange
         Long id = 1L;
-        when(bookRepository.existsById(id)).thenReturn(false);
+        when(bookRepository.markDeleted(eq(id), any(LocalDateTime.class))).thenReturn(0);
 
         // act + assert
         ResponseStatusException ex = assertThrows(
@@ -215,48 +258,22 @@ class BookServiceTest {
         assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
         assertEquals("Book not found", ex.getReason());
 
-        verify(reservationRepository, never()).deleteAll(anyList());
-        verify(bookRepository, never()).deleteById(anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
-    void deleteBook_withReservations_deletesReservationsThenBook() {
+    void deleteBook_flagsBookAndPublishesDeletion() {
         // arrange
         Long id = 1L;
-        when(bookRepository.existsById(id)).thenReturn(true);
-
-        // mock reservations pointing to this book
-        Book book = new Book();
-        book.setId(id);
-
-        Reservation r1 = mock(Reservation.class);
-        Reservation r2 = mock(Reservation.class);
-
-        when(r1.getBook()).thenReturn(book);
-        when(r2.getBook()).thenReturn(book);
-
-        when(reservationRepository.findAll()).thenReturn(List.of(r1, r2));
+        when(bookRepository.markDeleted(eq(id), any(LocalDateTime.class))).thenReturn(1);
 
         // act
         bookService.deleteBook(id);
 
         // assert
-        verify(reservationRepository).deleteAll(anyList());
-        verify(bookRepository).deleteById(id);
-    }
-
-    @Test
-    void deleteBook_withoutReservations_deletesBookOnly() {
-        // arrange
-        Long id = 1L;
-        when(bookRepository.existsById(id)).thenReturn(true);
-        when(reservationRepository.findAll()).thenReturn(Collections.emptyList());
-
-        // act
-        bookService.deleteBook(id);
-
-        // assert
-        verify(reservationRepository, never()).deleteAll(anyList());
-        verify(bookRepository).deleteById(id);
+        verify(eventPublisher).publishEvent(BookChangedEvent.deleted(id));
+        verify(libraryStatsService).recordBookDeleted();
+        verify(bookWaitlist).dropBook(id);
+        verify(bookRepository, never()).deleteById(anyLong());
     }
 }
@@ -0,0 +1,127 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.BookDto;
+import com.finalproject.library_management_system_backend.dtos.Suggestion;
+import com.finalproject.library_management_system_backend.events.BookChangedEvent;
+import com.finalproject.library_management_system_backend.events.ReservationStatusChangedEvent;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class BookSuggesterTest {
+
+    private BookSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new BookSuggester(null, null, null, 10);
+        suggester.put(1L, "The Hobbit", "J. R. R. Tolkien", 50L);
+        suggester.put(2L, "The Lord of the Rings", "J. R. R. Tolkien", 80L);
+        suggester.put(3L, "Jane Eyre", "Charlotte Brontë", 20L);
+        suggester.put(4L, "Tolkien: A Biography", "Humphrey Carpenter", 5L);
+    }
+
+    @Test
+    void suggest_ranksByBorrowCountAndMergesSharedAuthors() {
+        List<Suggestion> result = suggester.suggest("tolk", 10);
+
+        assertEquals(List.of("J. R. R. Tolkien", "Tolkien: A Biography"), texts(result));
+        assertEquals(130, result.get(0).getBorrowCount());
+        assertEquals(Suggestion.Type.AUTHOR, result.get(0).getType());
+    }
+
+    @Test
+    void suggest_matchesWordStartsAndIgnoresCaseAndAccents() {
+        assertEquals(List.of("The Lord of the Rings", "The Hobbit"), texts(suggester.suggest("THE", 10)));
+        assertEquals(List.of("The Hobbit"), texts(suggester.suggest("hob", 10)));
+        assertEquals(List.of("Charlotte Brontë"), texts(suggester.suggest("bronte", 10)));
+        assertTrue(suggester.suggest("xyz", 10).isEmpty());
+        assertTrue(suggester.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_appliesLimit() {
+        assertEquals(1, suggester.suggest("t", 1).size());
+    }
+
+    @Test
+    void collectingABook_raisesItsRank() {
+        for (int i = 0; i < 31; i++) {
+            suggester.onReservationStatusChanged(
+                    new ReservationStatusChangedEvent((long) i, 1L, ReservationStatus.RESERVED, ReservationStatus.BORROWED));
+        }
+        suggester.onReservationStatusChanged(
+                new ReservationStatusChangedEvent(99L, 2L, ReservationStatus.BORROWED, ReservationStatus.RETURNED));
+
+        assertEquals(List.of("The Hobbit", "The Lord of the Rings"), texts(suggester.suggest("the", 10)));
+    }
+
+    @Test
+    void onBookChanged_renamesKeepsCountAndRemoves() {
+        suggester.onBookChanged(BookChangedEvent.updated(book(1L, "There and Back Again", "J. R. R. Tolkien")));
+        assertTrue(suggester.suggest("hob", 10).isEmpty());
+        assertEquals(50, suggester.suggest("back", 10).get(0).getBorrowCount());
+
+        suggester.onBookChanged(BookChangedEvent.deleted(2L));
+        assertEquals(50, suggester.suggest("tolkien", 10).get(0).getBorrowCount());
+
+        suggester.onBookChanged(BookChangedEvent.deleted(1L));
+        assertEquals(List.of("Tolkien: A Biography"), texts(suggester.suggest("tolk", 10)));
+    }
+
+    @Test
+    void suggest_onLargeCatalog_answersInMicroseconds() {
+        BookSuggester large = new BookSuggester(null, null, null, 10);
+        Random random = new Random(42);
+        for (long id = 1; id <= 50_000; id++) {
+            large.put(id, randomWords(random, 3), randomWords(random, 2), (long) random.nextInt(1_000));
+        }
+
+        String[] prefixes = {"a", "ka", "mor", "te", "zu", "lo", "bar"};
+        long[] nanos = new long[20_000];
+        for (int i = 0; i < nanos.length; i++) {
+            long start = System.nanoTime();
+            large.suggest(prefixes[i % prefixes.length], 10);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long p99 = nanos[(int) (nanos.length * 0.99)];
+
+        log.info("Suggest on 50000 books: p50 {} ns, p99 {} ns", nanos[nanos.length / 2], p99);
+        assertTrue(p99 < 1_000_000, "p99 was " + p99 + " ns");
+    }
+
+    private static String randomWords(Random random, int words) {
+        String[] syllables = {"ka", "mor", "te", "zu", "lo", "bar", "an", "is", "ve", "do"};
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            for (int s = 0, n = 1 + random.nextInt(3); s < n; s++) {
+                text.append(syllables[random.nextInt(syllables.length)]);
+            }
+        }
+        return text.toString();
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getText).toList();
+    }
+
+    private static BookDto book(Long id, String title, String author) {
+        BookDto book = new BookDto();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        return book;
+    }
+}
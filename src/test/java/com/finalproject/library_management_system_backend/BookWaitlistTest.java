@@ -0,0 +1,303 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.CreateBookRequest;
+import com.finalproject.library_management_system_backend.dtos.CreateReservationRequest;
+import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import com.finalproject.library_management_system_backend.repositories.WaitlistRepository;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Queues two readers behind a single-copy book and checks that each
+ * release hands the copy to the next reader in line as a new hold, that
+ * added copies go to waiters first, that deleted readers are skipped,
+ * that a join and a return on the same book take turns, that a copy
+ * returned twice at once is handed on only once, and that the queue
+ * survives a reload from the table.
+ */
+@SpringBootTest
+class BookWaitlistTest {
+
+    private static final String MARKER = "Waitlist";
+
+    @Autowired
+    private BookWaitlist bookWaitlist;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Book book;
+    private User holder;
+    private User first;
+    private User second;
+
+    @BeforeEach
+    void setUp() {
+        book = bookRepository.save(Book.builder()
+                .title("Popular Title")
+                .author(MARKER)
+                .publicationYear(2020)
+                .totalCopies(1)
+                .availableCopies(1)
+                .build());
+        holder = user("holder");
+        first = user("first");
+        second = user("second");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from reservation where book_id = ?", book.getId());
+        jdbcTemplate.update("delete from books where id = ?", book.getId());
+        jdbcTemplate.update("delete from users where last_name = ?", MARKER);
+    }
+
+    @Test
+    void release_handsCopyToEachWaiterInTurn() {
+        ReservationDto held = reserve(holder);
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(first));
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(second));
+
+        assertEquals(1, bookWaitlist.getPosition(book.getId(), first.getId()).getPosition());
+        assertEquals(2, bookWaitlist.getPosition(book.getId(), second.getId()).getPosition());
+        assertEquals(2, bookWaitlist.getPosition(book.getId(), second.getId()).getWaiting());
+
+        reservationService.cancelReservation(held.getId());
+
+        ReservationDto firstHold = onlyHold(first);
+        assertEquals(ReservationStatus.RESERVED, firstHold.getStatus());
+        assertEquals(0, availableCopies());
+        assertEquals(1, bookWaitlist.getPosition(book.getId(), second.getId()).getPosition());
+        assertNotOnWaitlist(first);
+
+        reservationService.collectBook(firstHold.getId());
+        reservationService.returnBook(firstHold.getId());
+
+        assertEquals(ReservationStatus.RESERVED, onlyHold(second).getStatus());
+        assertEquals(0, availableCopies());
+        assertNotOnWaitlist(second);
+
+        reservationService.cancelReservation(onlyHold(second).getId());
+        assertEquals(1, availableCopies());
+    }
+
+    @Test
+    void join_rejectsAvailableBooksAndDuplicates() {
+        ResponseStatusException available = assertThrows(ResponseStatusException.class,
+                () -> bookWaitlist.join(book.getId(), AuthenticatedUser.from(first)));
+        assertEquals(HttpStatus.CONFLICT, available.getStatusCode());
+
+        reserve(holder);
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(first));
+        ResponseStatusException duplicate = assertThrows(ResponseStatusException.class,
+                () -> bookWaitlist.join(book.getId(), AuthenticatedUser.from(first)));
+        assertEquals(HttpStatus.CONFLICT, duplicate.getStatusCode());
+    }
+
+    @Test
+    void leave_removesReaderAndMovesOthersUp() {
+        ReservationDto held = reserve(holder);
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(first));
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(second));
+
+        bookWaitlist.leave(book.getId(), first.getId());
+
+        assertNotOnWaitlist(first);
+        assertEquals(1, bookWaitlist.getPosition(book.getId(), second.getId()).getPosition());
+
+        reservationService.cancelReservation(held.getId());
+        assertEquals(ReservationStatus.RESERVED, onlyHold(second).getStatus());
+        assertTrue(reservationService.getReservationsByUserId(first.getId()).isEmpty());
+    }
+
+    @Test
+    void updateBook_handsAddedCopiesToWaitersBeforeTheShelf() {
+        reserve(holder);
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(first));
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(second));
+
+        CreateBookRequest update = new CreateBookRequest();
+        update.setTitle(book.getTitle());
+        update.setAuthor(book.getAuthor());
+        update.setPublicationYear(book.getPublicationYear());
+        update.setTotalCopies(4);
+        bookService.updateBook(book.getId(), update);
+
+        assertEquals(ReservationStatus.RESERVED, onlyHold(first).getStatus());
+        assertEquals(ReservationStatus.RESERVED, onlyHold(second).getStatus());
+        assertNotOnWaitlist(first);
+        assertNotOnWaitlist(second);
+        assertEquals(1, availableCopies());
+    }
+
+    @Test
+    void deleteUser_takesReaderOffTheWaitlist() {
+        ReservationDto held = reserve(holder);
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(first));
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(second));
+
+        userService.deleteUser(first.getId());
+
+        assertNotOnWaitlist(first);
+        assertEquals(1, bookWaitlist.getPosition(book.getId(), second.getId()).getPosition());
+        reservationService.cancelReservation(held.getId());
+        assertEquals(ReservationStatus.RESERVED, onlyHold(second).getStatus());
+        assertEquals(0, availableCopies());
+    }
+
+    @Test
+    void join_duringReturn_waitsAndFindsTheCopyOnTheShelf() throws Exception {
+        ReservationDto held = reserve(holder);
+        reservationService.collectBook(held.getId());
+
+        CompletableFuture<?> join = transactionTemplate.execute(tx -> {
+            reservationService.returnBook(held.getId());
+            CompletableFuture<?> joining = CompletableFuture.runAsync(
+                    () -> bookWaitlist.join(book.getId(), AuthenticatedUser.from(first)));
+            assertBlocked(joining);
+            return joining;
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> join.get(5, TimeUnit.SECONDS));
+        assertEquals(HttpStatus.CONFLICT, ((ResponseStatusException) e.getCause()).getStatusCode());
+        assertEquals(1, availableCopies());
+        assertNotOnWaitlist(first);
+    }
+
+    @Test
+    void return_duringJoin_waitsAndHandsTheCopyToTheNewWaiter() throws Exception {
+        ReservationDto held = reserve(holder);
+        reservationService.collectBook(held.getId());
+
+        CompletableFuture<?> returned = transactionTemplate.execute(tx -> {
+            bookWaitlist.join(book.getId(), AuthenticatedUser.from(first));
+            CompletableFuture<?> returning = CompletableFuture.runAsync(
+                    () -> reservationService.returnBook(held.getId()));
+            assertBlocked(returning);
+            return returning;
+        });
+
+        returned.get(5, TimeUnit.SECONDS);
+        assertEquals(ReservationStatus.RESERVED, onlyHold(first).getStatus());
+        assertEquals(0, availableCopies());
+        assertNotOnWaitlist(first);
+    }
+
+    @Test
+    void return_twiceAtOnce_handsTheCopyOnlyOnce() throws Exception {
+        ReservationDto held = reserve(holder);
+        reservationService.collectBook(held.getId());
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(first));
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(second));
+
+        CompletableFuture<?> again = transactionTemplate.execute(tx -> {
+            reservationService.returnBook(held.getId());
+            CompletableFuture<?> returning = CompletableFuture.runAsync(
+                    () -> reservationService.returnBook(held.getId()));
+            assertBlocked(returning);
+            return returning;
+        });
+
+        assertThrows(ExecutionException.class, () -> again.get(5, TimeUnit.SECONDS));
+        assertEquals(ReservationStatus.RESERVED, onlyHold(first).getStatus());
+        assertEquals(1, bookWaitlist.getPosition(book.getId(), second.getId()).getPosition());
+        assertEquals(0, availableCopies());
+    }
+
+    @Test
+    void load_restoresQueueOrderFromTable() {
+        reserve(holder);
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(first));
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(second));
+
+        BookWaitlist reloaded = new BookWaitlist(waitlistRepository, bookRepository, userRepository);
+        reloaded.load();
+
+        assertEquals(1, reloaded.getPosition(book.getId(), first.getId()).getPosition());
+        assertEquals(2, reloaded.getPosition(book.getId(), second.getId()).getPosition());
+    }
+
+    private static void assertBlocked(CompletableFuture<?> call) {
+        assertThrows(TimeoutException.class, () -> call.get(300, TimeUnit.MILLISECONDS));
+    }
+
+    private void assertNotOnWaitlist(User user) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> bookWaitlist.getPosition(book.getId(), user.getId()));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+    }
+
+    private ReservationDto onlyHold(User user) {
+        List<ReservationDto> active = reservationService.getReservationsByUserId(user.getId()).stream()
+                .filter(dto -> dto.getStatus() == ReservationStatus.RESERVED)
+                .toList();
+        assertEquals(1, active.size());
+        return active.get(0);
+    }
+
+    private ReservationDto reserve(User user) {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setBookId(book.getId());
+        return reservationService.createReservation(request, AuthenticatedUser.from(user));
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder()
+                .firstName(name)
+                .lastName(MARKER)
+                .email(name + "@waitlist.example.com")
+                .password("hash")
+                .userType(userTypeRepository.findByTypeName("User").orElseThrow())
+                .build());
+    }
+
+    private int availableCopies() {
+        return jdbcTemplate.queryForObject("select available_copies from books where id = ?", Integer.class, book.getId());
+    }
+}
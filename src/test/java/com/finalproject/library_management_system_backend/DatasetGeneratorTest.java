@@ -0,0 +1,168 @@
+package com.finalproject.library_management_system_backend.dataset;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generates small datasets into the embedded database and checks their
+ * consistency, their shape and that a seed always yields the same rows.
+ */
+@SpringBootTest
+class DatasetGeneratorTest {
+
+    private static final LocalDate REFERENCE_DATE = LocalDate.of(2026, 1, 1);
+
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final List<DatasetReport> generated = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        generated.forEach(this::purge);
+    }
+
+    @Test
+    void generate_writesAConsistentDataset() {
+        DatasetSpec spec = spec(3);
+        DatasetReport report = generate(spec);
+
+        assertEquals(50, report.getUsers());
+        assertEquals(400, report.getBooks());
+        assertEquals(4_000, report.getReservations());
+        assertEquals(4_000, count("select count(*) from reservation where user_id between ? and ?",
+                report.getFirstUserId(), report.getFirstUserId() + 49));
+        assertTrue(report.getActiveReservations() > 0);
+
+        // every book's available copies are its copies minus its active reservations
+        assertEquals(0, count("""
+                select count(*) from books b
+                where b.id between ? and ?
+                  and b.available_copies <> b.total_copies - (select count(*) from reservation r
+                      where r.book_id = b.id and r.status in ('RESERVED', 'BORROWED', 'OVERDUE'))""",
+                report.getFirstBookId(), report.getFirstBookId() + 399));
+
+        LocalDateTime now = REFERENCE_DATE.atStartOfDay();
+        assertEquals(0, count("""
+                select count(*) from reservation
+                where book_id between ? and ?
+                  and (reservation_date >= ?
+                    or status in ('RESERVED', 'BORROWED') and (expected_return_date <= ? or return_date is not null)
+                    or status = 'OVERDUE' and (expected_return_date > ? or return_date is not null)
+                    or status = 'CANCELED' and return_date is not null
+                    or status = 'RETURNED' and (return_date >= ? or return_date <= reservation_date
+                                                or return_date > expected_return_date)
+                    or status = 'LATE_RETURNED' and (return_date >= ? or return_date <= expected_return_date))""",
+                report.getFirstBookId(), report.getFirstBookId() + 399, now, now, now, now, now));
+        assertEquals(Set.of("RESERVED", "BORROWED", "OVERDUE", "RETURNED", "LATE_RETURNED", "CANCELED"),
+                Set.copyOf(jdbcTemplate.queryForList("select distinct status from reservation where book_id between ? and ?",
+                        String.class, report.getFirstBookId(), report.getFirstBookId() + 399)));
+
+        String adminHash = jdbcTemplate.queryForObject("select password_hash from users where email = ?",
+                String.class, DatasetGenerator.email(spec, 0));
+        assertTrue(passwordEncoder.matches(spec.getPassword(), adminHash));
+        assertEquals("admin1" + DatasetGenerator.EMAIL_DOMAIN, DatasetGenerator.email(spec, 0));
+    }
+
+    @Test
+    void generate_concentratesBorrowingOnFewBooks() {
+        DatasetReport report = generate(spec(2));
+
+        List<Long> perBook = jdbcTemplate.queryForList("""
+                select count(*) from reservation
+                where book_id between ? and ? and status in ('RETURNED', 'LATE_RETURNED', 'CANCELED')
+                group by book_id order by count(*) desc""",
+                Long.class, report.getFirstBookId(), report.getFirstBookId() + 399);
+        long history = perBook.stream().mapToLong(Long::longValue).sum();
+
+        // with exponent 1 over 400 books the top title takes about 15% of the loans
+        assertTrue(perBook.get(0) > history / 10, "top book has " + perBook.get(0) + " of " + history);
+        assertTrue(perBook.size() < 400 || perBook.get(perBook.size() - 1) < perBook.get(0) / 20);
+    }
+
+    @Test
+    void generate_isDeterministicForASeed() {
+        DatasetReport first = generate(spec(4));
+        List<String> firstRows = fingerprint(first);
+        purge(first);
+        generated.remove(first);
+
+        DatasetReport second = generate(spec(1));
+        assertEquals(firstRows, fingerprint(second));
+    }
+
+    @Test
+    void generate_refusesToWriteTheSameDatasetTwice() {
+        generate(spec(2));
+
+        assertThrows(IllegalStateException.class, () -> datasetGenerator.generate(spec(2)));
+    }
+
+    private DatasetSpec spec(int threads) {
+        return DatasetSpec.builder()
+                .seed(7)
+                .users(50)
+                .books(400)
+                .reservations(4_000)
+                .referenceDate(REFERENCE_DATE)
+                .threads(threads)
+                .chunkSize(100)
+                .batchSize(50)
+                .build();
+    }
+
+    private DatasetReport generate(DatasetSpec spec) {
+        DatasetReport report = datasetGenerator.generate(spec);
+        generated.add(report);
+        return report;
+    }
+
+    /**
+     * @return the dataset's books and reservations with IDs relative to the
+     *         first ones, since each run gets its own block of IDs
+     */
+    private List<String> fingerprint(DatasetReport report) {
+        List<String> rows = new ArrayList<>(jdbcTemplate.queryForList("""
+                select concat_ws('|', id - ?, title, author, publication_year, total_copies, available_copies)
+                from books where id between ? and ? order by id""",
+                String.class, report.getFirstBookId(), report.getFirstBookId(), report.getFirstBookId() + 399));
+        rows.addAll(jdbcTemplate.queryForList("""
+                select concat_ws('|', user_id - ?, book_id - ?, status, reservation_date, expected_return_date,
+                                 coalesce(cast(return_date as varchar), '-')) as line
+                from reservation where book_id between ? and ? order by line""",
+                String.class, report.getFirstUserId(), report.getFirstBookId(),
+                report.getFirstBookId(), report.getFirstBookId() + 399));
+        return rows;
+    }
+
+    private void purge(DatasetReport report) {
+        jdbcTemplate.update("delete from reservation where book_id between ? and ?",
+                report.getFirstBookId(), report.getFirstBookId() + report.getBooks() - 1);
+        jdbcTemplate.update("delete from books where id between ? and ?",
+                report.getFirstBookId(), report.getFirstBookId() + report.getBooks() - 1);
+        jdbcTemplate.update("delete from users where id between ? and ?",
+                report.getFirstUserId(), report.getFirstUserId() + report.getUsers() - 1);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
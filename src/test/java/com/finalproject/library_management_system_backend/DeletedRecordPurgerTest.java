@@ -0,0 +1,190 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.DashboardStats;
+import com.finalproject.library_management_system_backend.dtos.PurgeStatus;
+import com.finalproject.library_management_system_backend.dtos.RegisterUserRequest;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.Reservation;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationArchiveRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deletes a book and a user through the services and checks that they
+ * disappear at once while their rows and reservations are only removed
+ * by the purger, in chunks.
+ */
+@SpringBootTest
+class DeletedRecordPurgerTest {
+
+    private static final int CHUNK_SIZE = 3;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationArchiveRepository reservationArchiveRepository;
+
+    @Autowired
+    private LibraryStatsService libraryStatsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DeletedRecordPurger purger;
+    private Book book;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        purger = new DeletedRecordPurger(bookRepository, userRepository, reservationRepository,
+                reservationArchiveRepository, libraryStatsService, CHUNK_SIZE);
+
+        book = bookRepository.save(Book.builder()
+                .title("Purged Title")
+                .author("Author")
+                .publicationYear(2020)
+                .totalCopies(1)
+                .availableCopies(1)
+                .build());
+        user = userRepository.save(User.builder()
+                .firstName("Purged")
+                .lastName("Member")
+                .email("purge@example.com")
+                .password("hash")
+                .userType(userTypeRepository.findByTypeName("User").orElseThrow())
+                .build());
+        for (int i = 0; i < 7; i++) {
+            reservationRepository.save(Reservation.builder()
+                    .book(book)
+                    .user(user)
+                    .status(ReservationStatus.RETURNED)
+                    .reservationDate(LocalDateTime.now().minusDays(30 + i))
+                    .expectedReturnDate(LocalDateTime.now().minusDays(16 + i))
+                    .returnDate(LocalDateTime.now().minusDays(20 + i))
+                    .build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from reservation where book_id = ? or user_id = ?", book.getId(), user.getId());
+        jdbcTemplate.update("delete from books where id = ?", book.getId());
+        jdbcTemplate.update("delete from users where id = ? or email = ?", user.getId(), user.getEmail());
+    }
+
+    @Test
+    void deleteBook_hidesBookAndPurgeRemovesItsReservationsInChunks() {
+        bookService.deleteBook(book.getId());
+
+        assertTrue(bookRepository.findById(book.getId()).isEmpty());
+        assertEquals(7, reservationCount("book_id", book.getId()));
+
+        PurgeStatus status = purger.purge();
+
+        assertEquals(0, reservationCount("book_id", book.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from books where id = ?", Long.class, book.getId()));
+        assertTrue(status.getBooksPurged() >= 1);
+        assertTrue(status.getChunks() >= 3);
+        assertFalse(status.isRunning());
+        assertTrue(userRepository.findById(user.getId()).isPresent());
+    }
+
+    @Test
+    void deleteUser_hidesUserAndPurgeRemovesItsReservations() {
+        userService.deleteUser(user.getId());
+
+        assertTrue(userRepository.findByEmail("purge@example.com").isEmpty());
+        assertEquals(7, reservationCount("user_id", user.getId()));
+
+        PurgeStatus status = purger.purge();
+
+        assertEquals(0, reservationCount("user_id", user.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from users where id = ?", Long.class, user.getId()));
+        assertTrue(status.getUsersPurged() >= 1);
+        assertTrue(bookRepository.findById(book.getId()).isPresent());
+    }
+
+    @Test
+    void delete_dropsBookAndUserTotalsWithoutARecount() {
+        libraryStatsService.reconcile();
+        DashboardStats before = libraryStatsService.getDashboardStats();
+
+        bookService.deleteBook(book.getId());
+        userService.deleteUser(user.getId());
+
+        DashboardStats after = libraryStatsService.getDashboardStats();
+        assertEquals(before.getTotalBooks() - 1, after.getTotalBooks());
+        assertEquals(before.getTotalUsers() - 1, after.getTotalUsers());
+        assertEquals(before.getTotalReservations(), after.getTotalReservations());
+    }
+
+    @Test
+    void deleteUser_emailIsTakenUntilPurged() {
+        userService.deleteUser(user.getId());
+        RegisterUserRequest request = RegisterUserRequest.builder()
+                .firstName("Returning")
+                .lastName("Member")
+                .email(user.getEmail())
+                .password("secret")
+                .userTypeId(user.getUserType().getId())
+                .build();
+
+        ResponseStatusException registered = assertThrows(ResponseStatusException.class,
+                () -> authenticationService.register(request));
+        assertEquals(HttpStatus.CONFLICT, registered.getStatusCode());
+        ResponseStatusException created = assertThrows(ResponseStatusException.class,
+                () -> userService.createUser(request));
+        assertEquals(HttpStatus.CONFLICT, created.getStatusCode());
+
+        purger.purge();
+
+        assertEquals(user.getEmail(), authenticationService.register(request).getEmail());
+    }
+
+    @Test
+    void deleteBook_twice_isNotFound() {
+        bookService.deleteBook(book.getId());
+
+        assertThrows(ResponseStatusException.class,
+                () -> bookService.deleteBook(book.getId()));
+    }
+
+    private long reservationCount(String column, Long id) {
+        return jdbcTemplate.queryForObject("select count(*) from reservation where " + column + " = ?", Long.class, id);
+    }
+}
@@ -0,0 +1,414 @@
+package com.finalproject.library_management_system_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finalproject.library_management_system_backend.dtos.CreateReservationRequest;
+import com.finalproject.library_management_system_backend.dtos.LoginRequest;
+import com.finalproject.library_management_system_backend.dtos.RefreshTokenRequest;
+import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.monitoring.QueryBudgetExceededException;
+import com.finalproject.library_management_system_backend.monitoring.StatementCounter;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import com.finalproject.library_management_system_backend.security.JwtService;
+import com.finalproject.library_management_system_backend.services.BookWaitlist;
+import com.finalproject.library_management_system_backend.services.ImportFormat;
+import com.finalproject.library_management_system_backend.services.ReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each endpoint sends with every cache
+ * cold. A higher count means a new N+1 or an extra round trip; a lower
+ * one is welcome, but the count here and the endpoint's
+ * {@code @QueryBudget} should then be lowered to match. Query budgets are
+ * enforced in the tests, so a request over its budget fails outright.
+ * <p>
+ * Inserts rely on the ID block allocated while saving the fixtures, so
+ * the generator's own statements do not show up in the counts.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EndpointStatementCountTest {
+
+    private static final String MARKER = "Statement Count";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private BookWaitlist bookWaitlist;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private User reader;
+    private User admin;
+    private Book book;
+    private String readerToken;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        reader = userRepository.save(User.builder()
+                .firstName("Reader")
+                .lastName(MARKER)
+                .email("reader@statements.example.com")
+                .password(passwordEncoder.encode("secret"))
+                .userType(userTypeRepository.findByTypeName("User").orElseThrow())
+                .build());
+        admin = userRepository.save(User.builder()
+                .firstName("Admin")
+                .lastName(MARKER)
+                .email("admin@statements.example.com")
+                .password("hash")
+                .userType(userTypeRepository.findByTypeName("Admin").orElseThrow())
+                .build());
+        book = bookRepository.save(Book.builder()
+                .title("Counted")
+                .author(MARKER)
+                .publicationYear(2020)
+                .totalCopies(5)
+                .availableCopies(5)
+                .build());
+        readerToken = jwtService.issueTokens(reader).getAccessToken();
+        adminToken = jwtService.issueTokens(admin).getAccessToken();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from reservation where book_id in (select id from books where author = ?)", MARKER);
+        jdbcTemplate.update("delete from books where author = ?", MARKER);
+        jdbcTemplate.update("delete from users where last_name = ?", MARKER);
+    }
+
+    // --- auth ---
+
+    @Test
+    void register() throws Exception {
+        assertEquals(3, statements(post("/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"New\",\"lastName\":\"" + MARKER + "\",\"email\":\"new@statements.example.com\","
+                        + "\"password\":\"secret\",\"userTypeId\":" + reader.getUserType().getId() + "}")));
+    }
+
+    @Test
+    void login() throws Exception {
+        assertEquals(2, statements(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest(reader.getEmail(), "secret")))));
+    }
+
+    @Test
+    void refresh() throws Exception {
+        String refreshToken = jwtService.issueTokens(reader).getRefreshToken();
+        assertEquals(1, statements(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest(refreshToken)))));
+    }
+
+    // --- books ---
+
+    @Test
+    void listBooks() throws Exception {
+        assertEquals(1, statements(get("/books").param("size", "20")));
+    }
+
+    @Test
+    void searchBooks() throws Exception {
+        assertEquals(0, statements(get("/books/search").param("q", "counted")));
+    }
+
+    @Test
+    void suggestBooks() throws Exception {
+        assertEquals(0, statements(get("/books/suggest").param("q", "cou")));
+    }
+
+    @Test
+    void streamAvailability_forBook() throws Exception {
+        assertEquals(1, statements(get("/books/availability/stream").param("bookId", book.getId().toString())));
+    }
+
+    @Test
+    void streamAvailability_everyBook() throws Exception {
+        assertEquals(0, statements(get("/books/availability/stream")));
+    }
+
+    @Test
+    void getBook() throws Exception {
+        assertEquals(1, statements(get("/books/" + book.getId())));
+    }
+
+    @Test
+    void createBook() throws Exception {
+        assertEquals(1, statements(as(adminToken, post("/books"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(bookJson("Created"))));
+    }
+
+    @Test
+    void updateBook() throws Exception {
+        assertEquals(2, statements(as(adminToken, put("/books/" + book.getId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(bookJson("Updated"))));
+    }
+
+    @Test
+    void updateBook_handsAddedCopyToWaiter() throws Exception {
+        reserveEveryCopy();
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(reader));
+        assertEquals(6, statements(as(adminToken, put("/books/" + book.getId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(bookJson("Updated", 6))));
+    }
+
+    @Test
+    void deleteBook() throws Exception {
+        assertEquals(2, statements(as(adminToken, delete("/books/" + book.getId()))));
+    }
+
+    // --- reservations ---
+
+    @Test
+    void createReservation() throws Exception {
+        assertEquals(3, statements(as(readerToken, post("/reservations"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"bookId\":" + book.getId() + "}")));
+    }
+
+    @Test
+    void listReservations() throws Exception {
+        reserve();
+        assertEquals(1, statements(as(adminToken, get("/reservations"))));
+    }
+
+    @Test
+    void myReservations() throws Exception {
+        reserve();
+        reserve();
+        assertEquals(2, statements(as(readerToken, get("/reservations/my-reservations"))));
+    }
+
+    @Test
+    void userReservations() throws Exception {
+        reserve();
+        reserve();
+        assertEquals(2, statements(as(adminToken, get("/reservations/user/" + reader.getId()))));
+    }
+
+    @Test
+    void collect() throws Exception {
+        ReservationDto reservation = reserve();
+        assertEquals(2, statements(as(adminToken, put("/reservations/collect/" + reservation.getId()))));
+    }
+
+    @Test
+    void cancel() throws Exception {
+        ReservationDto reservation = reserve();
+        assertEquals(5, statements(as(readerToken, put("/reservations/cancel/" + reservation.getId()))));
+    }
+
+    @Test
+    void returnBook() throws Exception {
+        ReservationDto reservation = reserve();
+        reservationService.collectBook(reservation.getId());
+        assertEquals(5, statements(as(adminToken, put("/reservations/return/" + reservation.getId()))));
+    }
+
+    @Test
+    void extend() throws Exception {
+        ReservationDto reservation = reserve();
+        reservationService.collectBook(reservation.getId());
+        assertEquals(2, statements(as(adminToken, put("/reservations/extend/" + reservation.getId()))));
+    }
+
+    @Test
+    void joinWaitlist() throws Exception {
+        reserveEveryCopy();
+        assertEquals(2, statements(as(readerToken, post("/reservations/waitlist/" + book.getId()))));
+    }
+
+    @Test
+    void waitlistPosition() throws Exception {
+        reserveEveryCopy();
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(reader));
+        assertEquals(0, statements(as(readerToken, get("/reservations/waitlist/" + book.getId()))));
+    }
+
+    @Test
+    void leaveWaitlist() throws Exception {
+        reserveEveryCopy();
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(reader));
+        assertEquals(1, statements(as(readerToken, delete("/reservations/waitlist/" + book.getId()))));
+    }
+
+    @Test
+    void returnBook_handsCopyToWaiter() throws Exception {
+        ReservationDto reservation = reserveEveryCopy();
+        reservationService.collectBook(reservation.getId());
+        bookWaitlist.join(book.getId(), AuthenticatedUser.from(reader));
+        assertEquals(6, statements(as(adminToken, put("/reservations/return/" + reservation.getId()))));
+    }
+
+    // --- users ---
+
+    @Test
+    void listUsers() throws Exception {
+        assertEquals(1, statements(as(adminToken, get("/users")).param("size", "20")));
+    }
+
+    @Test
+    void createUser() throws Exception {
+        assertEquals(1, statements(as(adminToken, post("/users"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Made\",\"lastName\":\"" + MARKER + "\",\"email\":\"made@statements.example.com\","
+                        + "\"password\":\"secret\",\"userTypeId\":" + reader.getUserType().getId() + "}")));
+    }
+
+    @Test
+    void userDetails() throws Exception {
+        assertEquals(2, statements(as(readerToken, get("/users/user-details"))));
+    }
+
+    @Test
+    void deleteUser() throws Exception {
+        assertEquals(3, statements(as(adminToken, delete("/users/" + reader.getId()))));
+    }
+
+    // --- admin ---
+
+    @Test
+    void adminStatusEndpoints() throws Exception {
+        for (String path : new String[]{"/admin/stats", "/admin/overdue-sweep", "/admin/archive", "/admin/purge", "/admin/caches", "/admin/perf"}) {
+            assertEquals(0, statements(as(adminToken, get(path))), path);
+        }
+    }
+
+    @Test
+    void importBooks() throws Exception {
+        assertEquals(1, statements(as(adminToken, post("/admin/books/import"))
+                .contentType(ImportFormat.CSV_VALUE)
+                .content("title,author,publicationYear,totalCopies\nOne," + MARKER + ",2000,1\nTwo," + MARKER + ",2000,1\n")));
+    }
+
+    @Test
+    void importUsers() throws Exception {
+        assertEquals(3, statements(as(adminToken, post("/admin/users/import"))
+                .contentType(ImportFormat.CSV_VALUE)
+                .content("firstName,lastName,email,password\nOne," + MARKER + ",one@statements.example.com,secret\n"
+                        + "Two," + MARKER + ",two@statements.example.com,secret\n")));
+    }
+
+    @Test
+    void home() throws Exception {
+        assertEquals(0, statements(as(readerToken, get("/home"))));
+    }
+
+    // --- the guard itself ---
+
+    @Test
+    void statementOverBudget_fails() {
+        entityManagerFactory.getCache().evictAll();
+        StatementCounter.begin(1, true);
+        try {
+            bookRepository.findById(book.getId());
+            assertThrows(QueryBudgetExceededException.class, () -> bookRepository.count());
+        } finally {
+            StatementCounter.end();
+        }
+    }
+
+    private ReservationDto reserve() {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setBookId(book.getId());
+        return reservationService.createReservation(request, AuthenticatedUser.from(reader));
+    }
+
+    private ReservationDto reserveEveryCopy() {
+        ReservationDto last = null;
+        for (int i = 0; i < book.getTotalCopies(); i++) {
+            last = reserve();
+        }
+        return last;
+    }
+
+    private static MockHttpServletRequestBuilder as(String token, MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private String bookJson(String title) {
+        return bookJson(title, 3);
+    }
+
+    private String bookJson(String title, int totalCopies) {
+        return "{\"title\":\"" + title + "\",\"author\":\"" + MARKER + "\",\"publicationYear\":2021,\"totalCopies\":" + totalCopies + "}";
+    }
+
+    /**
+     * Runs the request with every cache cold and expects it to succeed.
+     *
+     * @return the statements Hibernate prepared while serving it
+     */
+    private long statements(MockHttpServletRequestBuilder request) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.getCache().unwrap(Cache.class).evictQueryRegions();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
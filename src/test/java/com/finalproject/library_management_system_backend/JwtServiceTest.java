@@ -0,0 +1,78 @@
+package com.finalproject.library_management_system_backend.security;
+
+import com.finalproject.library_management_system_backend.dtos.AuthenticationResponse;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.model.UserType;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdGluZy1vbmx5LTEyMzQ1Njc4OTA=";
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    private final User user = User.builder()
+            .id(42L)
+            .firstName("Ada")
+            .lastName("Lovelace")
+            .email("ada@example.com")
+            .userType(UserType.builder().id(2L).typeName("User").build())
+            .build();
+
+    @Test
+    void accessToken_carriesIdRoleAndName() {
+        JwtService jwtService = jwtServiceAt(NOW);
+
+        AuthenticationResponse tokens = jwtService.issueTokens(user);
+        AuthenticatedUser principal = jwtService.parseAccessToken(tokens.getAccessToken());
+
+        assertEquals(new AuthenticatedUser(42L, "ada@example.com", "USER", "Ada Lovelace"), principal);
+        assertEquals("ada@example.com", principal.getName());
+        assertEquals("ROLE_USER", principal.authorities().get(0).getAuthority());
+        assertEquals(JwtService.TOKEN_TYPE, tokens.getTokenType());
+        assertEquals(900, tokens.getExpiresIn());
+    }
+
+    @Test
+    void refreshToken_carriesUserIdAndIsNotAnAccessToken() {
+        JwtService jwtService = jwtServiceAt(NOW);
+        AuthenticationResponse tokens = jwtService.issueTokens(user);
+
+        assertEquals(42L, jwtService.parseRefreshToken(tokens.getRefreshToken()));
+        assertThrows(JwtException.class, () -> jwtService.parseAccessToken(tokens.getRefreshToken()));
+        assertThrows(JwtException.class, () -> jwtService.parseRefreshToken(tokens.getAccessToken()));
+    }
+
+    @Test
+    void accessToken_isRejectedOnceExpired() {
+        String token = jwtServiceAt(NOW).issueTokens(user).getAccessToken();
+
+        assertDoesNotThrow(() -> jwtServiceAt(NOW.plus(Duration.ofMinutes(14))).parseAccessToken(token));
+        assertThrows(JwtException.class, () -> jwtServiceAt(NOW.plus(Duration.ofMinutes(16))).parseAccessToken(token));
+    }
+
+    @Test
+    void tokensSignedWithAnotherKey_orTamperedWith_areRejected() {
+        String token = jwtServiceAt(NOW).issueTokens(user).getAccessToken();
+        JwtService otherKey = new JwtService("", Duration.ofMinutes(15), Duration.ofDays(7), fixedClock(NOW));
+
+        assertThrows(JwtException.class, () -> otherKey.parseAccessToken(token));
+        assertThrows(JwtException.class, () -> jwtServiceAt(NOW).parseAccessToken(token.substring(0, token.length() - 2)));
+        assertThrows(JwtException.class, () -> jwtServiceAt(NOW).parseAccessToken(""));
+    }
+
+    private static JwtService jwtServiceAt(Instant now) {
+        return new JwtService(SECRET, Duration.ofMinutes(15), Duration.ofDays(7), fixedClock(now));
+    }
+
+    private static Clock fixedClock(Instant now) {
+        return Clock.fixed(now, ZoneOffset.UTC);
+    }
+}
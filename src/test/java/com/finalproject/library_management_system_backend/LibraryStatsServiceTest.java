@@ -0,0 +1,160 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.DashboardStats;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationArchiveRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LibraryStatsServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private ReservationArchiveRepository reservationArchiveRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private LibraryStatsService libraryStatsService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void transitions_moveCountsBetweenStatusesWithoutQueries() {
+        // act
+        libraryStatsService.recordTransition(null, ReservationStatus.RESERVED);
+        libraryStatsService.recordTransition(null, ReservationStatus.RESERVED);
+        libraryStatsService.recordTransition(ReservationStatus.RESERVED, ReservationStatus.BORROWED);
+        libraryStatsService.recordTransitions(ReservationStatus.BORROWED, ReservationStatus.OVERDUE, 1);
+
+        DashboardStats stats = libraryStatsService.getDashboardStats();
+
+        // assert
+        assertEquals(2, stats.getTotalReservations());
+        assertEquals(2, stats.getActiveLoans());
+        assertEquals(1, stats.getOverdueBooks());
+        verifyNoInteractions(reservationRepository, bookRepository, userRepository);
+    }
+
+    @Test
+    void transitions_insideTransaction_applyOnlyAfterCommit() {
+        // arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // act
+        libraryStatsService.recordTransition(null, ReservationStatus.RESERVED);
+
+        // assert
+        assertEquals(0, libraryStatsService.getDashboardStats().getTotalReservations());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, libraryStatsService.getDashboardStats().getTotalReservations());
+    }
+
+    @Test
+    void reconcile_repairsDriftFromDatabaseAndArchiveCounts() {
+        // arrange
+        libraryStatsService.recordTransition(null, ReservationStatus.RESERVED);
+        libraryStatsService.recordBookCreated();
+
+        ReservationRepository.StatusCount overdue = mock(ReservationRepository.StatusCount.class);
+        when(overdue.getStatus()).thenReturn(ReservationStatus.OVERDUE);
+        when(overdue.getCount()).thenReturn(3L);
+        when(reservationRepository.countByStatus()).thenReturn(List.of(overdue));
+        ReservationRepository.StatusCount returned = mock(ReservationRepository.StatusCount.class);
+        when(returned.getStatus()).thenReturn(ReservationStatus.RETURNED);
+        when(returned.getCount()).thenReturn(5L);
+        when(reservationArchiveRepository.countByStatus()).thenReturn(List.of(returned));
+        when(bookRepository.count()).thenReturn(10L);
+        when(userRepository.count()).thenReturn(4L);
+
+        // act
+        libraryStatsService.reconcile();
+        DashboardStats stats = libraryStatsService.getDashboardStats();
+
+        // assert
+        assertEquals(8, stats.getTotalReservations());
+        assertEquals(3, stats.getActiveLoans());
+        assertEquals(3, stats.getOverdueBooks());
+        assertEquals(10, stats.getTotalBooks());
+        assertEquals(4, stats.getTotalUsers());
+    }
+
+    @Test
+    void reconcile_waitsForCommittedTransitionsToBeCounted() throws Exception {
+        // arrange: the reservation row is committed, its counter update is not
+        TransactionSynchronizationManager.initSynchronization();
+        libraryStatsService.recordTransition(null, ReservationStatus.RESERVED);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(sync -> sync.beforeCommit(false));
+
+        ReservationRepository.StatusCount reserved = mock(ReservationRepository.StatusCount.class);
+        when(reserved.getStatus()).thenReturn(ReservationStatus.RESERVED);
+        when(reserved.getCount()).thenReturn(1L);
+        when(reservationRepository.countByStatus()).thenReturn(List.of(reserved));
+
+        // act
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(libraryStatsService::reconcile);
+        assertThrows(TimeoutException.class, () -> reconcile.get(200, TimeUnit.MILLISECONDS));
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        reconcile.get(5, TimeUnit.SECONDS);
+
+        // assert: counted once, not repaired and then counted again
+        assertEquals(1, libraryStatsService.getDashboardStats().getTotalReservations());
+    }
+
+    @Test
+    void reconcile_letsCommitsThroughDuringTheRecount() {
+        // arrange: a reservation commits while the recount query runs, too late for it to be seen
+        when(reservationRepository.countByStatus()).thenAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> {
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                    libraryStatsService.recordTransition(null, ReservationStatus.RESERVED);
+                    List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+                    synchronizations.forEach(sync -> sync.beforeCommit(false));
+                    synchronizations.forEach(TransactionSynchronization::afterCommit);
+                    synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                } finally {
+                    TransactionSynchronizationManager.clearSynchronization();
+                }
+            }).get(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        // act
+        libraryStatsService.reconcile();
+
+        // assert: the counter that moved is left alone rather than "repaired" to the stale count
+        assertEquals(1, libraryStatsService.getDashboardStats().getTotalReservations());
+    }
+}
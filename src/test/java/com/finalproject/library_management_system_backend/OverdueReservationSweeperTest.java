@@ -0,0 +1,84 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.OverdueSweepStatus;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OverdueReservationSweeperTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private LibraryStatsService libraryStatsService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OverdueReservationSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new OverdueReservationSweeper(reservationRepository, libraryStatsService,
+                new TransactionTemplate(transactionManager), 2, false);
+    }
+
+    @Test
+    void sweep_updatesEachChunkByIdAndResumesAfterLastId() {
+        // arrange
+        LocalDateTime cutoff = LocalDateTime.now();
+        when(reservationRepository.findIdsByStatusAndExpectedReturnDateBefore(ReservationStatus.BORROWED, cutoff, 0L, Limit.of(2)))
+                .thenReturn(List.of(3L, 7L));
+        when(reservationRepository.findIdsByStatusAndExpectedReturnDateBefore(ReservationStatus.BORROWED, cutoff, 7L, Limit.of(2)))
+                .thenReturn(List.of(9L));
+        when(reservationRepository.updateStatus(anyList(), eq(ReservationStatus.BORROWED), eq(ReservationStatus.OVERDUE)))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        // act
+        OverdueSweepStatus status = sweeper.sweep(cutoff);
+
+        // assert
+        verify(reservationRepository).updateStatus(List.of(3L, 7L), ReservationStatus.BORROWED, ReservationStatus.OVERDUE);
+        verify(reservationRepository).updateStatus(List.of(9L), ReservationStatus.BORROWED, ReservationStatus.OVERDUE);
+        verify(reservationRepository, never()).findAll();
+        verify(libraryStatsService).recordTransitions(ReservationStatus.BORROWED, ReservationStatus.OVERDUE, 2);
+        verify(libraryStatsService).recordTransitions(ReservationStatus.BORROWED, ReservationStatus.OVERDUE, 1);
+
+        assertFalse(status.isRunning());
+        assertEquals(2, status.getChunks());
+        assertEquals(3, status.getReservationsMarked());
+        assertEquals(9L, status.getLastReservationId());
+        assertNotNull(status.getFinishedAt());
+        assertSame(status, sweeper.getStatus());
+    }
+
+    @Test
+    void sweep_withNothingOverdue_issuesNoUpdates() {
+        // arrange
+        LocalDateTime cutoff = LocalDateTime.now();
+        when(reservationRepository.findIdsByStatusAndExpectedReturnDateBefore(ReservationStatus.BORROWED, cutoff, 0L, Limit.of(2)))
+                .thenReturn(List.of());
+
+        // act
+        OverdueSweepStatus status = sweeper.sweep(cutoff);
+
+        // assert
+        verify(reservationRepository, never()).updateStatus(anyList(), any(), any());
+        assertEquals(0, status.getChunks());
+    }
+}
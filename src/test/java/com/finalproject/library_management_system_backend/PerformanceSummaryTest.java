@@ -0,0 +1,146 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.CreateReservationRequest;
+import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import com.finalproject.library_management_system_backend.security.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Drives a few requests and reservation transitions, then checks that
+ * they show up in the meters and in the {@code /admin/perf} summary.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PerformanceSummaryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private User reader;
+    private User admin;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        reader = userRepository.save(User.builder()
+                .firstName("Perf")
+                .lastName("Reader")
+                .email("perf.reader@example.com")
+                .password("hash")
+                .userType(userTypeRepository.findByTypeName("User").orElseThrow())
+                .build());
+        admin = userRepository.save(User.builder()
+                .firstName("Perf")
+                .lastName("Admin")
+                .email("perf.admin@example.com")
+                .password("hash")
+                .userType(userTypeRepository.findByTypeName("Admin").orElseThrow())
+                .build());
+        book = bookRepository.save(Book.builder()
+                .title("Measured")
+                .author("Author")
+                .publicationYear(2020)
+                .totalCopies(2)
+                .availableCopies(2)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAllById(reservationRepository.findIdsByUserId(reader.getId(), Limit.unlimited()));
+        userRepository.deleteById(reader.getId());
+        userRepository.deleteById(admin.getId());
+        bookRepository.deleteById(book.getId());
+    }
+
+    @Test
+    void reservationTransitions_areTimedAndCounted() {
+        double collectedBefore = transitions("RESERVED", "BORROWED");
+
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setBookId(book.getId());
+        ReservationDto reservation = reservationService.createReservation(request, AuthenticatedUser.from(reader));
+        reservationService.collectBook(reservation.getId());
+        assertThrows(RuntimeException.class, () -> reservationService.cancelReservation(reservation.getId()));
+
+        assertTrue(meterRegistry.get(ReservationMetrics.OPERATION_TIMER).tag("operation", "create").timer().count() >= 1);
+        assertTrue(meterRegistry.get(ReservationMetrics.OPERATION_TIMER)
+                .tag("operation", "cancel").tag("exception", "RuntimeException").timer().count() >= 1);
+        assertEquals(collectedBefore + 1, transitions("RESERVED", "BORROWED"));
+    }
+
+    @Test
+    void perfSummary_reportsPercentilesPoolAndHibernate() throws Exception {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setBookId(book.getId());
+        reservationService.createReservation(request, AuthenticatedUser.from(reader));
+        mockMvc.perform(get("/books/" + book.getId())).andExpect(status().isOk());
+
+        String token = jwtService.issueTokens(admin).getAccessToken();
+        mockMvc.perform(get("/admin/perf").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.endpoints[*].name", hasItem("GET /books/{id} 200")))
+                .andExpect(jsonPath("$.endpoints[?(@.name == 'GET /books/{id} 200')].p99Ms").isNotEmpty())
+                .andExpect(jsonPath("$.reservationOperations[*].name", hasItems("create")))
+                .andExpect(jsonPath("$.connectionPools[0].max", greaterThan(0)))
+                .andExpect(jsonPath("$.hibernate.statisticsEnabled").value(true))
+                .andExpect(jsonPath("$.passwordHashing.rejected").isNumber());
+    }
+
+    @Test
+    void actuator_exposesHealthOnlyToEveryone() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/admin/perf")).andExpect(status().isUnauthorized());
+    }
+
+    private double transitions(String from, String to) {
+        var counter = meterRegistry.find(ReservationMetrics.TRANSITION_COUNTER).tag("from", from).tag("to", to).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
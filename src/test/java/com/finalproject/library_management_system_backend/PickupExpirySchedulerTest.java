@@ -0,0 +1,134 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.Reservation;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Places holds with past reservation dates and checks that loading the
+ * wheel expires the overdue ones at once, that the rest expire when their
+ * deadline comes up, and that every expiry puts the copy back.
+ */
+@SpringBootTest
+class PickupExpirySchedulerTest {
+
+    private static final Duration WINDOW = Duration.ofDays(2);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PickupExpiryScheduler scheduler;
+    private Book book;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new PickupExpiryScheduler(reservationService, reservationRepository, WINDOW, 1000);
+
+        book = bookRepository.save(Book.builder()
+                .title("Held Title")
+                .author("Author")
+                .publicationYear(2020)
+                .totalCopies(3)
+                .availableCopies(1)
+                .build());
+        user = userRepository.save(User.builder()
+                .firstName("Held")
+                .lastName("Member")
+                .email("pickup@example.com")
+                .password("hash")
+                .userType(userTypeRepository.findByTypeName("User").orElseThrow())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from reservation where user_id = ?", user.getId());
+        jdbcTemplate.update("delete from books where id = ?", book.getId());
+        jdbcTemplate.update("delete from users where id = ?", user.getId());
+    }
+
+    @Test
+    void load_expiresHoldsPastTheirDeadlineAndSchedulesTheRest() {
+        Reservation abandoned = hold(Duration.ofDays(3));
+        Reservation fresh = hold(Duration.ofHours(1));
+
+        scheduler.load();
+
+        assertEquals(ReservationStatus.CANCELED, status(abandoned));
+        assertEquals(ReservationStatus.RESERVED, status(fresh));
+        assertEquals(2, availableCopies());
+        assertTrue(scheduler.getPendingHolds() >= 1);
+
+        long beforeDeadline = System.currentTimeMillis() + WINDOW.minusHours(2).toMillis();
+        scheduler.expireDue(beforeDeadline);
+        assertEquals(ReservationStatus.RESERVED, status(fresh));
+
+        long afterDeadline = System.currentTimeMillis() + WINDOW.toMillis();
+        assertTrue(scheduler.expireDue(afterDeadline) >= 1);
+        assertEquals(ReservationStatus.CANCELED, status(fresh));
+        assertEquals(3, availableCopies());
+    }
+
+    @Test
+    void expireDue_leavesCollectedHoldsAlone() {
+        Reservation collected = hold(Duration.ofHours(1));
+        scheduler.load();
+
+        reservationService.collectBook(collected.getId());
+        scheduler.expireDue(System.currentTimeMillis() + WINDOW.toMillis());
+
+        assertEquals(ReservationStatus.BORROWED, status(collected));
+        assertEquals(1, availableCopies());
+    }
+
+    private Reservation hold(Duration age) {
+        LocalDateTime reservedAt = LocalDateTime.now().minus(age);
+        return reservationRepository.save(Reservation.builder()
+                .book(book)
+                .user(user)
+                .status(ReservationStatus.RESERVED)
+                .reservationDate(reservedAt)
+                .expectedReturnDate(reservedAt.plusDays(7))
+                .build());
+    }
+
+    private ReservationStatus status(Reservation reservation) {
+        return reservationRepository.findById(reservation.getId()).orElseThrow().getStatus();
+    }
+
+    private int availableCopies() {
+        return jdbcTemplate.queryForObject("select available_copies from books where id = ?", Integer.class, book.getId());
+    }
+}
@@ -0,0 +1,168 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.ArchiveStatus;
+import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.Reservation;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationArchiveRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archives a user's old finished reservations in chunks and checks that
+ * the active ones stay behind, that the user's history still shows every
+ * reservation and that purging the user also clears the archive.
+ */
+@SpringBootTest
+class ReservationArchiverTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationArchiveRepository reservationArchiveRepository;
+
+    @Autowired
+    private LibraryStatsService libraryStatsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ReservationArchiver archiver;
+    private Book book;
+    private User user;
+    private final List<Long> oldFinishedIds = new ArrayList<>();
+    private final List<Long> keptIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        archiver = new ReservationArchiver(reservationRepository, reservationArchiveRepository,
+                transactionTemplate, CHUNK_SIZE, 90);
+
+        book = bookRepository.save(Book.builder()
+                .title("Archived Title")
+                .author("Author")
+                .publicationYear(2020)
+                .totalCopies(1)
+                .availableCopies(1)
+                .build());
+        user = userRepository.save(User.builder()
+                .firstName("Archived")
+                .lastName("Member")
+                .email("archive@example.com")
+                .password("hash")
+                .userType(userTypeRepository.findByTypeName("User").orElseThrow())
+                .build());
+
+        ReservationStatus[] finished = {ReservationStatus.RETURNED, ReservationStatus.LATE_RETURNED,
+                ReservationStatus.CANCELED, ReservationStatus.RETURNED, ReservationStatus.RETURNED};
+        for (int i = 0; i < finished.length; i++) {
+            oldFinishedIds.add(save(finished[i], 200 + i).getId());
+        }
+        keptIds.add(save(ReservationStatus.RETURNED, 20).getId());
+        keptIds.add(save(ReservationStatus.OVERDUE, 300).getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from reservation_archive where user_id = ?", user.getId());
+        jdbcTemplate.update("delete from reservation where user_id = ?", user.getId());
+        jdbcTemplate.update("delete from books where id = ?", book.getId());
+        jdbcTemplate.update("delete from users where id = ?", user.getId());
+    }
+
+    @Test
+    void archive_movesOldFinishedReservationsInChunksAndKeepsTheRest() {
+        ArchiveStatus status = archiver.archive(LocalDateTime.now().minusDays(90));
+
+        assertEquals(oldFinishedIds.size(), status.getReservationsArchived());
+        assertEquals(3, status.getChunks());
+        assertFalse(status.isRunning());
+        assertSame(status, archiver.getStatus());
+
+        assertEquals(keptIds, reservationRepository.findIdsByUserId(user.getId(), Limit.of(10)));
+        assertEquals(oldFinishedIds, reservationArchiveRepository.findIdsByUserId(user.getId(), Limit.of(10)));
+
+        assertEquals(0, archiver.archive(LocalDateTime.now().minusDays(90)).getReservationsArchived());
+    }
+
+    @Test
+    void userHistory_readsActiveAndArchivedReservationsNewestFirst() {
+        List<ReservationDto> before = reservationService.getReservationsByUserId(user.getId());
+
+        archiver.archive(LocalDateTime.now().minusDays(90));
+        List<ReservationDto> after = reservationService.getReservationsByUserId(user.getId());
+
+        assertEquals(before, after);
+        assertEquals(after, reservationService.getReservationsByUser("archive@example.com"));
+        assertEquals(7, after.size());
+        for (int i = 1; i < after.size(); i++) {
+            assertFalse(after.get(i).getReservationDate().isAfter(after.get(i - 1).getReservationDate()));
+        }
+    }
+
+    @Test
+    void purge_removesArchivedReservationsOfDeletedUser() {
+        archiver.archive(LocalDateTime.now().minusDays(90));
+        userService.deleteUser(user.getId());
+
+        new DeletedRecordPurger(bookRepository, userRepository, reservationRepository,
+                reservationArchiveRepository, libraryStatsService, CHUNK_SIZE).purge();
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from reservation_archive where user_id = ?", Long.class, user.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from users where id = ?", Long.class, user.getId()));
+    }
+
+    private Reservation save(ReservationStatus status, int daysAgo) {
+        LocalDateTime reservedAt = LocalDateTime.now().minusDays(daysAgo);
+        return reservationRepository.save(Reservation.builder()
+                .book(book)
+                .user(user)
+                .status(status)
+                .reservationDate(reservedAt)
+                .expectedReturnDate(reservedAt.plusDays(14))
+                .returnDate(status == ReservationStatus.CANCELED || status == ReservationStatus.OVERDUE
+                        ? null : reservedAt.plusDays(10))
+                .build());
+    }
+}
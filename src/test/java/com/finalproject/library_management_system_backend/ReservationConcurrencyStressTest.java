@@ -0,0 +1,181 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.CreateBookRequest;
+import com.finalproject.library_management_system_backend.dtos.CreateReservationRequest;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers {@link ReservationService#createReservation} from many threads
+ * against the embedded database and checks that a title is never
+ * reserved more times than it has copies, nor a checkout lost to an
+ * edit of the book's copy count.
+ */
+@Slf4j
+@SpringBootTest
+class ReservationConcurrencyStressTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    private final List<Long> bookIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .firstName("Stress")
+                .lastName("Tester")
+                .email("stress@example.com")
+                .password("hash")
+                .userType(userTypeRepository.findByTypeName("User").orElseThrow())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAllById(reservationRepository.findIdsByUserId(user.getId(), Limit.unlimited()));
+        userRepository.deleteById(user.getId());
+        bookRepository.deleteAllById(bookIds);
+    }
+
+    @Test
+    void concurrentCheckouts_neverOversellCopies() throws Exception {
+        Book book = saveBook(25);
+
+        int successes = runCheckouts(book.getId(), 400);
+
+        assertEquals(25, successes);
+        assertEquals(0, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+        assertEquals(25, reservationRepository.findIdsByUserId(user.getId(), Limit.unlimited()).size());
+    }
+
+    @Test
+    void concurrentCheckouts_reportThroughput() throws Exception {
+        Book book = saveBook(1_000);
+
+        long start = System.nanoTime();
+        int successes = runCheckouts(book.getId(), 1_000);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        assertEquals(1_000, successes);
+        assertEquals(0, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+        log.info("Reservation stress: {} reservations on {} threads in {} s ({} reservations/sec)",
+                successes, THREADS, String.format("%.2f", seconds), Math.round(successes / seconds));
+    }
+
+    @Test
+    void checkoutDuringCopyUpdate_waitsAndIsNotOverwritten() throws Exception {
+        Book book = saveBook(10);
+        CreateBookRequest update = new CreateBookRequest();
+        update.setTitle(book.getTitle());
+        update.setAuthor(book.getAuthor());
+        update.setPublicationYear(book.getPublicationYear());
+        update.setTotalCopies(15);
+
+        Future<?> checkout = transactionTemplate.execute(tx -> {
+            bookService.updateBook(book.getId(), update);
+            Future<?> reserving = CompletableFuture.runAsync(() -> {
+                CreateReservationRequest request = new CreateReservationRequest();
+                request.setBookId(book.getId());
+                reservationService.createReservation(request, AuthenticatedUser.from(user));
+            });
+            assertThrows(TimeoutException.class, () -> reserving.get(300, TimeUnit.MILLISECONDS));
+            return reserving;
+        });
+
+        checkout.get(5, TimeUnit.SECONDS);
+        assertEquals(14, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+    }
+
+    private int runCheckouts(Long bookId, int attempts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < attempts; i++) {
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    CreateReservationRequest request = new CreateReservationRequest();
+                    request.setBookId(bookId);
+                    try {
+                        reservationService.createReservation(request, AuthenticatedUser.from(user));
+                        successes.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        assertEquals("No available copies for this book", e.getMessage());
+                    }
+                    return null;
+                }));
+            }
+
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return successes.get();
+    }
+
+    private Book saveBook(int copies) {
+        Book book = bookRepository.save(Book.builder()
+                .title("Popular Title")
+                .author("Author")
+                .publicationYear(2024)
+                .totalCopies(copies)
+                .availableCopies(copies)
+                .build());
+        bookIds.add(book.getId());
+        return book;
+    }
+}
@@ -0,0 +1,156 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.CursorPage;
+import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.dtos.ReservationFilter;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.Reservation;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the number of SQL statements issued by the reservation listings,
+ * so that reintroducing a lazy association lookup per row fails the build.
+ */
+@SpringBootTest
+@Transactional
+class ReservationQueryCountTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listings_issueFixedStatementsRegardlessOfRowCount() {
+        User small = seed("small@example.com", 2);
+        // One query for the reservation table and one for the archive.
+        User large = seed("large@example.com", 25);
+
+        assertEquals(2, statementsFor(() -> reservationService.getReservationsByUser(small.getEmail())));
+        assertEquals(2, statementsFor(() -> reservationService.getReservationsByUser(large.getEmail())));
+
+        assertEquals(2, statementsFor(() -> reservationService.getReservationsByUserId(small.getId())));
+        assertEquals(2, statementsFor(() -> reservationService.getReservationsByUserId(large.getId())));
+
+        assertEquals(1, statementsFor(() -> reservationService.getAllReservations(new ReservationFilter(), "id", 2, null)));
+        assertEquals(1, statementsFor(() -> reservationService.getAllReservations(new ReservationFilter(), "id", 25, null)));
+    }
+
+    @Test
+    void getReservationsByUser_projectsUserAndBookColumns() {
+        User user = seed("reader@example.com", 1);
+
+        List<ReservationDto> result = reservationService.getReservationsByUser(user.getEmail());
+
+        assertEquals(1, result.size());
+        assertEquals("Test Reader", result.get(0).getUserFirstName());
+        assertEquals("Title 0", result.get(0).getBookTitle());
+        assertEquals(user.getId(), result.get(0).getUserId());
+    }
+
+    @Test
+    void getAllReservations_appliesFiltersAndPagesThroughEveryRow() {
+        User user = seed("pager@example.com", 7);
+        Long bookId = reservationRepository.findDtosByUserId(user.getId()).get(0).getBookId();
+        entityManager.clear();
+
+        ReservationFilter borrowed = ReservationFilter.builder().status(ReservationStatus.BORROWED).build();
+        int seen = 0;
+        String cursor = null;
+        do {
+            CursorPage<ReservationDto> page = reservationService.getAllReservations(borrowed, "reservationDate", 2, cursor);
+            page.getItems().forEach(dto -> assertEquals(ReservationStatus.BORROWED, dto.getStatus()));
+            seen += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(3, seen);
+
+        ReservationFilter byBook = ReservationFilter.builder()
+                .bookId(bookId)
+                .reservedFrom(LocalDateTime.now().minusYears(1))
+                .reservedTo(LocalDateTime.now().plusDays(1))
+                .build();
+        assertEquals(1, reservationService.getAllReservations(byBook, "id", 10, null).getItems().size());
+    }
+
+    private long statementsFor(Runnable call) {
+        entityManager.clear();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User seed(String email, int reservations) {
+        User user = userRepository.save(User.builder()
+                .firstName("Test")
+                .lastName("Reader")
+                .email(email)
+                .password("hash")
+                .userType(userTypeRepository.findByTypeName("User").orElseThrow())
+                .build());
+
+        for (int i = 0; i < reservations; i++) {
+            Book book = bookRepository.save(Book.builder()
+                    .title("Title " + i)
+                    .author("Author")
+                    .publicationYear(2000)
+                    .totalCopies(1)
+                    .availableCopies(0)
+                    .build());
+
+            reservationRepository.save(Reservation.builder()
+                    .user(user)
+                    .book(book)
+                    .status(i % 2 == 0 ? ReservationStatus.RESERVED : ReservationStatus.BORROWED)
+                    .reservationDate(LocalDateTime.now().minusDays(i))
+                    .expectedReturnDate(LocalDateTime.now().plusDays(7))
+                    .build());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return user;
+    }
+}
@@ -0,0 +1,140 @@
+package com.finalproject.library_management_system_backend.repositories;
+
+import com.finalproject.library_management_system_backend.dataset.DatasetGenerator;
+import com.finalproject.library_management_system_backend.dataset.DatasetReport;
+import com.finalproject.library_management_system_backend.dataset.DatasetSpec;
+import com.finalproject.library_management_system_backend.dtos.ReservationFilter;
+import com.finalproject.library_management_system_backend.model.ReservationStatus;
+import com.finalproject.library_management_system_backend.monitoring.StatementCounter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every reservation finder against a generated dataset, asks the
+ * embedded database (H2 in MySQL mode) for the plan of each statement it
+ * sends, and fails if any table is read by a full scan or if the admin
+ * listing has to sort its rows.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservationQueryPlanTest {
+
+    private record Finder(String name, Consumer<ReservationRepository> call) {
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private DatasetReport dataset;
+
+    @BeforeAll
+    void generateDataset() {
+        dataset = datasetGenerator.generate(DatasetSpec.builder()
+                .seed(11)
+                .users(200)
+                .books(2_000)
+                .reservations(20_000)
+                .referenceDate(LocalDate.of(2026, 1, 1))
+                .build());
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterAll
+    void purgeDataset() {
+        jdbcTemplate.update("delete from reservation where book_id >= ?", dataset.getFirstBookId());
+        jdbcTemplate.update("delete from books where id >= ?", dataset.getFirstBookId());
+        jdbcTemplate.update("delete from users where id >= ?", dataset.getFirstUserId());
+    }
+
+    Stream<Finder> finders() {
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 0, 0);
+        String email = DatasetGenerator.email(DatasetSpec.builder().build(), 5);
+        return Stream.of(
+                new Finder("findByStatusAndExpectedReturnDateBefore",
+                        r -> r.findByStatusAndExpectedReturnDateBefore(ReservationStatus.BORROWED, now)),
+                new Finder("findIdsByStatusAndExpectedReturnDateBefore",
+                        r -> r.findIdsByStatusAndExpectedReturnDateBefore(ReservationStatus.BORROWED, now, 0L, Limit.of(100))),
+                new Finder("findDtosByUserEmail", r -> r.findDtosByUserEmail(email)),
+                new Finder("findDtosByUserId", r -> r.findDtosByUserId(dataset.getFirstUserId())),
+                new Finder("findIdsByUserId", r -> r.findIdsByUserId(dataset.getFirstUserId(), Limit.of(100))),
+                new Finder("existsByBookId", r -> r.existsByBookId(dataset.getFirstBookId())),
+                new Finder("findIdsByBookId", r -> r.findIdsByBookId(dataset.getFirstBookId(), Limit.of(100))),
+                new Finder("countByStatus", ReservationRepository::countByStatus),
+                new Finder("countByBookAndStatusIn", r -> r.countByBookAndStatusIn(List.of(
+                        ReservationStatus.BORROWED, ReservationStatus.OVERDUE, ReservationStatus.RETURNED))),
+                new Finder("findDtos", r -> r.findDtos(new ReservationFilter(), ScrollPosition.keyset(),
+                        Sort.by("id"), Limit.of(20))));
+    }
+
+    Stream<Sort> listingSorts() {
+        return Stream.of(Sort.by("id"), Sort.by("reservationDate").and(Sort.by("id")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("finders")
+    void finder_neverScansATable(Finder finder) {
+        for (String plan : plans(finder.call())) {
+            assertFalse(plan.contains(".tableScan"), () -> finder + " scans a table:\n" + plan);
+        }
+    }
+
+    /**
+     * The admin listing must walk reservations in index order and stop at
+     * the page limit rather than join and sort the whole table.
+     */
+    @ParameterizedTest
+    @MethodSource("listingSorts")
+    void findDtos_readsReservationsInIndexOrder(Sort sort) {
+        for (String plan : plans(r -> r.findDtos(new ReservationFilter(), ScrollPosition.keyset(), sort, Limit.of(20)))) {
+            assertTrue(plan.contains("FROM \"public\".\"reservation\""), () -> "listing is not driven by reservation:\n" + plan);
+            assertTrue(plan.contains("/* index sorted */"), () -> "listing sorts its rows:\n" + plan);
+        }
+    }
+
+    private List<String> plans(Consumer<ReservationRepository> call) {
+        List<String> statements;
+        StatementCounter.begin(-1, false);
+        try {
+            transactionTemplate.executeWithoutResult(status -> call.accept(reservationRepository));
+        } finally {
+            statements = StatementCounter.end().getStatements();
+        }
+
+        assertFalse(statements.isEmpty());
+        return statements.stream()
+                .map(sql -> jdbcTemplate.queryForObject("explain " + sql, String.class))
+                .toList();
+    }
+}
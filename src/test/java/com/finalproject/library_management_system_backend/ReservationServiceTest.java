@@ -1,24 +1,39 @@
 package com.finalproject.library_management_system_backend.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.finalproject.library_management_system_backend.dtos.CreateReservationRequest;
+import com.finalproject.library_management_system_backend.dtos.CursorPage;
 import com.finalproject.library_management_system_backend.dtos.ReservationDto;
+import com.finalproject.library_management_system_backend.dtos.ReservationFilter;
+import com.finalproject.library_management_system_backend.events.ReservationStatusChangedEvent;
 import com.finalproject.library_management_system_backend.mappers.ReservationMapper;
 import com.finalproject.library_management_system_backend.model.Book;
 import com.finalproject.library_management_system_backend.model.Reservation;
 import com.finalproject.library_management_system_backend.model.ReservationStatus;
 import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.pagination.KeysetPaginator;
 import com.finalproject.library_management_system_backend.repositories.BookRepository;
 import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
 import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +54,18 @@ class ReservationServiceTest {
     @Mock
     private ReservationMapper reservationMapper;
 
+    @Spy
+    private KeysetPaginator keysetPaginator = new KeysetPaginator(new ObjectMapper().findAndRegisterModules());
+
+    @Mock
+    private LibraryStatsService libraryStatsService;
+
+    @Mock
+    private BookWaitlist bookWaitlist;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ReservationService reservationService;
 
@@ -64,25 +91,34 @@ class ReservationServiceTest {
                 .totalCopies(3)
                 .build();
 
-        when(userRepository.findByEmail(userEmail)).thenReturn(Optional.of(user));
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        AuthenticatedUser reader = new AuthenticatedUser(10L, userEmail, "USER", "Test Reader");
+
+        when(userRepository.getReferenceById(10L)).thenReturn(user);
+        when(bookRepository.decrementAvailableCopies(bookId)).thenReturn(1);
+        when(bookRepository.getReferenceById(bookId)).thenReturn(book);
 
         // make save() return the same reservation instance that was passed in
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
         ReservationDto expectedDto = new ReservationDto();
-        when(reservationMapper.toDto(any(Reservation.class))).thenReturn(expectedDto);
+        when(reservationMapper.toDto(any(Reservation.class), eq(reader))).thenReturn(expectedDto);
 
         // act
-        ReservationDto result = reservationService.createReservation(request, userEmail);
+        ReservationDto result = reservationService.createReservation(request, reader);
 
         // assert
         assertSame(expectedDto, result);
 
-        // verify book copies were decremented and saved
-        assertEquals(2, book.getAvailableCopies());
-        verify(bookRepository).save(book);
+        // the user is referenced by the token's ID, never looked up by email
+        verify(userRepository, never()).findByEmail(any());
+
+        // verify a copy was taken with the guarded update rather than a read-modify-write
+        verify(bookRepository).decrementAvailableCopies(bookId);
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(libraryStatsService).recordTransition(null, ReservationStatus.RESERVED);
+        verify(eventPublisher).publishEvent(
+                new ReservationStatusChangedEvent(null, bookId, null, ReservationStatus.RESERVED));
 
         // capture the reservation that was saved
         ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
@@ -112,41 +148,69 @@ class ReservationServiceTest {
                 .email(userEmail)
                 .build();
 
-        Book book = Book.builder()
-                .id(bookId)
-                .title("Clean Code")
-                .availableCopies(0)
-                .totalCopies(3)
-                .build();
+        AuthenticatedUser reader = new AuthenticatedUser(user.getId(), userEmail, "USER", "Test Reader");
 
-        when(userRepository.findByEmail(userEmail)).thenReturn(Optional.of(user));
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(userRepository.getReferenceById(10L)).thenReturn(user);
+        when(bookRepository.decrementAvailableCopies(bookId)).thenReturn(0);
+        when(bookRepository.existsById(bookId)).thenReturn(true);
 
         // act + assert
         RuntimeException ex = assertThrows(RuntimeException.class,
-                () -> reservationService.createReservation(request, userEmail));
+                () -> reservationService.createReservation(request, reader));
 
         assertEquals("No available copies for this book", ex.getMessage());
         verify(reservationRepository, never()).save(any());
     }
 
     @Test
-    void getAllReservations_mapsEntitiesToDtos() {
+    void getAllReservations_returnsProjectedPageWithNextCursor() {
         // arrange
-        Reservation r1 = Reservation.builder().id(1L).build();
-        Reservation r2 = Reservation.builder().id(2L).build();
+        ReservationDto d1 = new ReservationDto();
+        d1.setId(1L);
+        ReservationDto d2 = new ReservationDto();
+        d2.setId(2L);
 
-        when(reservationRepository.findAll()).thenReturn(List.of(r1, r2));
-        when(reservationMapper.toDto(any(Reservation.class)))
-                .thenReturn(new ReservationDto(), new ReservationDto());
+        ReservationFilter filter = ReservationFilter.builder().status(ReservationStatus.BORROWED).build();
+        Window<ReservationDto> window = Window.from(List.of(d1, d2),
+                i -> ScrollPosition.forward(Map.of("id", i + 1L)), true);
+
+        when(reservationRepository.findDtos(eq(filter), any(KeysetScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(window);
 
         // act
-        List<ReservationDto> result = reservationService.getAllReservations();
+        CursorPage<ReservationDto> result = reservationService.getAllReservations(filter, "id", 2, null);
 
         // assert
-        assertEquals(2, result.size());
-        verify(reservationRepository).findAll();
-        verify(reservationMapper, times(2)).toDto(any(Reservation.class));
+        assertEquals(List.of(d1, d2), result.getItems());
+        assertNotNull(result.getNextCursor());
+        verify(reservationRepository).findDtos(filter, ScrollPosition.keyset(), Sort.by("id"), Limit.of(2));
+        verifyNoInteractions(reservationMapper);
+    }
+
+    @Test
+    void getAllReservations_withNextCursor_resumesAfterLastRow() {
+        // arrange
+        ReservationFilter filter = new ReservationFilter();
+        Window<ReservationDto> firstPage = Window.from(List.of(new ReservationDto()),
+                i -> ScrollPosition.forward(Map.of("id", 1L)), true);
+        when(reservationRepository.findDtos(eq(filter), any(KeysetScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(firstPage)
+                .thenReturn(Window.from(List.of(), i -> ScrollPosition.keyset(), false));
+
+        // act
+        String cursor = reservationService.getAllReservations(filter, "id", 1, null).getNextCursor();
+        CursorPage<ReservationDto> last = reservationService.getAllReservations(filter, "id", 1, cursor);
+
+        // assert
+        verify(reservationRepository).findDtos(filter, ScrollPosition.forward(Map.of("id", 1L)), Sort.by("id"), Limit.of(1));
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void getAllReservations_withUnknownSortKey_throwsBadRequest() {
+        assertThrows(ResponseStatusException.class,
+                () -> reservationService.getAllReservations(new ReservationFilter(), "user.password", 10, null));
+        verifyNoInteractions(reservationRepository);
     }
 
     @Test
@@ -169,7 +233,7 @@ class ReservationServiceTest {
                 .expectedReturnDate(pastDue)
                 .build();
 
-        when(reservationRepository.findById(reservationId)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findForUpdateById(reservationId)).thenReturn(Optional.of(reservation));
 
         // act
         reservationService.returnBook(reservationId);
@@ -177,10 +241,51 @@ class ReservationServiceTest {
         // assert
         assertEquals(ReservationStatus.LATE_RETURNED, reservation.getStatus());
         assertNotNull(reservation.getReturnDate());
-        assertEquals(2, book.getAvailableCopies());
 
         verify(reservationRepository).save(reservation);
-        verify(bookRepository).save(book);
+        verify(bookRepository).incrementAvailableCopies(5L);
+        verify(libraryStatsService).recordTransition(ReservationStatus.BORROWED, ReservationStatus.LATE_RETURNED);
+    }
+
+    @Test
+    void returnBook_withReaderWaiting_handsCopyToThemInsteadOfShelf() {
+        // arrange
+        Long reservationId = 1L;
+
+        Book book = Book.builder()
+                .id(5L)
+                .title("Clean Code")
+                .availableCopies(0)
+                .build();
+
+        Reservation reservation = Reservation.builder()
+                .id(reservationId)
+                .book(book)
+                .status(ReservationStatus.BORROWED)
+                .expectedReturnDate(LocalDateTime.now().plusDays(1))
+                .build();
+
+        User waiter = User.builder().id(9L).build();
+
+        when(reservationRepository.findForUpdateById(reservationId)).thenReturn(Optional.of(reservation));
+        when(bookWaitlist.claimNext(5L)).thenReturn(new BookWaitlist.Waiter(3L, 9L));
+        when(userRepository.getReferenceById(9L)).thenReturn(waiter);
+        when(bookRepository.getReferenceById(5L)).thenReturn(book);
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // act
+        reservationService.returnBook(reservationId);
+
+        // assert
+        ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
+        verify(reservationRepository, times(2)).save(captor.capture());
+        Reservation hold = captor.getAllValues().get(1);
+        assertEquals(ReservationStatus.RESERVED, hold.getStatus());
+        assertSame(waiter, hold.getUser());
+        assertSame(book, hold.getBook());
+
+        verify(bookRepository, never()).incrementAvailableCopies(any());
+        verify(libraryStatsService).recordTransition(null, ReservationStatus.RESERVED);
     }
 
     @Test
@@ -191,11 +296,12 @@ class ReservationServiceTest {
         LocalDateTime oldDueDate = LocalDateTime.now().minusDays(1); // overdue
         Reservation reservation = Reservation.builder()
                 .id(reservationId)
+                .book(Book.builder().id(5L).build())
                 .status(ReservationStatus.OVERDUE)
                 .expectedReturnDate(oldDueDate)
                 .build();
 
-        when(reservationRepository.findById(reservationId)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findForUpdateById(reservationId)).thenReturn(Optional.of(reservation));
 
         // act
         reservationService.extendReservation(reservationId);
@@ -213,10 +319,11 @@ class ReservationServiceTest {
         Long reservationId = 1L;
         Reservation reservation = Reservation.builder()
                 .id(reservationId)
+                .book(Book.builder().id(5L).build())
                 .status(ReservationStatus.RESERVED)
                 .build();
 
-        when(reservationRepository.findById(reservationId)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findForUpdateById(reservationId)).thenReturn(Optional.of(reservation));
 
         // act
         reservationService.collectBook(reservationId);
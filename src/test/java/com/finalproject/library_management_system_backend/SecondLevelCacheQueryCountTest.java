@@ -0,0 +1,166 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.config.CacheConfig;
+import com.finalproject.library_management_system_backend.dtos.CreateReservationRequest;
+import com.finalproject.library_management_system_backend.dtos.RegisterUserRequest;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.model.UserType;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import com.finalproject.library_management_system_backend.security.AuthenticatedUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shows the SQL statements saved by the second-level cache on the login,
+ * registration and reservation flows: each flow is run once against an
+ * empty cache and once against a warm one.
+ */
+@SpringBootTest
+class SecondLevelCacheQueryCountTest {
+
+    @Autowired
+    private AuthenticationProvider authenticationProvider;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+    private UserType userType;
+    private User user;
+    private Book book;
+    private final List<String> registeredEmails = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userType = userTypeRepository.findByTypeName("User").orElseThrow();
+
+        user = userRepository.save(User.builder()
+                .firstName("Cache")
+                .lastName("Tester")
+                .email("l2cache@example.com")
+                .password(passwordEncoder.encode("secret"))
+                .userType(userType)
+                .build());
+        book = bookRepository.save(Book.builder()
+                .title("Cached Entity")
+                .author("Author")
+                .publicationYear(2020)
+                .totalCopies(10)
+                .availableCopies(10)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAllById(reservationRepository.findIdsByUserId(user.getId(), Limit.unlimited()));
+        userRepository.deleteById(user.getId());
+        registeredEmails.forEach(email -> userRepository.findByEmail(email).ifPresent(userRepository::delete));
+        bookRepository.deleteById(book.getId());
+    }
+
+    @Test
+    void login_skipsTheUserTypeLookupOnceWarm() {
+        Runnable login = () -> authenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken(user.getEmail(), "secret"));
+
+        assertEquals(2, coldStatementsFor(login));
+        cacheManager.getCache(CacheConfig.USERS).clear();
+        assertEquals(1, statementsFor(login));
+    }
+
+    @Test
+    void registration_skipsTheUserTypeLookupOnceWarm() {
+        assertEquals(3, coldStatementsFor(() -> register("first.l2cache@example.com")));
+        assertEquals(2, statementsFor(() -> register("second.l2cache@example.com")));
+    }
+
+    @Test
+    void reservation_readsNeitherTheUserNorItsType() {
+        Runnable reserve = () -> {
+            CreateReservationRequest request = new CreateReservationRequest();
+            request.setBookId(book.getId());
+            reservationService.createReservation(request, AuthenticatedUser.from(user));
+        };
+
+        // the user comes from the access token, so only the copy update,
+        // the book read and the insert remain
+        assertEquals(3, coldStatementsFor(reserve));
+        assertEquals(3, statementsFor(reserve));
+    }
+
+    @Test
+    void userTypeFinders_useTheQueryCache() {
+        userTypeRepository.findByTypeName("Admin");
+
+        assertEquals(0, statementsFor(() -> userTypeRepository.findByTypeName("Admin")));
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    private void register(String email) {
+        registeredEmails.add(email);
+        RegisterUserRequest request = new RegisterUserRequest();
+        request.setFirstName("New");
+        request.setLastName("Member");
+        request.setEmail(email);
+        request.setPassword("secret");
+        request.setUserTypeId(userType.getId());
+        authenticationService.register(request);
+    }
+
+    private long coldStatementsFor(Runnable action) {
+        entityManagerFactory.getCache().evictAll();
+        cacheManager.getCache(CacheConfig.USERS).clear();
+        return statementsFor(action);
+    }
+
+    private long statementsFor(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,85 @@
+package com.finalproject.library_management_system_backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void add_withPassedDeadline_isRejected() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 1_000);
+
+        assertFalse(wheel.add("past", 990));
+        assertFalse(wheel.add("now", 1_000));
+        assertTrue(wheel.add("next", 1_001));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void advanceTo_firesEachItemOnTheTickItsDeadlineFallsIn() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        wheel.add("soon", 25);
+        wheel.add("later", 1_234);
+        List<String> fired = new ArrayList<>();
+
+        wheel.advanceTo(20, fired::add);
+        assertEquals(List.of(), fired);
+
+        wheel.advanceTo(30, fired::add);
+        assertEquals(List.of("soon"), fired);
+
+        wheel.advanceTo(1_230, fired::add);
+        assertEquals(List.of("soon"), fired);
+
+        wheel.advanceTo(1_240, fired::add);
+        assertEquals(List.of("soon", "later"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_acrossManyLevels_neverFiresEarlyOrLate() {
+        long tick = 10;
+        TimingWheel<Integer> wheel = new TimingWheel<>(tick, 4, 5);
+        SplittableRandom random = new SplittableRandom(7);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = 6 + random.nextLong(50_000);
+            deadlines.put(i, deadline);
+            assertTrue(wheel.add(i, deadline));
+        }
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        for (long now = 0; now <= 51_000; now += tick) {
+            long at = now;
+            wheel.advanceTo(now, item -> assertNull(firedAt.put(item, at)));
+        }
+
+        assertEquals(deadlines.size(), firedAt.size());
+        deadlines.forEach((item, deadline) -> {
+            long at = firedAt.get(item);
+            assertTrue(at >= deadline, () -> item + " fired early");
+            assertTrue(at < deadline + tick, () -> item + " fired late");
+        });
+    }
+
+    @Test
+    void advanceTo_inOneJump_firesEverythingDue() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 8, 0);
+        for (int i = 1; i <= 1_000; i++) {
+            wheel.add(i, i * 37L);
+        }
+        List<Integer> fired = new ArrayList<>();
+
+        wheel.advanceTo(18_500, fired::add);
+
+        assertEquals(500, fired.size());
+        assertEquals(500, wheel.size());
+    }
+}
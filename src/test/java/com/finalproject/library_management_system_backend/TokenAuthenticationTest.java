@@ -0,0 +1,188 @@
+package com.finalproject.library_management_system_backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finalproject.library_management_system_backend.config.CacheConfig;
+import com.finalproject.library_management_system_backend.dtos.AuthenticationResponse;
+import com.finalproject.library_management_system_backend.dtos.LoginRequest;
+import com.finalproject.library_management_system_backend.dtos.RefreshTokenRequest;
+import com.finalproject.library_management_system_backend.model.Book;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.BookRepository;
+import com.finalproject.library_management_system_backend.repositories.ReservationRepository;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Logs in over HTTP and uses the issued tokens, checking that no session
+ * is created and that a bearer token alone is enough to reserve a book.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TokenAuthenticationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.USERS).clear();
+        user = userRepository.save(User.builder()
+                .firstName("Token")
+                .lastName("Holder")
+                .email("token@example.com")
+                .password(passwordEncoder.encode("secret"))
+                .userType(userTypeRepository.findByTypeName("User").orElseThrow())
+                .build());
+        book = bookRepository.save(Book.builder()
+                .title("Stateless")
+                .author("Author")
+                .publicationYear(2020)
+                .totalCopies(1)
+                .availableCopies(1)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAllById(reservationRepository.findIdsByUserId(user.getId(), Limit.unlimited()));
+        userRepository.deleteById(user.getId());
+        bookRepository.deleteById(book.getId());
+    }
+
+    @Test
+    void login_issuesTokensWithoutASession() throws Exception {
+        MvcResult result = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("token@example.com", "secret"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andReturn();
+
+        assertNull(result.getRequest().getSession(false));
+        assertNotNull(tokens(result).getRefreshToken());
+    }
+
+    @Test
+    void login_withWrongPassword_isUnauthorized() throws Exception {
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("token@example.com", "wrong"))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void formLogin_alsoIssuesTokens() throws Exception {
+        MvcResult result = mockMvc.perform(post("/login")
+                        .param("username", "token@example.com")
+                        .param("password", "secret"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNotNull(tokens(result).getAccessToken());
+    }
+
+    @Test
+    void bearerToken_authenticatesWithoutReadingTheUser() throws Exception {
+        AuthenticationResponse tokens = login();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/reservations")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.getAccessToken())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookId\":" + book.getId() + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(user.getId()))
+                .andExpect(jsonPath("$.userFirstName").value("Token Holder"));
+
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void missingOrInvalidToken_isUnauthorized() throws Exception {
+        mockMvc.perform(get("/users/user-details"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/users/user-details").header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/users/user-details")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + login().getRefreshToken()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refresh_issuesANewPair() throws Exception {
+        String refreshToken = login().getRefreshToken();
+
+        MvcResult result = mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest(refreshToken))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        mockMvc.perform(get("/users/user-details")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens(result).getAccessToken()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("token@example.com"));
+    }
+
+    private AuthenticationResponse login() throws Exception {
+        return tokens(mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("token@example.com", "secret"))))
+                .andExpect(status().isOk())
+                .andReturn());
+    }
+
+    private AuthenticationResponse tokens(MvcResult result) throws Exception {
+        return objectMapper.readValue(result.getResponse().getContentAsString(), AuthenticationResponse.class);
+    }
+}
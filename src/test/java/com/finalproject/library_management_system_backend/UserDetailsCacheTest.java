@@ -0,0 +1,190 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.config.CacheConfig;
+import com.finalproject.library_management_system_backend.dtos.CacheStatistics;
+import com.finalproject.library_management_system_backend.dtos.RegisterUserRequest;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.model.UserType;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import com.finalproject.library_management_system_backend.security.UserAccount;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that repeated logins and "who am I" lookups are served from the
+ * user cache, that creating or deleting a user is seen at once, and that
+ * the cache holds immutable copies rather than managed users.
+ */
+@SpringBootTest
+class UserDetailsCacheTest {
+
+    private static final String EMAIL = "cached.user@example.com";
+
+    @Autowired
+    private AuthenticationProvider authenticationProvider;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CachedUserDetailsService userDetailsService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private CacheMetricsService cacheMetricsService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private UserType userType;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cacheManager.getCache(CacheConfig.USERS).clear();
+        userType = userTypeRepository.findByTypeName("User").orElseThrow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from users where email = ?", EMAIL);
+    }
+
+    @Test
+    void repeatedLoginsAndLookups_hitTheCache() {
+        User user = saveUser();
+        Runnable login = () -> authenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken(EMAIL, "secret"));
+
+        assertEquals(1, statementsFor(login));
+        assertEquals(0, statementsFor(login));
+        assertEquals(0, statementsFor(() -> userService.getUserDetailsByEmail(EMAIL)));
+        assertEquals(user.getId(), userService.getUserDetailsByEmail(EMAIL).getId());
+
+        CacheStatistics users = cacheMetricsService.getCacheStatistics().stream()
+                .filter(stats -> stats.getName().equals(CacheConfig.USERS))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(users.getHits() >= 2);
+        assertTrue(users.getMisses() >= 1);
+    }
+
+    @Test
+    void deleteUser_evictsTheEntry() {
+        User user = saveUser();
+        userService.getUserDetailsByEmail(EMAIL);
+
+        userService.deleteUser(user.getId());
+
+        assertThrows(UsernameNotFoundException.class, () -> userService.getUserDetailsByEmail(EMAIL));
+        assertThrows(AuthenticationException.class, () -> authenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken(EMAIL, "secret")));
+    }
+
+    @Test
+    void unknownEmails_areNotCached_andCreateUserIsSeenAtOnce() {
+        assertThrows(UsernameNotFoundException.class, () -> userService.getUserDetailsByEmail(EMAIL));
+
+        RegisterUserRequest request = new RegisterUserRequest();
+        request.setFirstName("Cached");
+        request.setLastName("User");
+        request.setEmail(EMAIL);
+        request.setPassword(passwordEncoder.encode("secret"));
+        request.setUserTypeId(userType.getId());
+        userService.createUser(request);
+
+        assertEquals("Cached", userService.getUserDetailsByEmail(EMAIL).getFirstName());
+    }
+
+    @Test
+    void login_rehashesPasswordsBelowTheCurrentStrength() {
+        User user = saveUser();
+        jdbcTemplate.update("update users set password_hash = ? where id = ?",
+                new BCryptPasswordEncoder(4).encode("secret"), user.getId());
+
+        authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, "secret"));
+
+        String stored = jdbcTemplate.queryForObject(
+                "select password_hash from users where id = ?", String.class, user.getId());
+        assertFalse(stored.startsWith("$2a$04$"));
+        assertTrue(passwordEncoder.matches("secret", stored));
+        assertFalse(passwordEncoder.upgradeEncoding(stored));
+        assertDoesNotThrow(() -> authenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken(EMAIL, "secret")));
+    }
+
+    @Test
+    void login_authenticatesWithACachedCopy_thatPasswordUpgradesDoNotChange() {
+        saveUser();
+
+        Authentication login = authenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken(EMAIL, "secret"));
+        UserAccount cached = userDetailsService.loadUserByEmail(EMAIL);
+        UserDetails upgraded = userDetailsService.updatePassword(cached, "new-hash");
+
+        assertInstanceOf(UserAccount.class, login.getPrincipal());
+        assertNotEquals("new-hash", cached.getPassword());
+        assertEquals("new-hash", upgraded.getPassword());
+        assertEquals("new-hash", userDetailsService.loadUserByEmail(EMAIL).getPassword());
+    }
+
+    @Test
+    void authenticationProvider_isTheOnlyLoginSource() {
+        assertEquals(0, applicationContext.getBeanNamesForType(UserDetailsService.class).length);
+    }
+
+    private User saveUser() {
+        return userRepository.save(User.builder()
+                .firstName("Cached")
+                .lastName("User")
+                .email(EMAIL)
+                .password(passwordEncoder.encode("secret"))
+                .userType(userType)
+                .build());
+    }
+
+    private long statementsFor(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
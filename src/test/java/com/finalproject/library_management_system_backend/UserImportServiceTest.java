@@ -0,0 +1,168 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.UserImportReport;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports CSV and NDJSON uploads of users into the embedded database and
+ * checks the outcome reported for every row.
+ */
+@Slf4j
+@SpringBootTest
+class UserImportServiceTest {
+
+    private static final String LAST_NAME = "Imported";
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from users where last_name = ?", LAST_NAME);
+    }
+
+    @Test
+    void csv_reportsAnOutcomeForEveryRow() throws Exception {
+        userRepository.save(User.builder()
+                .firstName("Existing")
+                .lastName(LAST_NAME)
+                .email("taken@import.example.com")
+                .password("hash")
+                .userType(userTypeRepository.findByTypeName("User").orElseThrow())
+                .build());
+        Long adminType = userTypeRepository.findByTypeName("Admin").orElseThrow().getId();
+
+        String csv = String.join("\n",
+                "email,firstName,lastName,password,userTypeId",
+                "ada@import.example.com,Ada," + LAST_NAME + ",\"pa,ss\",",
+                "taken@import.example.com,Taken," + LAST_NAME + ",secret,",
+                "ADA@import.example.com,Again," + LAST_NAME + ",secret,",
+                "not-an-email,Bad," + LAST_NAME + ",secret,",
+                "",
+                "root@import.example.com,Root," + LAST_NAME + ",secret," + adminType,
+                "ghost@import.example.com,Ghost," + LAST_NAME + ",secret,999");
+
+        UserImportReport report = userImportService.importUsers(stream(csv), ImportFormat.CSV);
+
+        assertEquals(6, report.getRowsRead());
+        assertEquals(2, report.getCreated());
+        assertEquals(2, report.getDuplicates());
+        assertEquals(2, report.getInvalid());
+        assertEquals(List.of(2L, 3L, 4L, 5L, 7L, 8L),
+                report.getRows().stream().map(UserImportReport.RowResult::getLine).toList());
+        assertEquals(List.of(
+                        UserImportReport.Outcome.CREATED,
+                        UserImportReport.Outcome.DUPLICATE,
+                        UserImportReport.Outcome.DUPLICATE,
+                        UserImportReport.Outcome.INVALID,
+                        UserImportReport.Outcome.CREATED,
+                        UserImportReport.Outcome.INVALID),
+                report.getRows().stream().map(UserImportReport.RowResult::getOutcome).toList());
+        assertEquals("Same email as line 2", report.getRows().get(2).getMessage());
+
+        User ada = userRepository.findById(report.getRows().get(0).getUserId()).orElseThrow();
+        assertTrue(passwordEncoder.matches("pa,ss", ada.getPassword()));
+        assertEquals("User", ada.getUserType().getTypeName());
+        User root = userRepository.findByEmail("root@import.example.com").orElseThrow();
+        assertEquals("Admin", root.getUserType().getTypeName());
+    }
+
+    @Test
+    void ndjson_createsUsersAndReportsMalformedRows() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"firstName\":\"Json\",\"lastName\":\"" + LAST_NAME + "\",\"email\":\"json@import.example.com\",\"password\":\"secret\"}",
+                "{\"firstName\":\"Broken\",",
+                "{\"firstName\":\"NoPassword\",\"lastName\":\"" + LAST_NAME + "\",\"email\":\"nopw@import.example.com\"}");
+
+        UserImportReport report = userImportService.importUsers(stream(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(1, report.getCreated());
+        assertEquals(2, report.getInvalid());
+        assertEquals("password is required", report.getRows().get(2).getMessage());
+        assertTrue(userRepository.findByEmail("json@import.example.com").isPresent());
+    }
+
+    @Test
+    void csv_batchRejectedByDatabase_retriesRowByRowAndFailsOnlyTheRejectedRow() throws Exception {
+        jdbcTemplate.execute("alter table users add constraint chk_import_test check (first_name <> 'Rejected')");
+        try {
+            String csv = String.join("\n",
+                    "firstName,lastName,email,password",
+                    "First," + LAST_NAME + ",first@import.example.com,secret",
+                    "Rejected," + LAST_NAME + ",rejected@import.example.com,secret",
+                    "Third," + LAST_NAME + ",third@import.example.com,secret");
+
+            UserImportReport report = userImportService.importUsers(stream(csv), ImportFormat.CSV);
+
+            assertEquals(2, report.getCreated());
+            assertEquals(1, report.getFailed());
+            assertEquals(List.of(
+                            UserImportReport.Outcome.CREATED,
+                            UserImportReport.Outcome.FAILED,
+                            UserImportReport.Outcome.CREATED),
+                    report.getRows().stream().map(UserImportReport.RowResult::getOutcome).toList());
+            assertTrue(report.getRows().get(1).getMessage().startsWith("Insert failed: "));
+            assertNotNull(report.getRows().get(2).getUserId());
+            assertTrue(userRepository.findByEmail("third@import.example.com").isPresent());
+            assertTrue(userRepository.findByEmail("rejected@import.example.com").isEmpty());
+        } finally {
+            jdbcTemplate.execute("alter table users drop constraint chk_import_test");
+        }
+    }
+
+    @Test
+    void csv_withoutRequiredColumn_isRejected() {
+        assertThrows(ResponseStatusException.class, () -> userImportService.importUsers(
+                stream("email,firstName,lastName\na@b.c,A,B"), ImportFormat.CSV));
+    }
+
+    @Test
+    void csv_largeUpload_reportThroughput() throws Exception {
+        int rows = 2_000;
+        StringBuilder csv = new StringBuilder("firstName,lastName,email,password\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("Member").append(',').append(LAST_NAME).append(",member").append(i)
+                    .append("@import.example.com,secret").append(i).append('\n');
+        }
+
+        UserImportReport report = userImportService.importUsers(stream(csv.toString()), ImportFormat.CSV);
+
+        assertEquals(rows, report.getCreated());
+        assertEquals(rows, jdbcTemplate.queryForObject("select count(*) from users where last_name = ?", Long.class, LAST_NAME));
+        log.info("User import: {} rows in {} ms ({} rows/sec)",
+                rows, report.getElapsedMillis(), rows * 1000L / Math.max(1, report.getElapsedMillis()));
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
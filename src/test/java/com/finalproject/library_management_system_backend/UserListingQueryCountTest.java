@@ -0,0 +1,86 @@
+package com.finalproject.library_management_system_backend.services;
+
+import com.finalproject.library_management_system_backend.dtos.CursorPage;
+import com.finalproject.library_management_system_backend.dtos.UserDto;
+import com.finalproject.library_management_system_backend.model.User;
+import com.finalproject.library_management_system_backend.repositories.UserRepository;
+import com.finalproject.library_management_system_backend.repositories.UserTypeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the user listing to one statement per page, so that loading each
+ * user's type on its own fails the build.
+ */
+@SpringBootTest
+@Transactional
+class UserListingQueryCountTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTypeRepository userTypeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getUsers_fetchesUserTypesWithThePage() {
+        for (String typeName : List.of("User", "Admin")) {
+            for (int i = 0; i < 3; i++) {
+                userRepository.save(User.builder()
+                        .firstName("Listed")
+                        .lastName(typeName)
+                        .email(typeName.toLowerCase() + i + "@listing.example.com")
+                        .password("hash")
+                        .userType(userTypeRepository.findByTypeName(typeName).orElseThrow())
+                        .build());
+            }
+        }
+        entityManager.flush();
+
+        List<UserDto> users = new ArrayList<>();
+        String cursor = null;
+        do {
+            entityManager.clear();
+            entityManagerFactory.getCache().evictAll();
+            statistics.clear();
+            CursorPage<UserDto> page = userService.getUsers("id", 4, cursor);
+            assertEquals(1, statistics.getPrepareStatementCount());
+            users.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<UserDto> listed = users.stream()
+                .filter(user -> user.getEmail().endsWith("@listing.example.com"))
+                .toList();
+        assertEquals(6, listed.size());
+        listed.forEach(user -> assertEquals(user.getLastName(), user.getUserType()));
+    }
+}